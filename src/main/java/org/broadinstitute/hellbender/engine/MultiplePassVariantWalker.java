@@ -1,20 +1,38 @@
 package org.broadinstitute.hellbender.engine;
 
 import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.barclay.argparser.Advanced;
+import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.CountingVariantFilter;
-import org.broadinstitute.hellbender.engine.filters.VariantFilter;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
  * A VariantWalker that makes multiple passes through the variants.
  * This allows the user to store internal states during early passes, which the user can then
  * process and access during later passes
+ *
+ * Optionally (see {@link #CACHE_VARIANTS_BETWEEN_PASSES_LONG_NAME}), the variants decoded during the first pass are kept in
+ * memory and later passes stream from them, rather than reading and decoding the input again.
  **/
 public abstract class MultiplePassVariantWalker extends VariantWalker {
 
+    public static final String CACHE_VARIANTS_BETWEEN_PASSES_LONG_NAME = "cache-variants-between-passes";
+
+    /**
+     * Keep the variants of the first pass in memory for the later passes, instead of reading them again from the input.
+     * This trades memory, proportional to the number of variants, for the cost of parsing the input on every pass.
+     */
+    @Advanced
+    @Argument(fullName = CACHE_VARIANTS_BETWEEN_PASSES_LONG_NAME,
+            doc = "Keep the decoded variants in memory between passes rather than reading the input again on each pass", optional = true)
+    public boolean cacheVariantsBetweenPasses = false;
+
     protected abstract int numberOfPasses();
 
     /**
@@ -34,10 +52,21 @@ public abstract class MultiplePassVariantWalker extends VariantWalker {
         final CountingVariantFilter countingVariantFilter = makeVariantFilter();
         final CountingReadFilter readFilter = makeReadFilter();
 
+        // variants that passed the filter in the first pass, if cached
+        final List<VariantContext> cachedVariants = cacheVariantsBetweenPasses && numberOfPasses() > 1 ? new ArrayList<>() : null;
+
         for (int n = 0; n < numberOfPasses(); n++) {
             logger.info("Starting pass " + n + " through the variants");
             final int nCopyInLambda = n;
-            traverseVariants(countingVariantFilter, readFilter, (vc, rc, ref, fc) -> nthPassApply(vc, rc, ref, fc, nCopyInLambda));
+            final Stream<VariantContext> variants;
+            if (n > 0 && cachedVariants != null) {
+                variants = cachedVariants.stream();
+            } else {
+                final Stream<VariantContext> filteredVariants = StreamSupport.stream(getSpliteratorForDrivingVariants(), false)
+                        .filter(countingVariantFilter);
+                variants = cachedVariants == null ? filteredVariants : filteredVariants.peek(cachedVariants::add);
+            }
+            traverseVariants(variants, readFilter, (vc, rc, ref, fc) -> nthPassApply(vc, rc, ref, fc, nCopyInLambda));
             logger.info("Finished pass " + n + " through the variants");
 
             // Process the data accumulated during the nth pass
@@ -69,17 +98,15 @@ public abstract class MultiplePassVariantWalker extends VariantWalker {
      */
     protected abstract void afterNthPass(final int n);
 
-    private void traverseVariants(final VariantFilter variantFilter, final CountingReadFilter readFilter, final VariantConsumer variantConsumer){
-        StreamSupport.stream(getSpliteratorForDrivingVariants(), false)
-                .filter(variantFilter)
-                .forEach(variant -> {
-                    final SimpleInterval variantInterval = new SimpleInterval(variant);
-                    variantConsumer.consume(variant,
-                            new ReadsContext(reads, variantInterval, readFilter),
-                            new ReferenceContext(reference, variantInterval),
-                            new FeatureContext(features, variantInterval));
-                    progressMeter.update(variantInterval);
-                });
+    private void traverseVariants(final Stream<VariantContext> variants, final CountingReadFilter readFilter, final VariantConsumer variantConsumer){
+        variants.forEach(variant -> {
+            final SimpleInterval variantInterval = new SimpleInterval(variant);
+            variantConsumer.consume(variant,
+                    new ReadsContext(reads, variantInterval, readFilter),
+                    new ReferenceContext(reference, variantInterval),
+                    new FeatureContext(features, variantInterval));
+            progressMeter.update(variantInterval);
+        });
     }
 
     @FunctionalInterface
@@ -1,11 +1,6 @@
 package org.broadinstitute.hellbender.engine.filters.flow;
 
-import htsjdk.samtools.CigarOperator;
-import htsjdk.samtools.SAMFileHeader;
-import org.apache.commons.lang3.tuple.Pair;
-import org.broadinstitute.hellbender.engine.filters.ReadFilter;
-import org.broadinstitute.hellbender.exceptions.GATKException;
-import org.broadinstitute.hellbender.utils.BaseUtils;
+import org.broadinstitute.hellbender.utils.read.FlowBasedReadAttributes;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 /**
@@ -42,22 +37,22 @@ public class FlowBasedHmerBasedReadFilterHelper  {
         if ( values == null )
             return false;
 
-        // establish if edges are hard clipped
-        final boolean       startHardClipped = read.getCigar().getFirstCigarElement().getOperator() == CigarOperator.HARD_CLIP;
-        final boolean       endHardClipped = read.getCigar().getLastCigarElement().getOperator() == CigarOperator.HARD_CLIP;
+        // establish if edges are hard clipped. hmers are parsed once per read, shared among filters
+        final FlowBasedReadAttributes attributes = FlowBasedReadAttributes.of(read);
+        final boolean       startHardClipped = attributes.isStartHardClipped();
+        final boolean       endHardClipped = attributes.isEndHardClipped();
 
         // iterate over hmers
-        final BaseUtils.HmerIterator      iter = new BaseUtils.HmerIterator(read.getBasesNoCopy());
+        final int[]         hmerLengths = attributes.getHmerLengths();
         int     ofs = 0;
-        while ( iter.hasNext() ) {
+        for ( int i = 0 ; i < hmerLengths.length ; i++ ) {
 
             // find hmer
-            final Pair<Byte,Integer> hmer = iter.next();
-            final int                 hmerLength = hmer.getRight();
+            final int                 hmerLength = hmerLengths[i];
 
             // establish first/last
-            final boolean             first = ofs == 0;
-            final boolean             last = !iter.hasNext();
+            final boolean             first = i == 0;
+            final boolean             last = i == (hmerLengths.length - 1);
 
             // skip edge hmers if hard clipped
             if ( !((first && startHardClipped) || (last && endHardClipped)) ) {
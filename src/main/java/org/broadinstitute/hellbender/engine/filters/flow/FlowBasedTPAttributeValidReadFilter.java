@@ -4,7 +4,7 @@ import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.utils.help.HelpConstants;
-import org.broadinstitute.hellbender.utils.read.FlowBasedRead;
+import org.broadinstitute.hellbender.utils.read.FlowBasedReadAttributes;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 /**
@@ -30,7 +30,7 @@ public class FlowBasedTPAttributeValidReadFilter extends ReadFilter implements F
 
     @Override
     public byte[] getValuesOfInterest(final GATKRead read) {
-        return read.getAttributeAsByteArray(FlowBasedRead.FLOW_MATRIX_TAG_NAME);
+        return FlowBasedReadAttributes.of(read).getTp();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.genomicsdb;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.util.Interval;
@@ -15,6 +16,8 @@ import htsjdk.variant.vcf.VCFFileReader;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLine;
 import htsjdk.variant.vcf.VCFUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.CommandLineException;
@@ -48,8 +51,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -66,6 +72,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -214,6 +221,7 @@ public final class GenomicsDBImport extends GATKTool {
     public static final String MERGE_INPUT_INTERVALS_LONG_NAME = "merge-input-intervals";
     public static final String VCF_INITIALIZER_THREADS_LONG_NAME = "reader-threads";
     public static final String MAX_NUM_INTERVALS_TO_IMPORT_IN_PARALLEL = "max-num-intervals-to-import-in-parallel";
+    public static final String READER_POOL_SIZE_LONG_NAME = "reader-pool-size";
     public static final String MERGE_CONTIGS_INTO_NUM_PARTITIONS = "merge-contigs-into-num-partitions";
     public static final String BYPASS_FEATURE_READER = "bypass-feature-reader";
     public static final String VCF_HEADER_OVERRIDE = "header";
@@ -343,6 +351,16 @@ public final class GenomicsDBImport extends GATKTool {
             minValue = 1)
     private int maxNumIntervalsToImportInParallel = 1;
 
+    @Advanced
+    @Argument(fullName = READER_POOL_SIZE_LONG_NAME,
+            doc = "Max number of GVCF readers kept open after importing a batch for an interval, to be reused when importing " +
+                  "the same samples for other intervals; higher values avoid reading the header and index of each GVCF once per " +
+                  "interval, but keep more file descriptors open. Defaults to 0, which disables reuse. Not used with " + BYPASS_FEATURE_READER +
+                  ", and may not be combined with more than one " + VCF_INITIALIZER_THREADS_LONG_NAME,
+            optional = true,
+            minValue = 0)
+    private int readerPoolSize = 0;
+
     @Advanced
     @Argument(fullName = MERGE_CONTIGS_INTO_NUM_PARTITIONS,
             shortName = MERGE_CONTIGS_INTO_NUM_PARTITIONS,
@@ -395,6 +413,9 @@ public final class GenomicsDBImport extends GATKTool {
     //executor service used when vcfInitializerThreads > 1
     private ExecutorService inputPreloadExecutorService;
 
+    //pool of readers reused across intervals, used when readerPoolSize > 0
+    private ReaderPool readerPool;
+
     /**
      * Get the largest interval per contig that contains the intervals specified on the command line.
      * @param getIntervals intervals to be transformed
@@ -476,6 +497,7 @@ public final class GenomicsDBImport extends GATKTool {
         assertVariantPathsOrSampleNameFileWasSpecified();
         assertOverwriteWorkspaceAndIncrementalImportMutuallyExclusive();
         assertAvoidNioConditionsAreValid();
+        assertReaderPoolConditionsAreValid();
         initializeHeaderAndSampleMappings();
         initializeIntervals();
         super.onStartup();
@@ -528,6 +550,14 @@ public final class GenomicsDBImport extends GATKTool {
         }
     }
 
+    private void assertReaderPoolConditionsAreValid() {
+        // readers initialized in parallel are wrapped for a single query, so they can't be reused
+        if (readerPoolSize > 0 && vcfInitializerThreads > 1) {
+            throw new CommandLineException("--" + READER_POOL_SIZE_LONG_NAME + " cannot be used with more than one --" +
+                    VCF_INITIALIZER_THREADS_LONG_NAME);
+        }
+    }
+
     private static void assertIntervalsCoverEntireContigs(GenomicsDBImporter importer,
                                                           List<SimpleInterval> intervals) {
         GenomicsDBVidMapProto.VidMappingPB vidMapPB = importer.getProtobufVidMapping();
@@ -696,6 +726,7 @@ public final class GenomicsDBImport extends GATKTool {
             logger.info("Importing to workspace - " + workspaceDir);
         }
         initializeInputPreloadExecutorService();
+        readerPool = readerPoolSize > 0 && !bypassFeatureReader ? new ReaderPool(readerPoolSize) : null;
     }
 
     private void initializeInputPreloadExecutorService() {
@@ -955,7 +986,9 @@ public final class GenomicsDBImport extends GATKTool {
             final String sampleName = sampleNames.get(i);
             final Path variantPath = IOUtils.getPath(sampleNameToPath.get(sampleName).toString());
             final Path variantIndexPath = sampleNameMap.getVCFIndexForSampleAsPath(sampleName);
-            final FeatureReader<VariantContext> reader = getReaderFromPath(variantPath, variantIndexPath);
+            final FeatureReader<VariantContext> reader = readerPool != null ?
+                    readerPool.getReader(sampleName, () -> getReaderFromPath(variantPath, variantIndexPath)) :
+                    getReaderFromPath(variantPath, variantIndexPath);
             sampleToReaderMap.put(sampleName, reader);
         }
         logger.info("Importing batch " + this.batchCount + " with " + sampleToReaderMap.size() + " samples");
@@ -1114,6 +1147,9 @@ public final class GenomicsDBImport extends GATKTool {
         if(inputPreloadExecutorService != null) {
             inputPreloadExecutorService.shutdownNow();
         }
+        if(readerPool != null) {
+            readerPool.close();
+        }
     }
 
     /**
@@ -1133,6 +1169,141 @@ public final class GenomicsDBImport extends GATKTool {
         }
     }
 
+    /**
+     * A bounded pool of open GVCF readers, so that the header and index of a GVCF are read once for all the intervals
+     * in which its batch is imported, rather than once per interval. Each reader is used by one import at a time: readers
+     * handed out by {@link #getReader} go back to the pool when closed, and the least recently returned readers are
+     * closed when the pool is full.
+     */
+    @VisibleForTesting
+    static final class ReaderPool {
+        private static final Logger logger = LogManager.getLogger(ReaderPool.class);
+
+        private final int maxIdleReaders;
+        private final Map<String, Deque<FeatureReader<VariantContext>>> idleReadersBySample = new HashMap<>();
+        // idle readers in the order in which they were returned to the pool, with their sample
+        private final LinkedHashMap<FeatureReader<VariantContext>, String> idleReaders = new LinkedHashMap<>();
+        private boolean closed = false;
+
+        ReaderPool(final int maxIdleReaders) {
+            this.maxIdleReaders = maxIdleReaders;
+        }
+
+        /**
+         * @return an idle reader of the sample if there is one, a new reader otherwise, to be closed when no longer used
+         */
+        FeatureReader<VariantContext> getReader(final String sampleName, final Supplier<FeatureReader<VariantContext>> readerSupplier) {
+            final FeatureReader<VariantContext> idleReader = takeIdleReader(sampleName);
+            return new PooledReader(sampleName, idleReader != null ? idleReader : readerSupplier.get());
+        }
+
+        private synchronized FeatureReader<VariantContext> takeIdleReader(final String sampleName) {
+            final Deque<FeatureReader<VariantContext>> sampleReaders = idleReadersBySample.get(sampleName);
+            if (sampleReaders == null) {
+                return null;
+            }
+            final FeatureReader<VariantContext> reader = sampleReaders.pollLast();
+            if (sampleReaders.isEmpty()) {
+                idleReadersBySample.remove(sampleName);
+            }
+            idleReaders.remove(reader);
+            return reader;
+        }
+
+        private void returnReader(final String sampleName, final FeatureReader<VariantContext> reader) throws IOException {
+            final List<FeatureReader<VariantContext>> readersToClose = new ArrayList<>(1);
+            synchronized (this) {
+                if (closed) {
+                    readersToClose.add(reader);
+                } else {
+                    idleReadersBySample.computeIfAbsent(sampleName, s -> new ArrayDeque<>()).addLast(reader);
+                    idleReaders.put(reader, sampleName);
+                    while (idleReaders.size() > maxIdleReaders) {
+                        // the least recently returned reader is also the first idle reader of its sample
+                        final FeatureReader<VariantContext> eldest = idleReaders.keySet().iterator().next();
+                        final String eldestSampleName = idleReaders.remove(eldest);
+                        final Deque<FeatureReader<VariantContext>> sampleReaders = idleReadersBySample.get(eldestSampleName);
+                        sampleReaders.removeFirst();
+                        if (sampleReaders.isEmpty()) {
+                            idleReadersBySample.remove(eldestSampleName);
+                        }
+                        readersToClose.add(eldest);
+                    }
+                }
+            }
+            for (final FeatureReader<VariantContext> readerToClose : readersToClose) {
+                readerToClose.close();
+            }
+        }
+
+        /**
+         * Close the idle readers. Readers in use are closed when they are returned.
+         */
+        void close() {
+            final List<FeatureReader<VariantContext>> readersToClose;
+            synchronized (this) {
+                closed = true;
+                readersToClose = new ArrayList<>(idleReaders.keySet());
+                idleReaders.clear();
+                idleReadersBySample.clear();
+            }
+            for (final FeatureReader<VariantContext> reader : readersToClose) {
+                try {
+                    reader.close();
+                } catch (final IOException e) {
+                    logger.warn("Failed to close GVCF reader: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * A reader handed out by the pool, which is returned to the pool instead of being closed
+         */
+        private final class PooledReader implements FeatureReader<VariantContext> {
+            private final String sampleName;
+            private final FeatureReader<VariantContext> reader;
+            private boolean returned = false;
+
+            private PooledReader(final String sampleName, final FeatureReader<VariantContext> reader) {
+                this.sampleName = sampleName;
+                this.reader = reader;
+            }
+
+            @Override
+            public CloseableTribbleIterator<VariantContext> query(final String chr, final int start, final int end) throws IOException {
+                return reader.query(chr, start, end);
+            }
+
+            @Override
+            public CloseableTribbleIterator<VariantContext> iterator() throws IOException {
+                return reader.iterator();
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!returned) {
+                    returned = true;
+                    returnReader(sampleName, reader);
+                }
+            }
+
+            @Override
+            public List<String> getSequenceNames() {
+                return reader.getSequenceNames();
+            }
+
+            @Override
+            public Object getHeader() {
+                return reader.getHeader();
+            }
+
+            @Override
+            public boolean isQueryable() {
+                return reader.isQueryable();
+            }
+        }
+    }
+
     /**
      * This class is a hack to force parallel loading of the headers and indexes of remote gvcf files.
      * It initializes a feature reader and starts a query.  This causes the header and index to be read, and also causes any
@@ -18,6 +18,7 @@ import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.argumentcollections.DbsnpArgumentCollection;
 import org.broadinstitute.hellbender.cmdline.programgroups.ShortVariantDiscoveryProgramGroup;
+import org.broadinstitute.hellbender.engine.FeatureInput;
 import org.broadinstitute.hellbender.engine.GATKPath;
 import org.broadinstitute.hellbender.engine.MultiVariantWalkerGroupedOnStart;
 import org.broadinstitute.hellbender.engine.ReadsContext;
@@ -148,6 +149,8 @@ public final class CombineGVCFs extends MultiVariantWalkerGroupedOnStart {
     // State that gets accumulated between calls of apply()
     private final LinkedList<VariantContext> variantContextsOverlappingCurrentMerge = new LinkedList<>();
     private final Set<String> samples = new HashSet<>();
+    // sample names of each input, by source name (see getSampleNames())
+    private final Map<String, Set<String>> sampleNamesBySource = new HashMap<>();
     private SimpleInterval prevPos = null;
     private byte refAfterPrevPos;
     private ReferenceContext storedReferenceContext;
@@ -274,6 +277,13 @@ public final class CombineGVCFs extends MultiVariantWalkerGroupedOnStart {
 
         vcfWriter = getVCFWriter();
 
+        for (final FeatureInput<VariantContext> featureInput : getDrivingVariantsFeatureInputs()) {
+            final Object header = getHeaderForFeatures(featureInput);
+            if (header instanceof VCFHeader) {
+                sampleNamesBySource.put(featureInput.getName(), new HashSet<>(((VCFHeader) header).getGenotypeSamples()));
+            }
+        }
+
         referenceConfidenceVariantContextMerger = new ReferenceConfidenceVariantContextMerger(annotationEngine, getHeaderForVariants(), somaticInput, dropSomaticFilteringAnnotations, makeGenotypeCalls);
 
         //now that we have all the VCF headers, initialize the annotations (this is particularly important to turn off RankSumTest dithering in integration tests)'
@@ -343,7 +353,7 @@ public final class CombineGVCFs extends MultiVariantWalkerGroupedOnStart {
             }
             variantContextsOverlappingCurrentMerge.addAll(variantContexts);
             for(final VariantContext vc : variantContextsOverlappingCurrentMerge){
-                samples.addAll(vc.getSampleNames());
+                samples.addAll(getSampleNames(vc));
             }
         }
     }
@@ -366,11 +376,24 @@ public final class CombineGVCFs extends MultiVariantWalkerGroupedOnStart {
     private Set<String> getSamples(List<VariantContext> variantContexts) {
         Set<String> output = new HashSet<>();
         for (final VariantContext vc : variantContexts) {
-            output.addAll(vc.getSampleNames());
+            output.addAll(getSampleNames(vc));
         }
         return output;
     }
 
+    /**
+     * Get the sample names of a VariantContext from the header of the input it was read from, so that tracking which
+     * samples overlap the current merge does not decode the (lazily parsed) genotypes of every record, most of which
+     * are reference blocks. Genotypes are only decoded once a record takes part in a merged output record.
+     *
+     * @param vc  a VariantContext from the driving variants
+     * @return the sample names of vc
+     */
+    private Set<String> getSampleNames(final VariantContext vc) {
+        final Set<String> sampleNames = sampleNamesBySource.get(vc.getSource());
+        return sampleNames != null ? sampleNames : vc.getSampleNames();
+    }
+
     /**
      * Disrupt the VariantContexts so that they all stop at the given pos, write them out, and put the remainder back in the list.
      * @param pos   the position for the starting variantContexts
@@ -396,8 +419,8 @@ public final class CombineGVCFs extends MultiVariantWalkerGroupedOnStart {
 
                 // if it was ending anyways, then remove it from the future state
                 // or if ending vc is the same sample as a starting VC, then remove it from the future state
-                if((vc.getEnd() == pos.getStart()) || (variantContexts.size() > 0 && !forceOutputAtCurrentPosition && newSamples.containsAll(vc.getSampleNames()))) {
-                    samples.removeAll(vc.getSampleNames());
+                if((vc.getEnd() == pos.getStart()) || (variantContexts.size() > 0 && !forceOutputAtCurrentPosition && newSamples.containsAll(getSampleNames(vc)))) {
+                    samples.removeAll(getSampleNames(vc));
                     variantContextsOverlappingCurrentMerge.remove(i);
                 }
             }
@@ -459,9 +482,11 @@ public final class CombineGVCFs extends MultiVariantWalkerGroupedOnStart {
         for (final VariantContext vc : vcs) {
             for (final Genotype g : vc.getGenotypes()) {
                 final GenotypeBuilder gBuilder = new GenotypeBuilder(g);
+                // likelihoods are only used to make calls, don't convert them when no-calling
+                final double[] genotypeLikelihoods = assignmentMethod != GenotypeAssignmentMethod.SET_TO_NO_CALL && g.hasLikelihoods() ?
+                        g.getLikelihoods().getAsVector() : null;
                 GATKVariantContextUtils.makeGenotypeCall(g.getPloidy(),
-                            gBuilder, assignmentMethod,
-                            g.hasLikelihoods() ? g.getLikelihoods().getAsVector() : null, allelesToUse, g, null);
+                            gBuilder, assignmentMethod, genotypeLikelihoods, allelesToUse, g, null);
                 genotypes.add(gBuilder.make());
             }
         }
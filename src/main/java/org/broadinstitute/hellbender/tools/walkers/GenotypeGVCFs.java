@@ -14,16 +14,21 @@ import org.broadinstitute.hellbender.cmdline.GATKPlugin.GATKReadFilterPluginDesc
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.argumentcollections.DbsnpArgumentCollection;
 import org.broadinstitute.hellbender.cmdline.programgroups.ShortVariantDiscoveryProgramGroup;
+import org.apache.commons.lang3.tuple.Pair;
 import org.broadinstitute.hellbender.engine.FeatureContext;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.engine.FeatureManager;
 import org.broadinstitute.hellbender.engine.GATKPath;
 import org.broadinstitute.hellbender.engine.ReadsContext;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
 import org.broadinstitute.hellbender.engine.VariantLocusWalker;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBArgumentCollection;
 import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBImport;
 import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBOptions;
 import org.broadinstitute.hellbender.tools.walkers.annotator.Annotation;
+import org.broadinstitute.hellbender.tools.walkers.annotator.AnnotationUtils;
 import org.broadinstitute.hellbender.tools.walkers.annotator.StandardAnnotation;
 import org.broadinstitute.hellbender.tools.walkers.annotator.StrandBiasBySample;
 import org.broadinstitute.hellbender.tools.walkers.annotator.VariantAnnotatorEngine;
@@ -35,7 +40,9 @@ import org.broadinstitute.hellbender.utils.GenomeLocSortedSet;
 import org.broadinstitute.hellbender.utils.IntervalMergingRule;
 import org.broadinstitute.hellbender.utils.IntervalSetRule;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.OrderedTaskPool;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
 import org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific.ReducibleAnnotation;
 import org.broadinstitute.hellbender.utils.variant.writers.IntervalFilteringVcfWriter;
@@ -118,6 +125,11 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
     public static final String KEEP_COMBINED_LONG_NAME = "keep-combined-raw-annotations";
     public static final String KEEP_COMBINED_SHORT_NAME = "keep-combined";
     public static final String FORCE_OUTPUT_INTERVALS_NAME = "force-output-intervals";
+    public static final String GENOTYPING_THREADS_LONG_NAME = "genotyping-threads";
+    public static final String GENOTYPING_BATCH_SIZE_LONG_NAME = "genotyping-batch-size";
+
+    // default minimum number of sites genotyped together on a thread
+    private static final int DEFAULT_SITES_PER_BATCH = 1000;
 
     @Argument(fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME, shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME,
             doc="File to which variants should be written", optional=false)
@@ -192,6 +204,21 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
     @ArgumentCollection
     private final DbsnpArgumentCollection dbsnp = new DbsnpArgumentCollection();
 
+    /**
+     * Number of threads used to genotype sites. When positive, batches of consecutive sites are genotyped in parallel,
+     * each thread owning a genotyping engine (along with its annotation engine, merger, reference and feature sources),
+     * and output is written in site order. Batches never share input variants, and each site is genotyped with a random
+     * generator seeded from its location (as it is when genotyping on the traversal thread), so that the output does not
+     * depend on the number of threads.
+     */
+    @Advanced
+    @Argument(fullName = GENOTYPING_THREADS_LONG_NAME, doc = "Number of threads used to genotype sites (0 to genotype sites on the traversal thread)", optional = true, minValue = 0)
+    private int genotypingThreads = 0;
+
+    @Hidden
+    @Argument(fullName = GENOTYPING_BATCH_SIZE_LONG_NAME, doc = "Minimum number of sites genotyped together on a thread", optional = true, minValue = 1)
+    private int sitesPerBatch = DEFAULT_SITES_PER_BATCH;
+
     // @ArgumentCollection deliberately omitted since this is passed to the annotation plugin
     final GenotypeGVCFsAnnotationArgumentCollection genotypeGVCFsAnnotationArgs = new GenotypeGVCFsAnnotationArgumentCollection();
 
@@ -208,6 +235,26 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
 
     private GenotypeGVCFsEngine gvcfEngine;
 
+    // multi-threaded genotyping. each thread owns an engine, a merger, a reference data source and a feature manager
+    private OrderedTaskPool<List<VariantContext>> threadPool;
+    private List<Site> currentBatch;
+    private ThreadLocal<Pair<GenotypeGVCFsEngine, ReferenceConfidenceVariantContextMerger>> threadEngine;
+    private ThreadLocal<ReferenceDataSource> threadReferenceDataSource;
+    private ThreadLocal<FeatureManager> threadFeatureManager;
+
+    // a site to genotype, with its (filtered) input variants
+    private static final class Site {
+        private final SimpleInterval loc;
+        private final List<VariantContext> variants;
+        private final boolean forceOutput;
+
+        Site(final Locatable loc, final List<VariantContext> variants, final boolean forceOutput) {
+            this.loc = new SimpleInterval(loc);
+            this.variants = variants;
+            this.forceOutput = forceOutput;
+        }
+    }
+
     /**
      * Get the largest interval per contig that contains the intervals specified on the command line.
      * @param getIntervals intervals to be transformed
@@ -303,6 +350,21 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
 
         //call initialize method in engine class that creates VCFWriter object and writes a header to it
         vcfWriter = gvcfEngine.setupVCFWriter(defaultToolVCFHeaderLines, keepCombined, dbsnp, vcfWriter);
+
+        if (genotypingThreads > 0) {
+            threadPool = new OrderedTaskPool<>(genotypingThreads, sitesPerBatch, batchOutput -> batchOutput.forEach(vcfWriter::add), "genotype sites");
+            currentBatch = new ArrayList<>(sitesPerBatch);
+            threadEngine = threadPool.threadLocal(() -> {
+                // annotations may hold mutable state, so each thread annotates with its own instances
+                final VariantAnnotatorEngine threadAnnotationEngine = new VariantAnnotatorEngine(AnnotationUtils.copyAnnotations(variantAnnotations), dbsnp.dbsnp, Collections.emptyList(), false, keepCombined, annotationsToKeep);
+                final GenotypeGVCFsEngine engine = new GenotypeGVCFsEngine(threadAnnotationEngine, genotypeArgs, includeNonVariants, inputVCFHeader, keepSB);
+                engine.setupOutputHeader(defaultToolVCFHeaderLines, keepCombined, dbsnp);
+                return Pair.of(engine, new ReferenceConfidenceVariantContextMerger(threadAnnotationEngine, inputVCFHeader, somaticInput, false, true));
+            });
+            threadReferenceDataSource = threadPool.threadLocal(() -> ReferenceDataSource.of(referenceArguments.getReferencePath()));
+            threadFeatureManager = threadPool.threadLocal(() -> features == null ? null :
+                    new FeatureManager(this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, getGenomicsDBOptions()));
+        }
     }
 
     private Set<Annotation> getAnnotationsToKeep() {
@@ -321,7 +383,23 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
 
         final boolean inForceOutputIntervals = forceOutputIntervalsPresent && forceOutputIntervals.overlapsAny(loc);
         final boolean forceOutput = includeNonVariants || inForceOutputIntervals;
-        final VariantContext regenotypedVC = gvcfEngine.callRegion(loc, variants, ref, features, merger, somaticInput, tlodThreshold, afTolerance, forceOutput);
+
+        if (threadPool != null) {
+            // genotypes of lazily parsed records are decoded by the shared, non thread-safe codec, so decode them here
+            // on the traversal thread rather than on the thread that genotypes the batch
+            variants.forEach(GATKVariantContextUtils::decodeGenotypes);
+            currentBatch.add(new Site(loc, variants, forceOutput));
+
+            // variants extending beyond this site are also input to the next one, and must not be shared across
+            // batches, which may be genotyped concurrently
+            if (currentBatch.size() >= sitesPerBatch && variants.stream().allMatch(vc -> vc.getEnd() <= loc.getEnd())) {
+                submitCurrentBatch();
+            }
+            return;
+        }
+
+        final VariantContext regenotypedVC = Utils.callWithRandomGenerator(OrderedTaskPool.locationSeed(loc),
+                () -> gvcfEngine.callRegion(loc, variants, ref, features, merger, somaticInput, tlodThreshold, afTolerance, forceOutput));
 
         if (regenotypedVC != null) {
             if ((forceOutput || !GATKVariantContextUtils.isSpanningDeletionOnly(regenotypedVC))) {
@@ -330,8 +408,46 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
         }
     }
 
+    private void submitCurrentBatch() {
+        final List<Site> batch = currentBatch;
+        currentBatch = new ArrayList<>(sitesPerBatch);
+        // batches extended to the end of their variants may hold more sites than the typical batch
+        threadPool.submit(batch.size(), () -> genotypeBatchOnThread(batch));
+    }
+
+    // genotype the sites of a batch using the resources of the current thread, each with a random generator seeded from its location
+    private List<VariantContext> genotypeBatchOnThread(final List<Site> batch) {
+        final GenotypeGVCFsEngine engine = threadEngine.get().getLeft();
+        final ReferenceConfidenceVariantContextMerger threadMerger = threadEngine.get().getRight();
+        final List<VariantContext> result = new ArrayList<>();
+        for (final Site site : batch) {
+            final VariantContext regenotypedVC = Utils.callWithRandomGenerator(OrderedTaskPool.locationSeed(site.loc), () -> engine.callRegion(site.loc, site.variants,
+                    new ReferenceContext(threadReferenceDataSource.get(), site.loc), new FeatureContext(threadFeatureManager.get(), site.loc),
+                    threadMerger, somaticInput, tlodThreshold, afTolerance, site.forceOutput));
+
+            if (regenotypedVC != null && (site.forceOutput || !GATKVariantContextUtils.isSpanningDeletionOnly(regenotypedVC))) {
+                result.add(regenotypedVC);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Object onTraversalSuccess() {
+        if (threadPool != null) {
+            if (!currentBatch.isEmpty()) {
+                submitCurrentBatch();
+            }
+            threadPool.finish();
+        }
+        return null;
+    }
+
     @Override
     public void closeTool() {
+        if (threadPool != null) {
+            threadPool.close();
+        }
         if ( vcfWriter != null) {
             vcfWriter.close();
         }
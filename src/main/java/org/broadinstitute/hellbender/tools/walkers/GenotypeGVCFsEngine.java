@@ -392,6 +392,18 @@ public class GenotypeGVCFsEngine
 
      */
     public VariantContextWriter setupVCFWriter(Set<VCFHeaderLine> defaultToolVCFHeaderLines, boolean keepCombined, DbsnpArgumentCollection dbsnp, VariantContextWriter vcfWriter) {
+        vcfWriter.writeHeader(setupOutputHeader(defaultToolVCFHeaderLines, keepCombined, dbsnp));
+
+        return vcfWriter;
+    }
+
+    /**
+     * Create the output VCF header, without writing it.  Engines that call regions for a writer set up by another
+     * engine (for instance, on other threads) must call this method before {@link #callRegion}
+     *
+     * @return the output VCF header
+     */
+    public VCFHeader setupOutputHeader(Set<VCFHeaderLine> defaultToolVCFHeaderLines, boolean keepCombined, DbsnpArgumentCollection dbsnp) {
         final Set<VCFHeaderLine> headerLines = new LinkedHashSet<>(inputVCFHeader.getMetaDataInInputOrder());
         headerLines.addAll(defaultToolVCFHeaderLines);
 
@@ -417,9 +429,8 @@ public class GenotypeGVCFsEngine
 
         final Set<String> sampleNameSet = samples.asSetOfSamples();
         outputHeader = new VCFHeader(headerLines, new TreeSet<>(sampleNameSet));
-        vcfWriter.writeHeader(outputHeader);
 
-        return vcfWriter;
+        return outputHeader;
     }
 
 
@@ -564,11 +564,10 @@ public final class ReferenceConfidenceVariantContextMerger {
                                                            final List<Allele> targetAlleles,
                                                            final boolean samplesAreUniquified,
                                                            final boolean useRemappedAllelesForGenotyping) {
-        final GenotypesContext mergedGenotypes = GenotypesContext.create();
-        final int maximumPloidy = vc.getMaxPloidy(GATKVariantContextUtils.DEFAULT_PLOIDY);
-        // the map is different depending on the ploidy, so in order to keep this method flexible (mixed ploidies)
-        // we need to get a map done (lazily inside the loop) for each ploidy, up to the maximum possible.
-        final int[][] genotypeIndexMapsByPloidy = new int[maximumPloidy + 1][];
+        final GenotypesContext mergedGenotypes = GenotypesContext.create(vc.getNSamples());
+        // allele and genotype index maps are shared by all the samples of the vc (save for some spanning deletion cases)
+        final AlleleRemapping alleleRemapping = new AlleleRemapping(remappedAlleles, targetAlleles, vc.getStart(),
+                vc.getMaxPloidy(GATKVariantContextUtils.DEFAULT_PLOIDY));
 
         for ( final Genotype g : vc.getGenotypes() ) {
             final String name;
@@ -582,12 +581,9 @@ public final class ReferenceConfidenceVariantContextMerger {
             if (!doSomaticMerge) {
                 //do attribute subsetting
                 if (g.hasPL() || g.hasAD()) {
-                    int[] perSampleIndexesOfRelevantAlleles = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, vc.getStart(), g, false);
+                    int[] perSampleIndexesOfRelevantAlleles = alleleRemapping.indexesOfRelevantAlleles(g);
                     if (g.hasPL()) {
-                        final int[] genotypeIndexMapByPloidy = genotypeIndexMapsByPloidy[ploidy] == null
-                                ? GenotypeIndexCalculator.newToOldGenotypeMap(ploidy, perSampleIndexesOfRelevantAlleles) //probably horribly slow
-                                : genotypeIndexMapsByPloidy[ploidy];
-                        genotypeBuilder.PL(generatePL(g, genotypeIndexMapByPloidy));
+                        genotypeBuilder.PL(generatePL(g, alleleRemapping.genotypeIndexMap(g, perSampleIndexesOfRelevantAlleles)));
                     }
                     if (g.hasAD()) {
                         genotypeBuilder.AD(AlleleSubsettingUtils.generateAD(g.getAD(), perSampleIndexesOfRelevantAlleles));
@@ -611,8 +607,7 @@ public final class ReferenceConfidenceVariantContextMerger {
                     }
                 }
 
-                // lazy initialization of the genotype index map by ploidy.
-                int[] perSampleIndexesOfRelevantAlleles = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, vc.getStart(), g, false);
+                int[] perSampleIndexesOfRelevantAlleles = alleleRemapping.indexesOfRelevantAlleles(g);
                 final int nonRefIndex = remappedAlleles.indexOf(Allele.NON_REF_ALLELE);
                 final int[] AD;
                 if (g.hasAD()) {
@@ -649,20 +644,18 @@ public final class ReferenceConfidenceVariantContextMerger {
                 }
             }
             genotypeBuilder.name(name);
-            final List<Allele> originalGTAlleles = useRemappedAllelesForGenotyping ?
-                    g.getAlleles().stream().map(a -> (vc.getAlleleIndex(a) > -1 ? remappedAlleles.get(vc.getAlleleIndex(a)) : Allele.NO_CALL)).collect(Collectors.toList()) :
-                    g.getAlleles();
 
-            final GenotypeAssignmentMethod assignmentMethod;
+            // neither of these assignment methods uses the likelihoods, and only the former uses the original genotype
             if (callGTAlleles && GenotypeUtils.shouldBeCalled(g)) {
-                assignmentMethod = GenotypeAssignmentMethod.BEST_MATCH_TO_ORIGINAL;
+                final List<Allele> originalGTAlleles = useRemappedAllelesForGenotyping ?
+                        g.getAlleles().stream().map(a -> (vc.getAlleleIndex(a) > -1 ? remappedAlleles.get(vc.getAlleleIndex(a)) : Allele.NO_CALL)).collect(Collectors.toList()) :
+                        g.getAlleles();
+                GATKVariantContextUtils.makeGenotypeCall(ploidy, genotypeBuilder, GenotypeAssignmentMethod.BEST_MATCH_TO_ORIGINAL, null,
+                        targetAlleles, new GenotypeBuilder(g).alleles(originalGTAlleles).make(), null);
             } else {
-                assignmentMethod = GenotypeAssignmentMethod.SET_TO_NO_CALL;
+                GATKVariantContextUtils.makeGenotypeCall(ploidy, genotypeBuilder, GenotypeAssignmentMethod.SET_TO_NO_CALL, null,
+                        targetAlleles, null, null);
             }
-            GATKVariantContextUtils.makeGenotypeCall(g.getPloidy(),
-                    genotypeBuilder, assignmentMethod,
-                    g.hasLikelihoods() ? g.getLikelihoods().getAsVector() : null,
-                    targetAlleles, new GenotypeBuilder(g).alleles(originalGTAlleles).make(), null);
             mergedGenotypes.add(genotypeBuilder.make());
         }
 
@@ -699,6 +692,60 @@ public final class ReferenceConfidenceVariantContextMerger {
         }
     }
 
+    /**
+     * Maps the alleles and genotypes of the samples of a variant context to the target alleles of the merge.
+     *
+     * The index of the target alleles among the remapped alleles of the variant context (see
+     * {@link AlleleSubsettingUtils#getIndexesOfRelevantAllelesForGVCF}) only depends on the sample when the variant
+     * context has more than one spanning deletion allele, which are then resolved using the sample's PLs.  Otherwise,
+     * the indexes and the genotype index map of each ploidy are computed once, and shared by all the samples.
+     */
+    private static final class AlleleRemapping {
+        private final List<Allele> remappedAlleles;
+        private final List<Allele> targetAlleles;
+        private final int position;
+        private final boolean dependsOnSamplePLs;
+
+        // computed lazily, since they are not needed for samples without PLs nor ADs
+        private int[] sharedIndexesOfRelevantAlleles;
+        private int[][] sharedGenotypeIndexMapsByPloidy;
+
+        AlleleRemapping(final List<Allele> remappedAlleles, final List<Allele> targetAlleles, final int position, final int maximumPloidy) {
+            this.remappedAlleles = remappedAlleles;
+            this.targetAlleles = targetAlleles;
+            this.position = position;
+            dependsOnSamplePLs = targetAlleles.contains(Allele.SPAN_DEL) && Collections.frequency(remappedAlleles, Allele.SPAN_DEL) > 1;
+            sharedGenotypeIndexMapsByPloidy = new int[maximumPloidy + 1][];
+        }
+
+        int[] indexesOfRelevantAlleles(final Genotype g) {
+            if (dependsOnSamplePLs && g.hasPL()) {
+                return AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, position, g, false);
+            }
+            if (sharedIndexesOfRelevantAlleles == null) {
+                sharedIndexesOfRelevantAlleles = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, position, g, false);
+            }
+            return sharedIndexesOfRelevantAlleles;
+        }
+
+        /**
+         * @param indexesOfRelevantAlleles the result of {@link #indexesOfRelevantAlleles} for the same genotype
+         */
+        int[] genotypeIndexMap(final Genotype g, final int[] indexesOfRelevantAlleles) {
+            final int ploidy = g.getPloidy();
+            if (indexesOfRelevantAlleles != sharedIndexesOfRelevantAlleles) {
+                return GenotypeIndexCalculator.newToOldGenotypeMap(ploidy, indexesOfRelevantAlleles);
+            }
+            if (ploidy >= sharedGenotypeIndexMapsByPloidy.length) {
+                sharedGenotypeIndexMapsByPloidy = Arrays.copyOf(sharedGenotypeIndexMapsByPloidy, ploidy + 1);
+            }
+            if (sharedGenotypeIndexMapsByPloidy[ploidy] == null) {
+                sharedGenotypeIndexMapsByPloidy[ploidy] = GenotypeIndexCalculator.newToOldGenotypeMap(ploidy, indexesOfRelevantAlleles);
+            }
+            return sharedGenotypeIndexMapsByPloidy[ploidy];
+        }
+    }
+
     /**
      * Composes a new likelihood array given the original genotype and the genotype index map.
      *
@@ -7,12 +7,15 @@ import org.apache.commons.lang3.StringUtils;
 import htsjdk.variant.vcf.VCFHeaderLineCount;
 import htsjdk.variant.vcf.VCFInfoHeaderLine;
 import htsjdk.variant.vcf.VCFConstants;
+import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific.*;
 import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFHeaderLines;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFConstants;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 
 public final class AnnotationUtils {
@@ -133,4 +136,41 @@ public final class AnnotationUtils {
         }
         return outString.toString();
     }
+
+    /**
+     * Makes an independent copy of each annotation, for use by an annotation engine confined to a single thread.
+     *
+     * Each copy is a new instance of the annotation's class made with its no-argument constructor, so that state the
+     * constructor builds (in final fields) is not shared with the original. Configuration set after construction, such
+     * as command line arguments and pedigree information, lives in non-final fields and is copied from the original;
+     * collections are copied so that lazily initialized ones are not shared either.
+     *
+     * @param annotations the annotations to copy, typically as resolved by the annotation plugin descriptor
+     * @return copies of the annotations, in the same order
+     */
+    public static List<Annotation> copyAnnotations(final Collection<? extends Annotation> annotations) {
+        final List<Annotation> copies = new ArrayList<>(annotations.size());
+        for (final Annotation annotation : annotations) {
+            try {
+                final Annotation copy = annotation.getClass().getDeclaredConstructor().newInstance();
+                for (Class<?> c = annotation.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (final Field field : c.getDeclaredFields()) {
+                        final int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        final Object value = field.get(annotation);
+                        field.set(copy, value instanceof List ? new ArrayList<>((List<?>) value)
+                                : value instanceof Set ? new LinkedHashSet<>((Set<?>) value)
+                                : value);
+                    }
+                }
+                copies.add(copy);
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                throw new GATKException("Unable to copy annotation " + annotation.getClass().getSimpleName(), e);
+            }
+        }
+        return copies;
+    }
 }
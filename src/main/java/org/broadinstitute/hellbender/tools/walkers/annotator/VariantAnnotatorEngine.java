@@ -359,15 +359,24 @@ public final class VariantAnnotatorEngine {
         Utils.nonNull(features, "features cannot be null");
         Utils.nonNull(addAnnot, "addAnnot cannot be null");
 
-        // annotate genotypes, creating another new VC in the process
-        final VariantContextBuilder builder = new VariantContextBuilder(vc);
-        builder.genotypes(annotateGenotypes(ref, features, vc, readLikelihoods, fragmentLikelihoods, fragmentHaplotypeLikelihoods, addAnnot));
-        final VariantContext newGenotypeAnnotatedVC = builder.make();
-
-        final Map<String, Object> infoAnnotMap = addInfoAnnotations(vc, features, ref, readLikelihoods, fragmentLikelihoods, fragmentHaplotypeLikelihoods, readHaplotypeAlleleLikelihoods, addAnnot, newGenotypeAnnotatedVC);
-
-        // create a new VC with info and genotype annotations
-        final VariantContext annotated = builder.attributes(infoAnnotMap).make();
+        // annotations only read the likelihoods, so the best allele of each read is searched once and shared by all of them
+        final boolean cachingBestAlleles = readLikelihoods != null && readLikelihoods.startCachingBestAlleles();
+        final VariantContext annotated;
+        try {
+            // annotate genotypes, creating another new VC in the process
+            final VariantContextBuilder builder = new VariantContextBuilder(vc);
+            builder.genotypes(annotateGenotypes(ref, features, vc, readLikelihoods, fragmentLikelihoods, fragmentHaplotypeLikelihoods, addAnnot));
+            final VariantContext newGenotypeAnnotatedVC = builder.make();
+
+            final Map<String, Object> infoAnnotMap = addInfoAnnotations(vc, features, ref, readLikelihoods, fragmentLikelihoods, fragmentHaplotypeLikelihoods, readHaplotypeAlleleLikelihoods, addAnnot, newGenotypeAnnotatedVC);
+
+            // create a new VC with info and genotype annotations
+            annotated = builder.attributes(infoAnnotMap).make();
+        } finally {
+            if (cachingBestAlleles) {
+                readLikelihoods.stopCachingBestAlleles();
+            }
+        }
 
         // annotate db occurrences
         try {
@@ -15,6 +15,7 @@ import org.broadinstitute.hellbender.engine.*;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
+import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -27,6 +28,11 @@ import picard.cmdline.programgroups.ReadDataManipulationProgramGroup;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * First pass of the base quality score recalibration.
@@ -89,6 +95,9 @@ public final class BaseRecalibrator extends ReadWalker {
             "(such as read group, reported quality score, machine cycle, and nucleotide context).";
 
     public static final String KNOWN_SITES_ARG_FULL_NAME = "known-sites";
+    public static final String RECALIBRATION_THREADS_FULL_NAME = "recalibration-threads";
+
+    private static final int RECALIBRATION_BATCH_SIZE = 10000;
 
     protected static final Logger logger = LogManager.getLogger(BaseRecalibrator.class);
 
@@ -119,6 +128,14 @@ public final class BaseRecalibrator extends ReadWalker {
     @WorkflowOutput
     private GATKPath recalTableFile = null;
 
+    /**
+     * Number of threads used to process reads. When larger than 1, reads are processed in batches, each thread
+     * accumulating into recalibration tables of its own. The tables are combined before being finalized, so that the
+     * resulting report is the same as the one produced by a single thread.
+     */
+    @Argument(fullName = RECALIBRATION_THREADS_FULL_NAME, doc = "Number of threads used to process reads", optional = true, minValue = 1)
+    private int recalibrationThreads = 1;
+
     private BaseRecalibrationEngine recalibrationEngine;
 
     private ReferenceDataSource referenceDataSource; // datasource for the reference. We're using a different one from the engine itself to avoid messing with its caches.
@@ -128,6 +145,26 @@ public final class BaseRecalibrator extends ReadWalker {
      */
     private QuantizationInfo quantizationInfo = null;
 
+    // multi-threaded processing. each thread owns an engine and a reference data source, engines are combined when done
+    private ForkJoinPool threadPool;
+    private List<RecalibrationJob> recalibrationBatch;
+    private Future<?> pendingBatch;
+    private Queue<BaseRecalibrationEngine> threadEngines;
+    private ThreadLocal<BaseRecalibrationEngine> threadEngine;
+    private Queue<ReferenceDataSource> threadReferenceDataSources;
+    private ThreadLocal<ReferenceDataSource> threadReferenceDataSource;
+
+    // a read, along with the known sites overlapping it
+    private static final class RecalibrationJob {
+        final GATKRead read;
+        final List<Feature> knownSites;
+
+        RecalibrationJob(final GATKRead read, final List<Feature> knownSites) {
+            this.read = read;
+            this.knownSites = knownSites;
+        }
+    }
+
     @Override
     public boolean requiresReference() {
         return true;
@@ -148,6 +185,23 @@ public final class BaseRecalibrator extends ReadWalker {
         recalibrationEngine = new BaseRecalibrationEngine(recalArgs, getHeaderForReads());
         recalibrationEngine.logCovariatesUsed();
         referenceDataSource = ReferenceDataSource.of(referenceArguments.getReferencePath());
+
+        if ( recalibrationThreads > 1 ) {
+            threadPool = new ForkJoinPool(recalibrationThreads);
+            recalibrationBatch = new ArrayList<>(RECALIBRATION_BATCH_SIZE);
+            threadEngines = new ConcurrentLinkedQueue<>();
+            threadEngine = ThreadLocal.withInitial(() -> {
+                final BaseRecalibrationEngine engine = new BaseRecalibrationEngine(recalArgs, getHeaderForReads());
+                threadEngines.add(engine);
+                return engine;
+            });
+            threadReferenceDataSources = new ConcurrentLinkedQueue<>();
+            threadReferenceDataSource = ThreadLocal.withInitial(() -> {
+                final ReferenceDataSource ds = ReferenceDataSource.of(referenceArguments.getReferencePath());
+                threadReferenceDataSources.add(ds);
+                return ds;
+            });
+        }
     }
 
     @Override
@@ -186,11 +240,54 @@ public final class BaseRecalibrator extends ReadWalker {
      */
     @Override
     public void apply( GATKRead read, ReferenceContext ref, FeatureContext featureContext ) {
-        recalibrationEngine.processRead(read, referenceDataSource, featureContext.getValues(knownSites));
+        if ( threadPool == null ) {
+            recalibrationEngine.processRead(read, referenceDataSource, featureContext.getValues(knownSites));
+        } else {
+
+            // the platform is resolved here, as it may modify the (shared) header's read group
+            RecalUtils.parsePlatformForRead(read, getHeaderForReads(), recalArgs);
+            recalibrationBatch.add(new RecalibrationJob(read, featureContext.getValues(knownSites)));
+            if ( recalibrationBatch.size() >= RECALIBRATION_BATCH_SIZE ) {
+                submitBatch();
+            }
+        }
+    }
+
+    // process the current batch on the thread pool. a single batch is processed while the next one is collected
+    private void submitBatch() {
+        waitForPendingBatch();
+        final List<RecalibrationJob> batch = recalibrationBatch;
+        recalibrationBatch = new ArrayList<>(RECALIBRATION_BATCH_SIZE);
+        pendingBatch = threadPool.submit(() -> batch.parallelStream().forEach(job ->
+                threadEngine.get().processRead(job.read, threadReferenceDataSource.get(), job.knownSites)));
+    }
+
+    private void waitForPendingBatch() {
+        if ( pendingBatch != null ) {
+            try {
+                pendingBatch.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new GATKException("failed to process reads", e);
+            }
+            pendingBatch = null;
+        }
+    }
+
+    // process reads remaining in the last batch, then combine the tables of all threads into the main engine
+    private void combineThreadEngines() {
+        submitBatch();
+        waitForPendingBatch();
+        for ( final BaseRecalibrationEngine engine : threadEngines ) {
+            recalibrationEngine.combine(engine);
+        }
+        threadEngines.clear();
     }
 
     @Override
     public Object onTraversalSuccess() {
+        if ( threadPool != null ) {
+            combineThreadEngines();
+        }
         recalibrationEngine.finalizeData();
 
         logger.info("Calculating quantized quality scores...");
@@ -204,6 +301,14 @@ public final class BaseRecalibrator extends ReadWalker {
         return "SUCCESS";
     }
 
+    @Override
+    public void closeTool() {
+        if ( threadPool != null ) {
+            threadPool.shutdown();
+            threadReferenceDataSources.forEach(ReferenceDataSource::close);
+        }
+    }
+
     /**
      * go through the quality score table and use the # observations and the empirical quality score
      * to build a quality score histogram for quantization. Then use the QuantizeQual algorithm to
@@ -90,6 +90,9 @@ public final class FlowPairHMMAlignReadsToHaplotypes extends ReadWalker {
     @Argument(fullName = "aligner", shortName = "E", doc="Aligner: FlowBasedHMM or FlowBasedAligner (FlowBased)")
     public ReadLikelihoodCalculationEngine.Implementation alignerName = ReadLikelihoodCalculationEngine.Implementation.FlowBased;
 
+    @Argument(fullName = "alignment-threads", doc="Number of threads to align read buffers on (FlowBasedHMM aligner only)", optional = true, minValue = 1)
+    public int alignmentThreads = 1;
+
     @ArgumentCollection
     public FlowBasedAlignmentArgumentCollection fbargs = new FlowBasedAlignmentArgumentCollection();
 
@@ -98,15 +101,19 @@ public final class FlowPairHMMAlignReadsToHaplotypes extends ReadWalker {
     SAMFileHeader sequenceHeader;
 
     ReadLikelihoodCalculationEngine aligner;
+    FlowBasedHMMBatchAligner batchAligner;
 
     AlleleLikelihoodWriter outputWriter;
 
     List<Haplotype> haplotypeList;
     Map<String, String> haplotypeToName;
     List<GATKRead> readBuffer;
+    List<List<GATKRead>> pendingBuffers;
+    List<Integer> pendingReadCounts;
     boolean writeHeader=true;
     int readCount = 0;
     final int BUFFER_SIZE_LIMIT = 50;
+    final SampleList samples = new IndexedSampleList(Arrays.asList("sm1"));
     @Override
     public void onTraversalStart() {
         super.onTraversalStart();
@@ -123,6 +130,8 @@ public final class FlowPairHMMAlignReadsToHaplotypes extends ReadWalker {
         FastaSequenceFile haplotypeFile = new FastaSequenceFile(haplotypesFa.toPath(), false);
         ReferenceSequence seq = haplotypeFile.nextSequence();
         readBuffer = new ArrayList<>();
+        pendingBuffers = new ArrayList<>();
+        pendingReadCounts = new ArrayList<>();
         haplotypeToName = new HashMap<>();
         while (seq != null ){
             Haplotype hap = new Haplotype(seq.getBases(), seq.getName().equals(refHaplotypeName));
@@ -138,6 +147,7 @@ public final class FlowPairHMMAlignReadsToHaplotypes extends ReadWalker {
                     likelihoodArgs.enableDynamicReadDisqualification, likelihoodArgs.readDisqualificationThresholdConstant,
                     likelihoodArgs.minUsableIndelScoreToUse, (byte) likelihoodArgs.flatDeletionPenalty,
                     (byte) likelihoodArgs.flatInsertionPenatly);
+            batchAligner = new FlowBasedHMMBatchAligner((FlowBasedHMMEngine)aligner, alignmentThreads);
         } else if (alignerName == ReadLikelihoodCalculationEngine.Implementation.FlowBased) {
             aligner = new FlowBasedAlignmentLikelihoodEngine(fbargs,
                     10000, 1,
@@ -153,31 +163,64 @@ public final class FlowPairHMMAlignReadsToHaplotypes extends ReadWalker {
         readCount++;
 
         if (readBuffer.size() == BUFFER_SIZE_LIMIT){
-            AlleleLikelihoods<GATKRead, Haplotype> readByHaplotypeMatrix = calculateLikelihoods(readBuffer);
-            outputWriter.writeAlleleLikelihoodsAsMatrix(readByHaplotypeMatrix, haplotypeToName, writeHeader, readCount - BUFFER_SIZE_LIMIT);
-            writeHeader=false;
-            readBuffer.clear();
+            pendingBuffers.add(readBuffer);
+            pendingReadCounts.add(readCount - BUFFER_SIZE_LIMIT);
+            readBuffer = new ArrayList<>();
+
+            // buffers are aligned in batches, a buffer per thread
+            if (pendingBuffers.size() >= alignmentThreads) {
+                flushPendingBuffers();
+            }
         }
     }
 
     @Override
     public Object onTraversalSuccess(){
-        AlleleLikelihoods<GATKRead, Haplotype> readByHaplotypeMatrix = calculateLikelihoods(readBuffer);
-        outputWriter.writeAlleleLikelihoodsAsMatrix(readByHaplotypeMatrix, haplotypeToName, writeHeader, readCount - BUFFER_SIZE_LIMIT);
-        writeHeader=false;
-        readBuffer.clear();
+        pendingBuffers.add(readBuffer);
+        pendingReadCounts.add(readCount - BUFFER_SIZE_LIMIT);
+        readBuffer = new ArrayList<>();
+        flushPendingBuffers();
         return null;
     }
-    private AlleleLikelihoods<GATKRead,Haplotype> calculateLikelihoods(final List<GATKRead> reads){
-        SampleList samples = new IndexedSampleList(Arrays.asList("sm1"));
-        Map<String, List<GATKRead>> tmpMap = new HashMap<>();
-        tmpMap.put("sm1", reads);
+
+    @Override
+    public void closeTool() {
+        if (batchAligner != null) {
+            batchAligner.close();
+        }
+    }
+
+    private void flushPendingBuffers(){
+        final List<AlleleLikelihoods<GATKRead, Haplotype>> readByHaplotypeMatrices = calculateLikelihoods(pendingBuffers);
+        for (int i = 0; i < readByHaplotypeMatrices.size(); i++) {
+            outputWriter.writeAlleleLikelihoodsAsMatrix(readByHaplotypeMatrices.get(i), haplotypeToName, writeHeader, pendingReadCounts.get(i));
+            writeHeader=false;
+        }
+        pendingBuffers.clear();
+        pendingReadCounts.clear();
+    }
+
+    private List<AlleleLikelihoods<GATKRead,Haplotype>> calculateLikelihoods(final List<List<GATKRead>> readBuffers){
         if (alignerName == ReadLikelihoodCalculationEngine.Implementation.FlowBasedHMM) {
-            return ((FlowBasedHMMEngine)aligner).computeReadLikelihoods(haplotypeList, sequenceHeader, samples, tmpMap, false, false);
+            final List<FlowBasedHMMBatchAligner.Job> jobs = new ArrayList<>(readBuffers.size());
+            for (final List<GATKRead> reads : readBuffers) {
+                jobs.add(new FlowBasedHMMBatchAligner.Job(haplotypeList, sequenceHeader, makeReadMap(reads)));
+            }
+            return batchAligner.computeReadLikelihoods(jobs, samples, false, false);
         } else if (alignerName == ReadLikelihoodCalculationEngine.Implementation.FlowBased){
-            return ((FlowBasedAlignmentLikelihoodEngine)aligner).computeReadLikelihoods(haplotypeList, sequenceHeader, samples, tmpMap, false, false);
+            final List<AlleleLikelihoods<GATKRead,Haplotype>> result = new ArrayList<>(readBuffers.size());
+            for (final List<GATKRead> reads : readBuffers) {
+                result.add(((FlowBasedAlignmentLikelihoodEngine)aligner).computeReadLikelihoods(haplotypeList, sequenceHeader, samples, makeReadMap(reads), false, false));
+            }
+            return result;
         } else {
             return null;
         }
     }
+
+    private Map<String, List<GATKRead>> makeReadMap(final List<GATKRead> reads) {
+        Map<String, List<GATKRead>> tmpMap = new HashMap<>();
+        tmpMap.put("sm1", reads);
+        return tmpMap;
+    }
 }
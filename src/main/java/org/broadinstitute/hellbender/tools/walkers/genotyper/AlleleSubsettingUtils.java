@@ -1,8 +1,6 @@
 package org.broadinstitute.hellbender.tools.walkers.genotyper;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.primitives.Doubles;
-import com.google.common.primitives.Ints;
 import htsjdk.variant.variantcontext.*;
 import htsjdk.variant.vcf.VCFConstants;
 import htsjdk.variant.vcf.VCFFormatHeaderLine;
@@ -524,8 +522,16 @@ public final class AlleleSubsettingUtils {
      * @return non-null array of new AD values
      */
     public static int[] generateAD(final int[] originalAD, final int[] indexesOfRelevantAlleles) {
-        final List<Integer> adList = remapRLengthList(Arrays.stream(originalAD).boxed().collect(Collectors.toList()), indexesOfRelevantAlleles, 0);
-        return Ints.toArray(adList);
+        Utils.nonNull(originalAD);
+        Utils.nonNull(indexesOfRelevantAlleles);
+
+        // same as remapRLengthList, without boxing
+        final int[] newAD = new int[indexesOfRelevantAlleles.length];
+        for ( int i = 0; i < newAD.length; i++ ) {
+            final int oldIndex = indexesOfRelevantAlleles[i];
+            newAD[i] = oldIndex >= originalAD.length ? 0 : originalAD[oldIndex];
+        }
+        return newAD;
     }
 
     /**
@@ -535,8 +541,16 @@ public final class AlleleSubsettingUtils {
      * @return non-null array of new AFs
      */
     public static double[] generateAF(final double[] originalAF, final int[] indexesOfRelevantAlleles) {
-        final List<Double> afList = remapALengthList(Arrays.stream(originalAF).boxed().collect(Collectors.toList()), indexesOfRelevantAlleles, 0.0);
-        return Doubles.toArray(afList);
+        Utils.nonNull(originalAF);
+        Utils.nonNull(indexesOfRelevantAlleles);
+
+        // same as remapALengthList, without boxing
+        final double[] newAF = new double[indexesOfRelevantAlleles.length - 1];
+        for ( int i = 0; i < newAF.length; i++ ) {
+            final int oldIndex = indexesOfRelevantAlleles[i + 1];
+            newAF[i] = oldIndex >= originalAF.length + 1 ? 0.0 : originalAF[oldIndex - 1];
+        }
+        return newAF;
     }
 
     /**
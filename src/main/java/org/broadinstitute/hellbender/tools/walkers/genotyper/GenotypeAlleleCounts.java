@@ -569,6 +569,21 @@ public final class GenotypeAlleleCounts implements Comparable<GenotypeAlleleCoun
         return ploidy == 0 ? new GenotypeAlleleCounts(0,0) : new GenotypeAlleleCounts(ploidy, 0, 0, ploidy);
     }
 
+    /**
+     * Instantiates a genotype from its sorted allele counts, in the format {allele 1, count 1, allele 2, count 2. . .}.
+     *
+     * <p>As with the constructor, no checks are done for the sake of performance.</p>
+     *
+     * @param ploidy the genotype ploidy, equal to the sum of the counts.
+     * @param index the genotype index.
+     * @param sortedAlleleCounts the sorted allele counts, which become owned by the new instance.
+     *
+     * @return never {@code null}.
+     */
+    static GenotypeAlleleCounts fromSortedAlleleCounts(final int ploidy, final int index, final int[] sortedAlleleCounts) {
+        return new GenotypeAlleleCounts(ploidy, index, sortedAlleleCounts);
+    }
+
 
     /**
      * Returns the largest allele index present in the genotype.
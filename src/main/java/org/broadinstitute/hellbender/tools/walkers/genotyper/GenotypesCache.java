@@ -2,16 +2,22 @@ package org.broadinstitute.hellbender.tools.walkers.genotyper;
 
 import org.broadinstitute.hellbender.utils.Utils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class holds caches of {@link GenotypeAlleleCounts} for multiple fixed ploidy, allele count pairs,
  * allowing for fast random access of genotypes.  Note that the increment method of GenotypeAlleleCounts is always fast,
  * so the caches here are only necessary when incremental traversal over genotypes in the canonical order is not possible.
  *
+ * The genotypes of each ploidy are stored in primitive form, as the concatenation of their sorted allele counts
+ * (see {@link GenotypeAlleleCounts}) in a flat int array, along with the offset of each genotype in that array.  On top
+ * of that, each cache holds a {@link GenotypeAlleleCounts} view of every genotype, built once upon extension, which is
+ * returned as is: cached genotypes are shared by all callers and must not be modified (see
+ * {@link GenotypeAlleleCounts#increase}).  Genotypes beyond {@link #MAX_CACHE_SIZE} are computed directly from their index.
  *
- * This class is thread-safe since modifying the caches is synchronized.
+ * This class is thread-safe without locking: caches are immutable, and extending one publishes an extended copy.
+ * Concurrent readers never block, and concurrent extensions at worst duplicate some work.
  */
 public final class GenotypesCache {
 
@@ -21,10 +27,10 @@ public final class GenotypesCache {
     public static final int MAX_CACHE_SIZE = 5000;
 
     /**
-     * Cache of GenotypeAlleleCounts objects by ploidy.  Format is caches[p][n] = nth genotype of ploidy p in canonical order,
-     * with p up to the current maximum ploidy and n up to the maximum number of cached genotypes per table.
+     * Caches by ploidy.  Format is caches[p] = cache of the first genotypes of ploidy p in canonical order,
+     * with p up to the current maximum ploidy (null for ploidies not yet requested).
      */
-    private static List<List<GenotypeAlleleCounts>> caches = new ArrayList<>();
+    private static final AtomicReference<PloidyCache[]> caches = new AtomicReference<>(new PloidyCache[0]);
 
     private GenotypesCache(){ }
 
@@ -32,7 +38,7 @@ public final class GenotypesCache {
      * Returns the GenotypeAlleleCounts associated to a particular ploidy and genotype index.
      *
      *  If the requested index is larger than {@link GenotypesCache#MAX_CACHE_SIZE},
-     *  this method will construct the result iteratively from the largest cached object.  Thus if you are iterating
+     *  this method will compute the result from the index.  Thus if you are iterating
      *  through all genotype-allele-counts you should do sequentially using the iterator method to avoid a large efficiency drop.
      *
      * @param ploidy the ploidy
@@ -40,50 +46,144 @@ public final class GenotypesCache {
      * @return never {@code null}.
      */
     public static GenotypeAlleleCounts get(final int ploidy, final int genotypeIndex) {
-        ensureCapacity(genotypeIndex, ploidy);
         Utils.validateArg(ploidy >= 0, "ploidy may not be negative");
         Utils.validateArg(genotypeIndex >= 0, "genotype index may not be negative");
-        final List<GenotypeAlleleCounts> cache = caches.get(ploidy);
-        if (genotypeIndex < cache.size()) {
-            return cache.get(genotypeIndex);
-        } else {
-            final GenotypeAlleleCounts result = cache.get(cache.size() - 1).copy();
-            result.increase(genotypeIndex + 1 - cache.size());
-            return result;
+        final PloidyCache cache = ensureCapacity(ploidy, genotypeIndex);
+        return genotypeIndex < cache.size ? cache.get(genotypeIndex) : genotypeAt(ploidy, genotypeIndex);
+    }
+
+    /**
+     * Returns the cache of a ploidy, extended if necessary (and possible) to include a genotype index.
+     */
+    private static PloidyCache ensureCapacity(final int ploidy, final int genotypeIndex) {
+        while (true) {
+            final PloidyCache[] current = caches.get();
+            final PloidyCache cache = ploidy < current.length ? current[ploidy] : null;
+            if (cache != null && (genotypeIndex < cache.size || cache.size == MAX_CACHE_SIZE)) {
+                return cache;
+            }
+
+            // publish a copy of the caches, with the cache of this ploidy extended
+            final int size = cache == null ? 0 : cache.size;
+            final int newSize = Math.min(Math.max(size * 2 + 1, genotypeIndex + 1), MAX_CACHE_SIZE);
+            final PloidyCache extended = (cache == null ? new PloidyCache(ploidy) : cache).extend(newSize);
+            final PloidyCache[] updated = Arrays.copyOf(current, Math.max(current.length, ploidy + 1));
+            updated[ploidy] = extended;
+            if (caches.compareAndSet(current, updated)) {
+                return extended;
+            }
         }
     }
 
     /**
-     * Extends the genotype allele counts cache for a certain ploidy up to a given size
+     * Computes the genotype of a given index, without iterating over the genotypes preceding it.
      *
-     * This method is synchronized since it modifies the shared cache.
+     * This inverts {@link GenotypeIndexCalculator#allelesToIndex}: the highest allele of a genotype of ploidy p is
+     * the highest allele a with {@link GenotypeIndexCalculator#indexOfFirstGenotypeWithAllele}(p, a) not exceeding the
+     * index, and the remaining alleles are those of the genotype of ploidy p - 1 whose index is the remainder.
      */
-    private static synchronized void extendCache(final int ploidy, final int newSize) {
-        final List<GenotypeAlleleCounts> cache = caches.get(ploidy);
-
-        if (cache.isEmpty()) {
-            cache.add(GenotypeAlleleCounts.first(ploidy));
+    private static GenotypeAlleleCounts genotypeAt(final int ploidy, final int genotypeIndex) {
+        // alleles in decreasing order
+        final int[] alleles = new int[ploidy];
+        long remainder = genotypeIndex;
+        for (int p = ploidy; p > 0; p--) {
+            int allele;
+            long firstIndex;
+            if (p == 1) {
+                allele = (int) remainder;
+                firstIndex = remainder;
+            } else {
+                // indexOfFirstGenotypeWithAllele(p, a + 1) = indexOfFirstGenotypeWithAllele(p, a) * (p + a) / a for a > 0
+                allele = 0;
+                firstIndex = 0;
+                long nextFirstIndex = 1;
+                while (nextFirstIndex <= remainder) {
+                    allele++;
+                    firstIndex = nextFirstIndex;
+                    nextFirstIndex = firstIndex * (p + allele) / allele;
+                }
+            }
+            alleles[ploidy - p] = allele;
+            remainder -= firstIndex;
         }
 
-        while (cache.size() < newSize) {
-            cache.add(cache.get(cache.size() - 1).next());
+        int distinctAlleleCount = 0;
+        for (int n = 0; n < ploidy; n++) {
+            if (n == 0 || alleles[n] != alleles[n - 1]) {
+                distinctAlleleCount++;
+            }
+        }
+        final int[] sortedAlleleCounts = new int[distinctAlleleCount << 1];
+        int pos = sortedAlleleCounts.length;
+        for (int n = 0; n < ploidy; n++) {
+            if (n == 0 || alleles[n] != alleles[n - 1]) {
+                pos -= 2;
+                sortedAlleleCounts[pos] = alleles[n];
+            }
+            sortedAlleleCounts[pos + 1]++;
         }
+        return GenotypeAlleleCounts.fromSortedAlleleCounts(ploidy, genotypeIndex, sortedAlleleCounts);
     }
 
     /**
-     * Update cache if necessary
+     * An immutable cache of the first genotypes of a ploidy.  The sorted allele counts of genotype n are
+     * alleleCounts[offsets[n]] ... alleleCounts[offsets[n + 1] - 1], and genotypes[n] is the shared view of them.
      */
-    private static void ensureCapacity(final int genotypeIndex, final int ploidy) {
-        // add empty lists of genotypes until we have initialized all ploidies up to and including this one
-        while (ploidy >= caches.size()) {
-            caches.add(new ArrayList<>());
+    private static final class PloidyCache {
+        private final int ploidy;
+        private final int size;
+        private final int[] offsets;
+        private final int[] alleleCounts;
+        private final GenotypeAlleleCounts[] genotypes;
+
+        PloidyCache(final int ploidy) {
+            this(ploidy, 0, new int[1], new int[0], new GenotypeAlleleCounts[0]);
+        }
+
+        private PloidyCache(final int ploidy, final int size, final int[] offsets, final int[] alleleCounts, final GenotypeAlleleCounts[] genotypes) {
+            this.ploidy = ploidy;
+            this.size = size;
+            this.offsets = offsets;
+            this.alleleCounts = alleleCounts;
+            this.genotypes = genotypes;
         }
 
-        final List<GenotypeAlleleCounts> cache = caches.get(ploidy);
+        GenotypeAlleleCounts get(final int genotypeIndex) {
+            return genotypes[genotypeIndex];
+        }
+
+        /**
+         * @return a copy of this cache extended to a new size, this cache being left unmodified
+         */
+        PloidyCache extend(final int newSize) {
+            final int[] newOffsets = Arrays.copyOf(offsets, newSize + 1);
+            int[] newAlleleCounts = Arrays.copyOf(alleleCounts, Math.max(alleleCounts.length, 2) * 2);
+            int pos = offsets[size];
+
+            GenotypeAlleleCounts genotype = size == 0 ? GenotypeAlleleCounts.first(ploidy) : genotypes[size - 1].next();
+            for (int n = size; n < newSize; n++) {
+                final int length = genotype.distinctAlleleCount() << 1;
+                if (pos + length > newAlleleCounts.length) {
+                    newAlleleCounts = Arrays.copyOf(newAlleleCounts, Math.max(newAlleleCounts.length * 2, pos + length));
+                }
+                for (int rank = 0; rank < genotype.distinctAlleleCount(); rank++) {
+                    newAlleleCounts[pos++] = genotype.alleleIndexAt(rank);
+                    newAlleleCounts[pos++] = genotype.alleleCountAt(rank);
+                }
+                newOffsets[n + 1] = pos;
+                if (n + 1 < newSize) {
+                    genotype = genotype.next();
+                }
+            }
+            newAlleleCounts = Arrays.copyOf(newAlleleCounts, pos);
 
-        if (cache.size() <= genotypeIndex && cache.size() < MAX_CACHE_SIZE) {
-            final int newSize = Math.min(Math.max(cache.size() * 2 + 1, genotypeIndex), MAX_CACHE_SIZE);
-            extendCache(ploidy, newSize);
+            // views of the new genotypes, those already cached being shared with this cache
+            final GenotypeAlleleCounts[] newGenotypes = Arrays.copyOf(genotypes, newSize);
+            for (int n = size; n < newSize; n++) {
+                newGenotypes[n] = GenotypeAlleleCounts.fromSortedAlleleCounts(ploidy, n,
+                        Arrays.copyOfRange(newAlleleCounts, newOffsets[n], newOffsets[n + 1]));
+            }
+            return new PloidyCache(ploidy, newSize, newOffsets, newAlleleCounts, newGenotypes);
         }
     }
-}
\ No newline at end of file
+}
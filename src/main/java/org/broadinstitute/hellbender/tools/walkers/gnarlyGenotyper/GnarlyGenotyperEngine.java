@@ -40,28 +40,51 @@ public final class GnarlyGenotyperEngine {
     // cache the ploidy 2 PL array sizes for increasing numbers of alts up to the maximum of maxAltAllelesToOutput
     private int[] likelihoodSizeCache;
     private final ArrayList<GenotypeLikelihoodCalculator> glcCache = new ArrayList<>();
-    private Set<Class<? extends InfoFieldAnnotation>> allASAnnotations;
+    //standard reducible AS annotations, instantiated once rather than at every site
+    private final List<InfoFieldAnnotation> asStandardAnnotations = new ArrayList<>();
 
     private final int maxAltAllelesToOutput;
     private final boolean emitPls;
     private final boolean keepAllSites;
     private final boolean stripASAnnotations;
+    private final boolean emitGenotypes;
 
     public GnarlyGenotyperEngine(final boolean keepAllSites, final int maxAltAllelesToOutput, final boolean stripASAnnotations) {
         this(keepAllSites, maxAltAllelesToOutput, true, stripASAnnotations);
     }
 
     public GnarlyGenotyperEngine(final boolean keepAllSites, final int maxAltAllelesToOutput, final boolean emitPls, final boolean stripASAnnotations) {
+        this(keepAllSites, maxAltAllelesToOutput, emitPls, stripASAnnotations, true);
+    }
+
+    /**
+     * @param emitGenotypes if false, genotypes are called to compute AC/AF/AN but are not attached to the output
+     *                      (e.g. for sites-only output), which avoids building the output genotypes
+     */
+    public GnarlyGenotyperEngine(final boolean keepAllSites, final int maxAltAllelesToOutput, final boolean emitPls,
+                                 final boolean stripASAnnotations, final boolean emitGenotypes) {
         this.maxAltAllelesToOutput = maxAltAllelesToOutput;
         this.emitPls = emitPls;
         this.keepAllSites = keepAllSites;
         this.stripASAnnotations = stripASAnnotations;
+        this.emitGenotypes = emitGenotypes;
 
         //TODO: fix weird reflection logging?
         final Reflections reflections = new Reflections("org.broadinstitute.hellbender.tools.walkers.annotator.allelespecific");
-        allASAnnotations = reflections.getSubTypesOf(InfoFieldAnnotation.class);
+        final Set<Class<? extends InfoFieldAnnotation>> allASAnnotations = reflections.getSubTypesOf(InfoFieldAnnotation.class);
         allASAnnotations.addAll(reflections.getSubTypesOf(AS_StrandBiasTest.class));
         allASAnnotations.addAll(reflections.getSubTypesOf(AS_RankSumTest.class));
+        for (final Class<? extends InfoFieldAnnotation> c : allASAnnotations) {
+            final InfoFieldAnnotation annotation;
+            try {
+                annotation = c.getDeclaredConstructor().newInstance();
+            } catch (final Exception e) {
+                throw new IllegalStateException("Unable to instantiate InfoFieldAnnotation: ", e);
+            }
+            if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
+                asStandardAnnotations.add(annotation);
+            }
+        }
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -117,21 +140,23 @@ public final class GnarlyGenotyperEngine {
 
         //Because AS_StrandBias annotations both use and return the raw key
         final Map<String, Object> annotationsToBeModified = new HashMap<>(vcWithMQ.getAttributes());
-        for (final Class c : allASAnnotations) {
+        //the builder is not modified until all the raw values are finalized, so make it only once
+        VariantContext vcToFinalize = null;
+        for (final InfoFieldAnnotation annotation : asStandardAnnotations) {
             try {
-                final InfoFieldAnnotation annotation = (InfoFieldAnnotation) c.getDeclaredConstructor().newInstance();
-                if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
-                    final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
-                    if (variant.hasAttribute(ann.getPrimaryRawKey())) {
-                        if (!stripASAnnotations) {
-                            //here we still have the non-ref
-                            final Map<String, Object> finalValue = ann.finalizeRawData(vcfBuilder.make(), variant);
-                            if (finalValue != null) {
-                                finalValue.forEach((key, value) -> annotationsToBeModified.put(key, value));
-                            }
-                            if (annotationDBBuilder != null) {
-                                annotationDBBuilder.attribute(ann.getPrimaryRawKey(), variant.getAttribute(ann.getPrimaryRawKey()));
-                            }
+                final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
+                if (variant.hasAttribute(ann.getPrimaryRawKey())) {
+                    if (!stripASAnnotations) {
+                        if (vcToFinalize == null) {
+                            vcToFinalize = vcfBuilder.make();
+                        }
+                        //here we still have the non-ref
+                        final Map<String, Object> finalValue = ann.finalizeRawData(vcToFinalize, variant);
+                        if (finalValue != null) {
+                            finalValue.forEach((key, value) -> annotationsToBeModified.put(key, value));
+                        }
+                        if (annotationDBBuilder != null) {
+                            annotationDBBuilder.attribute(ann.getPrimaryRawKey(), variant.getAttribute(ann.getPrimaryRawKey()));
                         }
                     }
                 }
@@ -229,47 +254,36 @@ public final class GnarlyGenotyperEngine {
 
         vcfBuilder.attribute(GATKVCFConstants.FISHER_STRAND_KEY, FisherStrand.makeValueObjectForAnnotation(FisherStrand.pValueForContingencyTable(StrandBiasTest.decodeSBBS(SBsum))));
         vcfBuilder.attribute(GATKVCFConstants.STRAND_ODDS_RATIO_KEY, StrandOddsRatio.formattedValue(StrandOddsRatio.calculateSOR(StrandBiasTest.decodeSBBS(SBsum))));
-        vcfBuilder.genotypes(calledGenotypes);
+        if (emitGenotypes) {
+            vcfBuilder.genotypes(calledGenotypes);
+        } else {
+            vcfBuilder.noGenotypes();
+        }
 
         if (annotationDBBuilder != null) {
             annotationDBBuilder.attribute(GATKVCFConstants.SB_TABLE_KEY, SBsum);
             annotationDBBuilder.noGenotypes();
         }
 
-        for (final Class c : allASAnnotations) {
-            try {
-                final InfoFieldAnnotation annotation = (InfoFieldAnnotation) c.getDeclaredConstructor().newInstance();
-                if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
-                    final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
-                    //trim NON_REF out of AS values
-                    //trim NON_REF out of AS values
-                    if (variant.hasAttribute(ann.getRawKeyNames().get(0))) {
-                        vcfBuilder.attribute(annotation.getKeyNames().get(0), trimASAnnotation(vcfBuilder.make(), targetAlleles, annotation.getKeyNames().get(0)));
-                    }
-                    if (!keepAllSites && variant.hasAttribute(ann.getRawKeyNames().get(0))) {
-                        vcfBuilder.rmAttribute(ann.getRawKeyNames().get(0));
-                    }
-                }
+        //the finalized AS values are read from the attributes set above rather than from a VC made for every annotation
+        final int[] relevantIndices = getAltAlleleIndices(variant, targetAlleles);
+        for (final InfoFieldAnnotation annotation : asStandardAnnotations) {
+            final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
+            //trim NON_REF out of AS values
+            if (variant.hasAttribute(ann.getRawKeyNames().get(0))) {
+                vcfBuilder.attribute(annotation.getKeyNames().get(0), trimASAnnotation(annotationsToBeModified.get(annotation.getKeyNames().get(0)), relevantIndices));
             }
-            catch (final Exception e) {
-                throw new IllegalStateException("Unable to instantiate InfoFieldAnnotation: ", e);
+            if (!keepAllSites && variant.hasAttribute(ann.getRawKeyNames().get(0))) {
+                vcfBuilder.rmAttribute(ann.getRawKeyNames().get(0));
             }
         }
         //since AS_FS and AS_SOR share the same raw key, we have to wait to remove raw keys until all the finalized values are added
         if (!keepAllSites) {
-            for (final Class c : allASAnnotations) {
-                try {
-                    final InfoFieldAnnotation annotation = (InfoFieldAnnotation) c.getDeclaredConstructor().newInstance();
-                    if (annotation instanceof AS_StandardAnnotation && annotation instanceof ReducibleAnnotation) {
-                        final ReducibleAnnotation ann = (ReducibleAnnotation) annotation;
-                        for (final String rawKey : ann.getRawKeyNames()) {
-                            if (variant.hasAttribute(rawKey)) {
-                                vcfBuilder.rmAttribute(rawKey);
-                            }
-                        }
+            for (final InfoFieldAnnotation annotation : asStandardAnnotations) {
+                for (final String rawKey : ((ReducibleAnnotation) annotation).getRawKeyNames()) {
+                    if (variant.hasAttribute(rawKey)) {
+                        vcfBuilder.rmAttribute(rawKey);
                     }
-                } catch (final Exception e) {
-                    throw new IllegalStateException("Something went wrong: ", e);
                 }
             }
         }
@@ -294,6 +308,8 @@ public final class GnarlyGenotyperEngine {
 
     /**
      * Remove the NON_REF allele from the genotypes, updating PLs, ADs, and GT calls
+     * If this engine doesn't emit genotypes, genotypes are still called to count alleles, but ADs and attributes
+     * are not updated and the returned context is empty.
      * @param vc the input variant with NON_REF
      * @return a GenotypesContext
      */
@@ -326,7 +342,7 @@ public final class GnarlyGenotyperEngine {
             } else if (isGDBnoCall(g)) {
                 genotypeBuilder.alleles(GATKVariantContextUtils.noCallAlleles(ASSUMED_PLOIDY)).noGQ();
             }
-            if (nonRefReturned && g.hasAD()) {
+            if (emitGenotypes && nonRefReturned && g.hasAD()) {
                 final int[] AD = trimADs(g, targetAlleles.size());
                 genotypeBuilder.AD(AD);
             }
@@ -340,7 +356,7 @@ public final class GnarlyGenotyperEngine {
                     newPLsize = GenotypeLikelihoods.numLikelihoods(numConcreteAlts + 1, g.getPloidy());
                 }
                 final int[] PLs = trimPLs(g, newPLsize);
-                if (emitPLs) {
+                if (emitPLs && emitGenotypes) {
                     genotypeBuilder.PL(PLs);
                 } else {
                     genotypeBuilder.noPL();
@@ -352,11 +368,21 @@ public final class GnarlyGenotyperEngine {
             } else if (g.hasGQ() && g.getGQ() == 0) {
                 makeGenotypeCall(g, genotypeBuilder, null, targetAlleles); //null likelihoods for reblocked hom-ref that we want to no-call
             }
-            final Map<String, Object> attrs = new HashMap<>(g.getExtendedAttributes());
-            attrs.remove(GATKVCFConstants.MIN_DP_FORMAT_KEY);
-            //attrs.remove(GATKVCFConstants.STRAND_BIAS_BY_SAMPLE_KEY);
-            calledGT = genotypeBuilder.attributes(attrs).make();
-            mergedGenotypes.add(calledGT);
+            if (emitGenotypes) {
+                //only copy the attributes if there is something to remove
+                final Map<String, Object> attrs;
+                if (g.hasExtendedAttribute(GATKVCFConstants.MIN_DP_FORMAT_KEY)) {
+                    attrs = new HashMap<>(g.getExtendedAttributes());
+                    attrs.remove(GATKVCFConstants.MIN_DP_FORMAT_KEY);
+                } else {
+                    attrs = g.getExtendedAttributes();
+                }
+                //attrs.remove(GATKVCFConstants.STRAND_BIAS_BY_SAMPLE_KEY);
+                calledGT = genotypeBuilder.attributes(attrs).make();
+                mergedGenotypes.add(calledGT);
+            } else {
+                calledGT = genotypeBuilder.make();
+            }
 
             if (g.hasAnyAttribute(GATKVCFConstants.STRAND_BIAS_BY_SAMPLE_KEY)) {
                 MathUtils.addToArrayInPlace(SBsum, getSBFieldAsIntArray(g));
@@ -373,7 +399,12 @@ public final class GnarlyGenotyperEngine {
 
             //re-tally genotype counts if they are missing from the original VC
             if (rawGenotypeCounts != null) {
-                final int altCount = (int)g.getAlleles().stream().filter(a -> !a.isReference()).count();
+                int altCount = 0;
+                for (final Allele a : g.getAlleles()) {
+                    if (!a.isReference()) {
+                        altCount++;
+                    }
+                }
                 rawGenotypeCounts[altCount]++;
             }
         }
@@ -433,18 +464,25 @@ public final class GnarlyGenotyperEngine {
     }
 
     /**
-     *  Trim an annotation to the values representing the target alleles
-     * @param variant   the VariantContext with annotations corresponding to the original alleles
+     * @param variant   the VariantContext with the original alleles
      * @param targetAlleles the subset of alleles to retain
-     * @param key   the key for the annotation of interest
-     * @return  a String representing an array of allele-specific values matching targetAlleles
+     * @return  the indices in the alternate alleles of {@code variant} of the non-reference target alleles
+     */
+    private static int[] getAltAlleleIndices(final VariantContext variant, final List<Allele> targetAlleles) {
+        return targetAlleles.stream().filter(a -> !a.isReference()).mapToInt(a -> variant.getAlternateAlleles().indexOf(a)).toArray();
+    }
+
+    /**
+     *  Trim an annotation to the values representing the target alleles
+     * @param value   the annotation value, corresponding to the original alleles (may be null)
+     * @param relevantIndices   the indices of the values to retain, as returned by {@link #getAltAlleleIndices}
+     * @return  a String representing an array of allele-specific values matching the target alleles
      */
-    private static String trimASAnnotation(final VariantContext variant, final List<Allele> targetAlleles, final String key) {
-        final int[] relevantIndices = targetAlleles.stream().filter(a -> !a.isReference()).mapToInt(a -> variant.getAlternateAlleles().indexOf(a)).toArray();
-        if (!variant.hasAttribute(key)) {
+    private static String trimASAnnotation(final Object value, final int[] relevantIndices) {
+        if (value == null) {
             return null;
         }
-        final List<String> annotationEntries = AnnotationUtils.decodeAnyASList(variant.getAttribute(key).toString());
+        final List<String> annotationEntries = AnnotationUtils.decodeAnyASList(value.toString());
         if (annotationEntries == null) {
             return null;
         }
@@ -0,0 +1,65 @@
+package org.broadinstitute.hellbender.tools.walkers.groundtruth;
+
+import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
+import org.broadinstitute.barclay.argparser.ExperimentalFeature;
+import org.broadinstitute.barclay.help.DocumentedFeature;
+import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
+import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.cmdline.programgroups.FlowBasedProgramGroup;
+import org.broadinstitute.hellbender.engine.GATKPath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gathers the report states of scattered {@link GroundTruthScorer} runs (generated using its --report-state-file argument)
+ * into a single ground truth scoring quality report, in GATK report format.
+ *
+ * The resulting report is identical to the one a single {@link GroundTruthScorer} run over all shards would have generated.
+ * See {@link GroundTruthScorer} for a description of the report tables.
+ *
+ * <h3>Usage example</h3>
+ * <pre>
+ * gatk GatherGroundTruthScorerReports \
+ *   -I report.shard1.state \
+ *   -I report.shard2.state \
+ *   -O report.txt \
+ *   --omit-zeros-from-report (optional)
+ * </pre>
+ */
+@CommandLineProgramProperties(
+        summary = "Gathers scattered ground truth scorer report states into a single report",
+        oneLineSummary = "Gathers scattered ground truth scorer report states into a single report",
+        programGroup = FlowBasedProgramGroup.class
+)
+@DocumentedFeature
+@ExperimentalFeature
+public final class GatherGroundTruthScorerReports extends CommandLineProgram {
+
+    @Argument(fullName = StandardArgumentDefinitions.INPUT_LONG_NAME,
+            shortName = StandardArgumentDefinitions.INPUT_SHORT_NAME, doc="List of scattered ground truth scorer report state files")
+    public final List<GATKPath> inputStates = new ArrayList<>();
+
+    @Argument(fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME,
+            shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME, doc="File to output the gathered report to")
+    public GATKPath outputReport;
+
+    @Argument(fullName = GroundTruthScorer.OMIT_ZEROS_FROM_REPORT, doc = "omit zero values from output report", optional = true)
+    public boolean omitZerosFromReport = false;
+
+    @Argument(fullName = GroundTruthScorer.QUALITY_PERCENTILES, doc = "list of quality percentiles, defaults to 10,25,50,75,90", optional = true)
+    public String qualityPercentiles = "10,25,50,75,90";
+
+    @Override
+    protected Object doWork() {
+
+        final GroundTruthScorerReport report = new GroundTruthScorerReport();
+        for ( final GATKPath path : inputStates ) {
+            report.merge(GroundTruthScorerReport.readState(path));
+        }
+        report.writeReport(outputReport, omitZerosFromReport, qualityPercentiles);
+
+        return 0;
+    }
+}
@@ -2,11 +2,8 @@ package org.broadinstitute.hellbender.tools.walkers.groundtruth;
 
 import com.opencsv.CSVReader;
 import htsjdk.samtools.CigarOperator;
-import htsjdk.samtools.SAMFileHeader;
-import htsjdk.samtools.SAMReadGroupRecord;
 import htsjdk.variant.variantcontext.VariantContext;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.math3.util.Precision;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.barclay.argparser.Argument;
@@ -23,18 +20,18 @@ import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyBased
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.FlowBasedAlignmentLikelihoodEngine;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.LikelihoodEngineArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ReadLikelihoodCalculationEngine;
-import org.broadinstitute.hellbender.utils.BaseUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.clipping.ReadClipper;
 import org.broadinstitute.hellbender.utils.haplotype.FlowBasedHaplotype;
 import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
 import org.broadinstitute.hellbender.utils.read.*;
-import org.broadinstitute.hellbender.utils.report.GATKReport;
-import org.broadinstitute.hellbender.utils.report.GATKReportTable;
 
 import java.io.*;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -54,6 +51,8 @@ import java.util.zip.GZIPOutputStream;
  * <h3> Output </h3>
  * <ul>
  *     <li>Per read ground truth information CSV and a ground truth scoring quality report, in GATK report format</li>
+ *     <li>Optionally, the (mergeable) state of the quality report. The states of runs scattered over interval shards
+ *     can be gathered into a single quality report using GatherGroundTruthScorerReports</li>
  * </ul>
  *
  * <h3>CSV Output Description </h3>
@@ -127,6 +126,17 @@ import java.util.zip.GZIPOutputStream;
  *   --genome-prior genome_prior.csv (optional)
  * </pre>
  *
+ * Scoring a shard on multiple threads and keeping its report state for a later gather:
+ * <pre>
+ * gatk GroundTruthScorer \
+ *   -I input.bam \
+ *   -R reference.fasta.gz
+ *   -L chr20:1-10000000 \
+ *   --output-csv output.shard1.csv \
+ *   --report-state-file report.shard1.state \
+ *   --scoring-threads 8
+ * </pre>
+ *
  * {@GATK.walkertype ReadWalker}
  */
 
@@ -152,229 +162,11 @@ public class GroundTruthScorer extends ReadWalker {
     public static final String QUALITY_PERCENTILES = "quality-percentiles";
     public static final String EXCLUDE_ZERO_FLOWS = "exclude-zero-flows";
 
-    private static final int QUAL_VALUE_MAX = 60;
-    private static final int HMER_VALUE_MAX = 100; //TODO: This should become a parameter
-    private static final int BASE_VALUE_MAX = FlowBasedRead.DEFAULT_FLOW_ORDER.length() - 1;
+    public static final String REPORT_STATE_FILE_LONG_NAME = "report-state-file";
+    public static final String SCORING_THREADS_LONG_NAME = "scoring-threads";
 
     private static final double NORMALIZED_SCORE_THRESHOLD_DEFAULT = -0.1;
-    private static final double DEFAULT_RATIO_THRESHOLD = 0.003;
-
-    /*
-     Private accumulator class for counting false/true observations (hence Boolean).
-
-     Observations are counted at a top level and are also optionally classified into a set of bins (the
-     number of which is fixed upon construction). The bins themselves are also BooleanAccumulator objects,
-     resulting in a tree like multi-level accumulator.
-
-
-     GroundTruthScores builds a four level deep accumulation tree, which can support observations of a
-     boolean event with 3-deep context (bin1,bin2,bin3).
-
-     Once accumulation is done, the instance is able to generate a suitable GATKReportTable for any given
-     bin depth (1, 2 or 3).
-
-     */
-    private static class BooleanAccumulator {
-        long falseCount;
-        long trueCount;
-        BooleanAccumulator[] bins;
-
-        // add an observation to this accumulator
-        void add(final boolean b) {
-            if (b) {
-                trueCount++;
-            } else {
-                falseCount++;
-            }
-        }
-
-        // add an observation to this accumulator and to one of the bins in the level under it (1 deep)
-        void add(final boolean b, final int bin) {
-            add(b);
-            if ( bins != null && bin >= 0 && bin < bins.length ) {
-                bins[bin].add(b);
-            } else {
-                logger.warn("bin out of range; " + bin + ", range: [0," + bins.length + "), clipped");
-                bins[Math.max(0, Math.min(bin, bins.length - 1))].add(b);
-            }
-        }
-
-        // add an observation to this accumulator and to two levels of bins under it (2 deep)
-        void add(final boolean b, final int bin, final int bin2) {
-            add(b);
-            if ( bins != null && bin >= 0 && bin < bins.length ) {
-                bins[bin].add(b, bin2);
-            } else {
-                logger.warn("bin out of range; " + bin + ", range: [0," + bins.length + "), clipped");
-                bins[Math.max(0, Math.min(bin, bins.length - 1))].add(b, bin2);
-            }
-        }
-
-        // add an observation to this accumulator and to three levels of bins under it (3 deep)
-        void add(final boolean b, final int bin, final int bin2, final int bin3) {
-            add(b);
-            if ( bins != null && bin >= 0 && bin < bins.length ) {
-                bins[bin].add(b, bin2, bin3);
-            } else {
-                logger.warn("bin out of range; " + bin + ", range: [0," + bins.length + "), clipped");
-                bins[Math.max(0, Math.min(bin, bins.length - 1))].add(b, bin2, bin3);
-            }
-        }
-
-        // get observation count of this accumulator
-        long getCount() {
-            return falseCount + trueCount;
-        }
-
-        // get the false rate/ration for this accumulator
-        double getFalseRate() {
-            return (getCount() == 0) ? 0.0 : ((double)falseCount / getCount());
-        }
-
-        // create a set of accumulators with 3-deep bin nesting
-        static BooleanAccumulator[] newReport(final int size, final int binCount, final int binCount2, final int binCount3) {
-            BooleanAccumulator[]   report = new BooleanAccumulator[size];
-            for ( byte i = 0 ; i < report.length ; i++ ) {
-                report[i] = new BooleanAccumulator();
-                if ( binCount != 0 ) {
-                    report[i].bins = new BooleanAccumulator[binCount];
-                    for ( int j = 0 ; j < report[i].bins.length ; j++ ) {
-                        report[i].bins[j] = new BooleanAccumulator();
-                        if ( binCount2 != 0 ) {
-                            report[i].bins[j].bins = new BooleanAccumulator[binCount2];
-                            for ( int k = 0 ; k < report[i].bins[j].bins.length ; k++ ) {
-                                report[i].bins[j].bins[k] = new BooleanAccumulator();
-                                if (binCount3 != 0) {
-                                    report[i].bins[j].bins[k].bins = new BooleanAccumulator[binCount3];
-                                    for (int m = 0; m < report[i].bins[j].bins[k].bins.length; m++) {
-                                        report[i].bins[j].bins[k].bins[m] = new BooleanAccumulator();
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            return report;
-        }
-
-        // create a GATK report from a set of accumulators without nesting into their bins
-        static GATKReportTable newReportTable(final BooleanAccumulator[] report, final String name, final double probThreshold, final boolean omitZeros) {
-            final GATKReportTable table = new GATKReportTable(name + "Report", "error rate per " + name, 4);
-            table.addColumn(name, "%d");
-            table.addColumn("count", "%d");
-            table.addColumn("error", "%f");
-            table.addColumn("phred", "%d");
-            int rowIndex = 0;
-            for (int i = 0; i < report.length; i++) {
-                if ( omitZeros && i != 0 && report[i].getCount() == 0 )
-                    continue;
-                else {
-                    final double rate = report[i].getFalseRate();
-                    final double phredRate = (rate == 0.0 && report[i].getCount() != 0 && probThreshold != 0.0) ? probThreshold : rate;
-
-                    table.set(rowIndex, 0, i);
-                    table.set(rowIndex, 1, report[i].getCount());
-                    table.set(rowIndex, 2, rate);
-                    table.set(rowIndex, 3, phredRate != 0 ? (int) Math.ceil(-10.0 * Math.log10(phredRate)) : 0);
-                    rowIndex++;
-                }
-            }
-            return table;
-        }
-
-        // create a GATK report from a set of accumulators while nesting into one level of their bins (1 deep)
-        static GATKReportTable newReportTable(final BooleanAccumulator[] report, final String name1, final String name2, final boolean omitZeros) {
-            final GATKReportTable table = new GATKReportTable(name1 + "_" + name2 + "Report", "error rate per " + name1 + " by " + name2, 4);
-            table.addColumn(name1, "%d");
-            table.addColumn(name2, "%d");
-            table.addColumn("count", "%d");
-            table.addColumn("error", "%f");
-            int rowIndex = 0;
-            for (int i = 0; i < report.length; i++) {
-                for ( int j = 0; j < report[i].bins.length ; j++ ) {
-                    if ( omitZeros && (i != 0 || j != 0) && report[i].bins[j].getCount() == 0 )
-                        continue;
-                    else {
-                        table.set(rowIndex, 0, i);
-                        table.set(rowIndex, 1, j);
-                        table.set(rowIndex, 2, report[i].bins[j].getCount());
-                        table.set(rowIndex, 3, report[i].bins[j].getFalseRate());
-                        rowIndex++;
-                    }
-                }
-            }
-            return table;
-        }
-
-        // create a GATK report from a set of accumulators while nesting into two levels of their bins (2 deep)
-        static GATKReportTable newReportTable(final BooleanAccumulator[] report, final String name1, final String name2, final String name3, final String name4, final boolean omitZeros) {
-            final GATKReportTable table = new GATKReportTable(name1 + "_" + name2 + "_" + name3 + "_" + name4 + "_Report", "error rate per " + name1 + " by " + name2 + " and " + name3, 5);
-            table.addColumn(name1, "%d");
-            table.addColumn(name2, "%d");
-            table.addColumn(name3, "%s");
-            table.addColumn(name4, "%s");
-            table.addColumn("count", "%d");
-            int rowIndex = 0;
-            for (int i = 0; i < report.length; i++) {
-                for ( int j = 0; j < report[i].bins.length ; j++ ) {
-                    for ( int k = 0; k < report[i].bins[j].bins.length ; k++ ) {
-                        for ( int m = 0; m < report[i].bins[j].bins[k].bins.length ; m++ ) {
-                            if ( omitZeros && (i != 0 || j != 0 || k != 0 || m != 0) && report[i].bins[j].bins[k].bins[m].getCount() == 0 )
-                                continue;
-                            else {
-                                table.set(rowIndex, 0, i);
-                                table.set(rowIndex, 1, j);
-                                table.set(rowIndex, 2, binToDeviation(k));
-                                table.set(rowIndex, 3, String.format("%c", binToBase(m)));
-                                table.set(rowIndex, 4, report[i].bins[j].bins[k].bins[m].getCount());
-                                rowIndex++;
-                            }
-                        }
-                    }
-                }
-            }
-            return table;
-        }
-    }
-
-    private static class PercentileReport extends SeriesStats {
-
-        static GATKReportTable newReportTable(final Vector<PercentileReport> report, String qualityPercentiles) {
-            String[] qp = qualityPercentiles.split(",");
-            final GATKReportTable table = new GATKReportTable("PhredBinAccumulator", "PhredBinAccumulator", 8 + qp.length);
-            table.addColumn("flow", "%d");
-            table.addColumn("count", "%d");
-            table.addColumn("min", "%f");
-            table.addColumn("max", "%f");
-            table.addColumn("mean", "%f");
-            table.addColumn("median", "%f");
-            table.addColumn("std", "%f");
-            for ( final String p : qp ) {
-                table.addColumn("p" + p, "%f");
-            }
-            int rowIndex = 0;
-            for ( final PercentileReport r : report ) {
-                int col = 0;
-                table.set(rowIndex, col++, rowIndex);
-                table.set(rowIndex, col++, r.getCount());
-                table.set(rowIndex, col++, r.getMin());
-                table.set(rowIndex, col++, r.getMax());
-                table.set(rowIndex, col++, r.getMean());
-                table.set(rowIndex, col++, r.getMedian());
-                table.set(rowIndex, col++, r.getStd());
-                for ( String p : qp ) {
-                    table.set(rowIndex, col++, r.getPercentile(Double.parseDouble(p)));
-                }
-                rowIndex++;
-            }
-            return table;
-        }
-
-        void addProb(double p) {
-            super.add(-10 * Math.log10(p));
-        }
-    }
+    private static final int SCORING_BATCH_SIZE = 10000;
 
     @Argument(fullName = OUTPUT_CSV_LONG_NAME, doc="main CSV output file. supported file extensions: .csv, .csv.gz.")
     public GATKPath outputCsvPath = null;
@@ -415,14 +207,23 @@ public class GroundTruthScorer extends ReadWalker {
     @Argument(fullName = EXCLUDE_ZERO_FLOWS, doc = "should flows with a call of zero be included in the percentile report?", optional = true)
     public boolean     excludeZeroFlows = false;
 
+    @Argument(fullName = REPORT_STATE_FILE_LONG_NAME, doc = "output file for the (mergeable) report state. States of scattered runs can be combined into a single report using GatherGroundTruthScorerReports", optional = true)
+    public GATKPath    reportStatePath = null;
+
+    @Argument(fullName = SCORING_THREADS_LONG_NAME, doc = "number of threads used to score reads. reads are scored in batches, output order is maintained", optional = true, minValue = 1)
+    public int         scoringThreads = 1;
+
     // locals
     private FlowBasedAlignmentLikelihoodEngine likelihoodCalculationEngine;
     private PrintWriter                         outputCsv;
-    private DecimalFormat                       doubleFormat = new DecimalFormat("0.0#####");
+    private final ThreadLocal<DecimalFormat>    doubleFormat = ThreadLocal.withInitial(() -> new DecimalFormat("0.0#####"));
     private GenomePriorDB                       genomePriorDB;
-    private BooleanAccumulator[]                qualReport;
     private String[]                            csvFieldOrder;
-    private Vector<PercentileReport>            percentileReports;
+    private GroundTruthScorerReport             report;
+
+    // multi-threaded scoring
+    private ForkJoinPool                        threadPool;
+    private List<ScoringJob>                    scoringBatch;
 
     // static/const
     static final private String[]       CSV_FIELD_ORDER_BASIC = {
@@ -434,6 +235,38 @@ public class GroundTruthScorer extends ReadWalker {
             "ReadProbs", "ReadMeanCall"
     };
 
+    // the outcome of scoring a read: its csv output line and the observations it contributes to the report
+    private static class ScoredRead {
+        final String        csvLine;
+        final int[]         readKey;
+        final double[]      errorProb;
+        final int[]         hapKey;     // null if the read does not contribute to the quality report
+        final byte[]        flowOrder;
+        final boolean       isReverseStrand;
+
+        ScoredRead(final String csvLine, final int[] readKey, final double[] errorProb, final int[] hapKey, final byte[] flowOrder, final boolean isReverseStrand) {
+            this.csvLine = csvLine;
+            this.readKey = readKey;
+            this.errorProb = errorProb;
+            this.hapKey = hapKey;
+            this.flowOrder = flowOrder;
+            this.isReverseStrand = isReverseStrand;
+        }
+    }
+
+    // a read (along with its reference context) waiting to be scored by the thread pool
+    private static class ScoringJob {
+        final GATKRead          read;
+        final GATKRead          clippedRead;
+        final ReferenceContext  referenceContext;
+
+        ScoringJob(final GATKRead read, final GATKRead clippedRead, final ReferenceContext referenceContext) {
+            this.read = read;
+            this.clippedRead = clippedRead;
+            this.referenceContext = referenceContext;
+        }
+    }
+
     @Override
     public void onTraversalStart() {
         super.onTraversalStart();
@@ -475,21 +308,27 @@ public class GroundTruthScorer extends ReadWalker {
         emitCsvHeaders();
 
         // initialize reports
-        if ( reportFilePath != null ) {
-            qualReport = BooleanAccumulator.newReport(QUAL_VALUE_MAX + 1, HMER_VALUE_MAX + 1, deviationToBin(HMER_VALUE_MAX + 1), BASE_VALUE_MAX + 1);
-
-            // establish max hmer size of flow input
-            int maxClass = FlowBasedRead.MAX_CLASS;
-            final SAMFileHeader header = getHeaderForReads();
-            if ( header != null ) {
-                for ( SAMReadGroupRecord rg : header.getReadGroups() ) {
-                    if ( rg.getAttribute(FlowBasedRead.MAX_CLASS_READ_GROUP_TAG) != null ) {
-                        maxClass = Math.max(maxClass, Integer.parseInt(rg.getAttribute(FlowBasedRead.MAX_CLASS_READ_GROUP_TAG)));
-                    }
-                }
-            }
-            percentileReports = new Vector<>();
+        if ( reportFilePath != null || reportStatePath != null ) {
+            report = new GroundTruthScorerReport();
         }
+
+        // initialize thread pool. scoring threads only compute the observations of reads, which are accumulated into
+        // the report on this thread, in the original order
+        if ( scoringThreads > 1 ) {
+            threadPool = new ForkJoinPool(scoringThreads);
+            scoringBatch = new ArrayList<>(SCORING_BATCH_SIZE);
+        }
+    }
+
+    @Override
+    public Object onTraversalSuccess() {
+
+        // score reads remaining in the last batch
+        if ( threadPool != null ) {
+            scoreBatch();
+        }
+
+        return super.onTraversalSuccess();
     }
 
     @Override
@@ -500,16 +339,18 @@ public class GroundTruthScorer extends ReadWalker {
             outputCsv.close();
         }
 
+        // shutdown threads
+        if ( threadPool != null ) {
+            threadPool.shutdown();
+        }
+
         // write reports
-        if ( reportFilePath != null ) {
-            final GATKReport report = new GATKReport(
-                    BooleanAccumulator.newReportTable(qualReport, "qual", DEFAULT_RATIO_THRESHOLD, omitZerosFromReport),
-                    BooleanAccumulator.newReportTable(qualReport, "qual", "hmer", omitZerosFromReport),
-                    BooleanAccumulator.newReportTable(qualReport, "qual", "hmer", "deviation", "base", omitZerosFromReport),
-                    PercentileReport.newReportTable(percentileReports, qualityPercentiles)
-            );
-            try ( final PrintStream ps = new PrintStream(reportFilePath.getOutputStream()) ) {
-                report.print(ps);
+        if ( report != null ) {
+            if ( reportFilePath != null ) {
+                report.writeReport(reportFilePath, omitZerosFromReport, qualityPercentiles);
+            }
+            if ( reportStatePath != null ) {
+                report.writeState(reportStatePath);
             }
         }
 
@@ -543,6 +384,68 @@ public class GroundTruthScorer extends ReadWalker {
             return;
         }
 
+        if ( threadPool == null ) {
+
+            // score and emit on this thread
+            emit(scoreRead(read, clippedRead, referenceContext));
+        } else {
+
+            // reference bases are fetched (and cached into the context) here, as the reference is not thread safe
+            referenceContext.getBases();
+            scoringBatch.add(new ScoringJob(read, clippedRead, referenceContext));
+            if ( scoringBatch.size() >= SCORING_BATCH_SIZE ) {
+                scoreBatch();
+            }
+        }
+    }
+
+    // score the reads of the current batch on the thread pool, emit their output in the original order
+    private void scoreBatch() {
+
+        final List<ScoringJob> batch = scoringBatch;
+        final ScoredRead[] scoredReads = new ScoredRead[batch.size()];
+        try {
+            threadPool.submit(() -> IntStream.range(0, batch.size()).parallel().forEach(i -> {
+                final ScoringJob job = batch.get(i);
+                scoredReads[i] = scoreRead(job.read, job.clippedRead, job.referenceContext);
+            })).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new GATKException("failed to score reads", e);
+        }
+        for ( final ScoredRead scoredRead : scoredReads ) {
+            emit(scoredRead);
+        }
+        batch.clear();
+    }
+
+    // emit the csv output line of a scored read and accumulate its observations into the report
+    private void emit(final ScoredRead scoredRead) {
+
+        if ( scoredRead == null ) {
+            return;
+        }
+        emitCsvLine(scoredRead.csvLine);
+
+        if ( report != null ) {
+            for ( int i = 0 ; i < scoredRead.readKey.length ; i++ ) {
+                if ( scoredRead.readKey[i] != 0 || !excludeZeroFlows ) {
+                    report.addErrorProb(i, scoredRead.errorProb[i]);
+                }
+            }
+            if ( scoredRead.hapKey != null ) {
+                report.addToQualReport(scoredRead.readKey, scoredRead.hapKey, scoredRead.flowOrder, scoredRead.isReverseStrand, scoredRead.errorProb);
+            }
+        }
+    }
+
+    /*
+     * score a single read against its reference context
+     *
+     * returns the csv output line and report observations of the read, or null if the read was discarded. This method
+     * is called from multiple threads when scoring in parallel and thus should not access mutable tool state.
+     */
+    private ScoredRead scoreRead(final GATKRead read, final GATKRead clippedRead, final ReferenceContext referenceContext) {
+
         // create flow read/haplotype
         final FlowBasedReadUtils.ReadGroupInfo rgInfo = FlowBasedReadUtils.getReadGroupInfo(getHeaderForReads(), clippedRead);
         final FlowBasedRead flowRead = new FlowBasedRead(clippedRead, rgInfo.flowOrder, rgInfo.maxClass, fbargs);
@@ -551,7 +454,7 @@ public class GroundTruthScorer extends ReadWalker {
 
         // is this really needed?
         if ( !flowRead.isValid() ) {
-           return;
+           return null;
         }
 
         // compute score
@@ -559,7 +462,7 @@ public class GroundTruthScorer extends ReadWalker {
         final double      score = FlowFeatureMapper.computeLikelihoodLocal(flowRead, flowHaplotype, hapKeyLength, false);
         final double      normalizedScore = score / flowRead.getKeyLength();
         if ( normalizedScore < normalizedScoreThreshold )
-            return;
+            return null;
 
         // compute error probability
         final double[]    errorProb = computeErrorProb(flowRead, genomePriorDB);
@@ -567,17 +470,13 @@ public class GroundTruthScorer extends ReadWalker {
         // cycle skip
         final FlowBasedReadUtils.CycleSkipStatus cycleSkipStatus = FlowBasedReadUtils.getCycleSkipStatus(flowRead, referenceContext);
 
-        // accumulate reports
-        if ( cycleSkipStatus != FlowBasedReadUtils.CycleSkipStatus.CS && qualReport != null ) {
-            addToQualReport(flowRead, referenceContext, errorProb);
-        }
+        // ground truth key for the quality report
+        final int[]       hapKey = (cycleSkipStatus != FlowBasedReadUtils.CycleSkipStatus.CS && report != null)
+                                        ? groundTruthKey(flowRead, referenceContext) : null;
 
-        // emit
-        try {
-            emit(flowRead, flowHaplotype, score, normalizedScore, errorProb, read, cycleSkipStatus);
-        } catch (IOException e) {
-            throw new GATKException("failed to write output record", e);
-        }
+        // format output
+        return new ScoredRead(formatCsvLine(flowRead, flowHaplotype, score, normalizedScore, errorProb, read, cycleSkipStatus),
+                flowRead.getKey(), errorProb, hapKey, flowRead.getFlowOrder().getBytes(), flowRead.isReverseStrand());
     }
 
     private boolean filter(final GATKRead read, final ReferenceContext referenceContext) {
@@ -662,16 +561,6 @@ public class GroundTruthScorer extends ReadWalker {
                 // assign normalized result
                 result[i] = 1 - probCol[Math.min(key[i], flowRead.getMaxHmer())];
             }
-
-            // accumulate error probabilities
-            if ( percentileReports != null ) {
-                if ( key[i] != 0 || !excludeZeroFlows ) {
-                    while ( percentileReports.size() < (i + 1) ) {
-                        percentileReports.add(new PercentileReport());
-                    }
-                    percentileReports.get(i).addProb(result[i]);
-                }
-            }
         }
 
         return result;
@@ -732,9 +621,18 @@ public class GroundTruthScorer extends ReadWalker {
         outputCsv.println(StringUtils.join(csvFieldOrder, ","));
     }
 
-    private void emit(final FlowBasedRead flowRead, final FlowBasedHaplotype refHaplotype, double score, final double normalizedScore, final double[] errorProb,
-                      GATKRead read,
-                      FlowBasedReadUtils.CycleSkipStatus cycleSkipStatus) throws IOException {
+    private void emitCsvLine(final String line) {
+
+        if ( line != null && !noOutput ) {
+            outputCsv.println(line);
+        }
+    }
+
+    private String formatCsvLine(final FlowBasedRead flowRead, final FlowBasedHaplotype refHaplotype, double score, final double normalizedScore, final double[] errorProb,
+                                 GATKRead read,
+                                 FlowBasedReadUtils.CycleSkipStatus cycleSkipStatus) {
+
+        final DecimalFormat doubleFormat = this.doubleFormat.get();
 
         // build line columns
         final Map<String,Object> cols = new LinkedHashMap<>();
@@ -794,10 +692,7 @@ public class GroundTruthScorer extends ReadWalker {
             throw new GATKException("invalid columns on csv line: " + cols.keySet());
         }
 
-        // output line
-        if ( !noOutput ) {
-            outputCsv.println(sb);
-        }
+        return sb.toString();
     }
 
     private double[][] collectReadProbs(final FlowBasedRead read) {
@@ -833,7 +728,7 @@ public class GroundTruthScorer extends ReadWalker {
             final CSVReader     csvReader = new CSVReader(new InputStreamReader(path.getInputStream()));
             String[]            line;
             while ( (line = csvReader.readNext()) != null ) {
-                long[]          prior = new long[HMER_VALUE_MAX + 1];
+                long[]          prior = new long[GroundTruthScorerReport.HMER_VALUE_MAX + 1];
                 Byte            base = line[0].getBytes()[0];
                 for ( int i = 0 ; i < prior.length ; i++ ) {
                     if ( i == 0 ){
@@ -851,66 +746,13 @@ public class GroundTruthScorer extends ReadWalker {
         }
     }
 
-    private void addToQualReport(FlowBasedRead flowRead, ReferenceContext referenceContext, final double[] errorProb) {
+    private int[] groundTruthKey(FlowBasedRead flowRead, ReferenceContext referenceContext) {
 
         // convert reference to key space
         final Haplotype             haplotype = new Haplotype(referenceContext.getBases(), true);
         final FlowBasedHaplotype    flowHaplotype = new FlowBasedHaplotype(haplotype, flowRead.getFlowOrder());
 
-        // access keys & flow order
-        final int[]                 readKey = flowRead.getKey();
-        final int[]                 hapKey = flowHaplotype.getKey();
-        final byte[]                flowOrder = flowRead.getFlowOrder().getBytes();
-
-        // loop on key positions
-        if ( readKey.length != hapKey.length ) {
-            return;
-        }
-        for ( int flow = 0 ; flow < readKey.length ; flow++ ) {
-
-            // determine quality
-            final double        prob = Precision.round(errorProb[flow], (QUAL_VALUE_MAX / 10) + 1);
-            final int           qual = (int)Math.ceil(-10 * Math.log10(prob));
-
-            // determine if matches reference
-            final int           deviation = readKey[flow] - hapKey[flow];
-            final boolean       same = (deviation == 0);
-
-            // accumulate
-            if ( qual < qualReport.length ) {
-                int         baseBin = baseToBin(flowOrder[flow % flowOrder.length], flowRead.isReverseStrand());
-                qualReport[qual].add(same, readKey[flow], deviationToBin(deviation), baseBin);
-            }
-        }
-    }
-
-    static private int baseToBin(byte base, boolean isReverseStrand) {
-        final byte trueBase = !isReverseStrand ? base : BaseUtils.simpleComplement(base);
-        return FlowBasedRead.DEFAULT_FLOW_ORDER.indexOf(trueBase);
-    }
-
-    static private byte binToBase(int bin) {
-        return (byte)FlowBasedRead.DEFAULT_FLOW_ORDER.charAt(bin);
-    }
-
-    // 0,-1,1,-2,2... -> 0,1,2,3,4...
-    static private int deviationToBin(final int deviation) {
-        if ( deviation >= 0 ) {
-            return deviation * 2;
-        } else {
-            return (-deviation * 2) - 1;
-        }
-    }
-
-    // 0,1,2,3,4... -> 0,-1,1,-2,2...
-    static private String binToDeviation(final int bin) {
-        if ( bin == 0 ) {
-            return "0";
-        } else if ( (bin % 2) == 0 ) {
-            return String.format("+%d", bin / 2);
-        } else {
-            return String.format("%d", -((bin+1) / 2));
-        }
+        return flowHaplotype.getKey();
     }
 
     static private boolean isSoftClipped( final GATKRead read ) {
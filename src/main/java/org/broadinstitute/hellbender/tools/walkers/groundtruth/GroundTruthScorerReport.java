@@ -0,0 +1,498 @@
+package org.broadinstitute.hellbender.tools.walkers.groundtruth;
+
+import org.apache.commons.math3.util.Precision;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.engine.GATKPath;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.BaseUtils;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.FlowBasedRead;
+import org.broadinstitute.hellbender.utils.report.GATKReport;
+import org.broadinstitute.hellbender.utils.report.GATKReportTable;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Accumulated quality report state of {@link GroundTruthScorer}.
+ *
+ * The state can be written to a file and merged, so that ground truth reads scattered across interval shards can be
+ * accumulated independently and combined into a single final report by {@link GatherGroundTruthScorerReports}.
+ *
+ * The state file is a versioned binary format holding the (non-zero) counts of the quality report and the values of the
+ * percentile reports, see {@link #writeState}.
+ */
+public final class GroundTruthScorerReport {
+
+    private static final Logger logger = LogManager.getLogger(GroundTruthScorerReport.class);
+
+    static final int QUAL_VALUE_MAX = 60;
+    static final int HMER_VALUE_MAX = 100; //TODO: This should become a parameter
+    static final int BASE_VALUE_MAX = FlowBasedRead.DEFAULT_FLOW_ORDER.length() - 1;
+
+    private static final double DEFAULT_RATIO_THRESHOLD = 0.003;
+
+    // number of bins at each level of the quality report: qual, hmer, deviation and base
+    private static final int[] QUAL_REPORT_DIMENSIONS = {QUAL_VALUE_MAX + 1, HMER_VALUE_MAX + 1, deviationToBin(HMER_VALUE_MAX + 1), BASE_VALUE_MAX + 1};
+
+    private static final String STATE_FORMAT_NAME = "GroundTruthScorerReportState";
+    private static final int STATE_FORMAT_VERSION = 1;
+    private static final int STATE_END_OF_COUNTS = -1;
+
+    /*
+     Private accumulator class for counting false/true observations (hence Boolean).
+
+     Observations are counted at a top level and are also optionally classified into a set of bins (the
+     number of which is fixed upon construction). The bins themselves are also BooleanAccumulator objects,
+     resulting in a tree like multi-level accumulator.
+
+
+     GroundTruthScores builds a four level deep accumulation tree, which can support observations of a
+     boolean event with 3-deep context (bin1,bin2,bin3).
+
+     Once accumulation is done, the instance is able to generate a suitable GATKReportTable for any given
+     bin depth (1, 2 or 3).
+
+     */
+    private static class BooleanAccumulator {
+        long falseCount;
+        long trueCount;
+        BooleanAccumulator[] bins;
+
+        // add an observation to this accumulator
+        void add(final boolean b) {
+            if (b) {
+                trueCount++;
+            } else {
+                falseCount++;
+            }
+        }
+
+        // add an observation to this accumulator and to one of the bins in the level under it (1 deep)
+        void add(final boolean b, final int bin) {
+            add(b);
+            if ( bins != null && bin >= 0 && bin < bins.length ) {
+                bins[bin].add(b);
+            } else {
+                logger.warn("bin out of range; " + bin + ", range: [0," + bins.length + "), clipped");
+                bins[Math.max(0, Math.min(bin, bins.length - 1))].add(b);
+            }
+        }
+
+        // add an observation to this accumulator and to two levels of bins under it (2 deep)
+        void add(final boolean b, final int bin, final int bin2) {
+            add(b);
+            if ( bins != null && bin >= 0 && bin < bins.length ) {
+                bins[bin].add(b, bin2);
+            } else {
+                logger.warn("bin out of range; " + bin + ", range: [0," + bins.length + "), clipped");
+                bins[Math.max(0, Math.min(bin, bins.length - 1))].add(b, bin2);
+            }
+        }
+
+        // add an observation to this accumulator and to three levels of bins under it (3 deep)
+        void add(final boolean b, final int bin, final int bin2, final int bin3) {
+            add(b);
+            if ( bins != null && bin >= 0 && bin < bins.length ) {
+                bins[bin].add(b, bin2, bin3);
+            } else {
+                logger.warn("bin out of range; " + bin + ", range: [0," + bins.length + "), clipped");
+                bins[Math.max(0, Math.min(bin, bins.length - 1))].add(b, bin2, bin3);
+            }
+        }
+
+        // merge the observations of another accumulator (of identical bin structure) into this one
+        void merge(final BooleanAccumulator other) {
+            falseCount += other.falseCount;
+            trueCount += other.trueCount;
+            if ( bins != null ) {
+                Utils.validate(other.bins != null && other.bins.length == bins.length, "can not merge accumulators with different bin structure");
+                for ( int i = 0 ; i < bins.length ; i++ ) {
+                    bins[i].merge(other.bins[i]);
+                }
+            }
+        }
+
+        // get observation count of this accumulator
+        long getCount() {
+            return falseCount + trueCount;
+        }
+
+        // get the false rate/ration for this accumulator
+        double getFalseRate() {
+            return (getCount() == 0) ? 0.0 : ((double)falseCount / getCount());
+        }
+
+        // create a set of accumulators with 3-deep bin nesting
+        static BooleanAccumulator[] newReport(final int size, final int binCount, final int binCount2, final int binCount3) {
+            BooleanAccumulator[]   report = new BooleanAccumulator[size];
+            for ( byte i = 0 ; i < report.length ; i++ ) {
+                report[i] = new BooleanAccumulator();
+                if ( binCount != 0 ) {
+                    report[i].bins = new BooleanAccumulator[binCount];
+                    for ( int j = 0 ; j < report[i].bins.length ; j++ ) {
+                        report[i].bins[j] = new BooleanAccumulator();
+                        if ( binCount2 != 0 ) {
+                            report[i].bins[j].bins = new BooleanAccumulator[binCount2];
+                            for ( int k = 0 ; k < report[i].bins[j].bins.length ; k++ ) {
+                                report[i].bins[j].bins[k] = new BooleanAccumulator();
+                                if (binCount3 != 0) {
+                                    report[i].bins[j].bins[k].bins = new BooleanAccumulator[binCount3];
+                                    for (int m = 0; m < report[i].bins[j].bins[k].bins.length; m++) {
+                                        report[i].bins[j].bins[k].bins[m] = new BooleanAccumulator();
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            return report;
+        }
+
+        // create a GATK report from a set of accumulators without nesting into their bins
+        static GATKReportTable newReportTable(final BooleanAccumulator[] report, final String name, final double probThreshold, final boolean omitZeros) {
+            final GATKReportTable table = new GATKReportTable(name + "Report", "error rate per " + name, 4);
+            table.addColumn(name, "%d");
+            table.addColumn("count", "%d");
+            table.addColumn("error", "%f");
+            table.addColumn("phred", "%d");
+            int rowIndex = 0;
+            for (int i = 0; i < report.length; i++) {
+                if ( omitZeros && i != 0 && report[i].getCount() == 0 )
+                    continue;
+                else {
+                    final double rate = report[i].getFalseRate();
+                    final double phredRate = (rate == 0.0 && report[i].getCount() != 0 && probThreshold != 0.0) ? probThreshold : rate;
+
+                    table.set(rowIndex, 0, i);
+                    table.set(rowIndex, 1, report[i].getCount());
+                    table.set(rowIndex, 2, rate);
+                    table.set(rowIndex, 3, phredRate != 0 ? (int) Math.ceil(-10.0 * Math.log10(phredRate)) : 0);
+                    rowIndex++;
+                }
+            }
+            return table;
+        }
+
+        // create a GATK report from a set of accumulators while nesting into one level of their bins (1 deep)
+        static GATKReportTable newReportTable(final BooleanAccumulator[] report, final String name1, final String name2, final boolean omitZeros) {
+            final GATKReportTable table = new GATKReportTable(name1 + "_" + name2 + "Report", "error rate per " + name1 + " by " + name2, 4);
+            table.addColumn(name1, "%d");
+            table.addColumn(name2, "%d");
+            table.addColumn("count", "%d");
+            table.addColumn("error", "%f");
+            int rowIndex = 0;
+            for (int i = 0; i < report.length; i++) {
+                for ( int j = 0; j < report[i].bins.length ; j++ ) {
+                    if ( omitZeros && (i != 0 || j != 0) && report[i].bins[j].getCount() == 0 )
+                        continue;
+                    else {
+                        table.set(rowIndex, 0, i);
+                        table.set(rowIndex, 1, j);
+                        table.set(rowIndex, 2, report[i].bins[j].getCount());
+                        table.set(rowIndex, 3, report[i].bins[j].getFalseRate());
+                        rowIndex++;
+                    }
+                }
+            }
+            return table;
+        }
+
+        // create a GATK report from a set of accumulators while nesting into two levels of their bins (2 deep)
+        static GATKReportTable newReportTable(final BooleanAccumulator[] report, final String name1, final String name2, final String name3, final String name4, final boolean omitZeros) {
+            final GATKReportTable table = new GATKReportTable(name1 + "_" + name2 + "_" + name3 + "_" + name4 + "_Report", "error rate per " + name1 + " by " + name2 + " and " + name3, 5);
+            table.addColumn(name1, "%d");
+            table.addColumn(name2, "%d");
+            table.addColumn(name3, "%s");
+            table.addColumn(name4, "%s");
+            table.addColumn("count", "%d");
+            int rowIndex = 0;
+            for (int i = 0; i < report.length; i++) {
+                for ( int j = 0; j < report[i].bins.length ; j++ ) {
+                    for ( int k = 0; k < report[i].bins[j].bins.length ; k++ ) {
+                        for ( int m = 0; m < report[i].bins[j].bins[k].bins.length ; m++ ) {
+                            if ( omitZeros && (i != 0 || j != 0 || k != 0 || m != 0) && report[i].bins[j].bins[k].bins[m].getCount() == 0 )
+                                continue;
+                            else {
+                                table.set(rowIndex, 0, i);
+                                table.set(rowIndex, 1, j);
+                                table.set(rowIndex, 2, binToDeviation(k));
+                                table.set(rowIndex, 3, String.format("%c", binToBase(m)));
+                                table.set(rowIndex, 4, report[i].bins[j].bins[k].bins[m].getCount());
+                                rowIndex++;
+                            }
+                        }
+                    }
+                }
+            }
+            return table;
+        }
+    }
+
+    private static class PercentileReport extends SeriesStats {
+
+        static GATKReportTable newReportTable(final List<PercentileReport> report, String qualityPercentiles) {
+            String[] qp = qualityPercentiles.split(",");
+            final GATKReportTable table = new GATKReportTable("PhredBinAccumulator", "PhredBinAccumulator", 8 + qp.length);
+            table.addColumn("flow", "%d");
+            table.addColumn("count", "%d");
+            table.addColumn("min", "%f");
+            table.addColumn("max", "%f");
+            table.addColumn("mean", "%f");
+            table.addColumn("median", "%f");
+            table.addColumn("std", "%f");
+            for ( final String p : qp ) {
+                table.addColumn("p" + p, "%f");
+            }
+            int rowIndex = 0;
+            for ( final PercentileReport r : report ) {
+                int col = 0;
+                table.set(rowIndex, col++, rowIndex);
+                table.set(rowIndex, col++, r.getCount());
+                table.set(rowIndex, col++, r.getMin());
+                table.set(rowIndex, col++, r.getMax());
+                table.set(rowIndex, col++, r.getMean());
+                table.set(rowIndex, col++, r.getMedian());
+                table.set(rowIndex, col++, r.getStd());
+                for ( String p : qp ) {
+                    table.set(rowIndex, col++, r.getPercentile(Double.parseDouble(p)));
+                }
+                rowIndex++;
+            }
+            return table;
+        }
+
+        void addProb(double p) {
+            super.add(-10 * Math.log10(p));
+        }
+    }
+
+    // local state
+    private final BooleanAccumulator[]        qualReport;
+    private final Vector<PercentileReport>    percentileReports;
+
+    public GroundTruthScorerReport() {
+        qualReport = BooleanAccumulator.newReport(QUAL_REPORT_DIMENSIONS[0], QUAL_REPORT_DIMENSIONS[1], QUAL_REPORT_DIMENSIONS[2], QUAL_REPORT_DIMENSIONS[3]);
+        percentileReports = new Vector<>();
+    }
+
+    /**
+     * Add an error probability observation of a given flow position to the percentile report
+     */
+    public void addErrorProb(final int flow, final double errorProb) {
+        while ( percentileReports.size() < (flow + 1) ) {
+            percentileReports.add(new PercentileReport());
+        }
+        percentileReports.get(flow).addProb(errorProb);
+    }
+
+    /**
+     * Add the per-flow observations of a read (relative to the key of its reference/ground truth) to the quality report
+     */
+    public void addToQualReport(final int[] readKey, final int[] hapKey, final byte[] flowOrder, final boolean isReverseStrand, final double[] errorProb) {
+
+        // loop on key positions
+        if ( readKey.length != hapKey.length ) {
+            return;
+        }
+        for ( int flow = 0 ; flow < readKey.length ; flow++ ) {
+
+            // determine quality
+            final double        prob = Precision.round(errorProb[flow], (QUAL_VALUE_MAX / 10) + 1);
+            final int           qual = (int)Math.ceil(-10 * Math.log10(prob));
+
+            // determine if matches reference
+            final int           deviation = readKey[flow] - hapKey[flow];
+            final boolean       same = (deviation == 0);
+
+            // accumulate
+            if ( qual < qualReport.length ) {
+                int         baseBin = baseToBin(flowOrder[flow % flowOrder.length], isReverseStrand);
+                qualReport[qual].add(same, readKey[flow], deviationToBin(deviation), baseBin);
+            }
+        }
+    }
+
+    /**
+     * Merge the observations accumulated by another report into this one
+     */
+    public void merge(final GroundTruthScorerReport other) {
+        Utils.nonNull(other);
+        for ( int i = 0 ; i < qualReport.length ; i++ ) {
+            qualReport[i].merge(other.qualReport[i]);
+        }
+        for ( int i = 0 ; i < other.percentileReports.size() ; i++ ) {
+            if ( i < percentileReports.size() ) {
+                percentileReports.get(i).merge(other.percentileReports.get(i));
+            } else {
+                final PercentileReport r = new PercentileReport();
+                r.merge(other.percentileReports.get(i));
+                percentileReports.add(r);
+            }
+        }
+    }
+
+    /**
+     * Build the final GATK report out of the accumulated state
+     */
+    public GATKReport toGATKReport(final boolean omitZeros, final String qualityPercentiles) {
+        return new GATKReport(
+                BooleanAccumulator.newReportTable(qualReport, "qual", DEFAULT_RATIO_THRESHOLD, omitZeros),
+                BooleanAccumulator.newReportTable(qualReport, "qual", "hmer", omitZeros),
+                BooleanAccumulator.newReportTable(qualReport, "qual", "hmer", "deviation", "base", omitZeros),
+                PercentileReport.newReportTable(percentileReports, qualityPercentiles)
+        );
+    }
+
+    /**
+     * Write the final GATK report to a file
+     */
+    public void writeReport(final GATKPath path, final boolean omitZeros, final String qualityPercentiles) {
+        final GATKReport report = toGATKReport(omitZeros, qualityPercentiles);
+        try ( final PrintStream ps = new PrintStream(path.getOutputStream()) ) {
+            report.print(ps);
+        }
+    }
+
+    /**
+     * Write the accumulated (mergeable) state to a file
+     *
+     * The format is: the format name and version, the dimensions of the quality report, then for each of its levels the
+     * accumulators with a non-zero count (as their row-major index within the level followed by their false and true counts)
+     * terminated by an index of -1, and finally the number of percentile reports followed by the state of each.
+     */
+    public void writeState(final GATKPath path) {
+        try ( final DataOutputStream os = new DataOutputStream(new BufferedOutputStream(path.getOutputStream())) ) {
+            os.writeUTF(STATE_FORMAT_NAME);
+            os.writeInt(STATE_FORMAT_VERSION);
+            os.writeInt(QUAL_REPORT_DIMENSIONS.length);
+            for ( final int dimension : QUAL_REPORT_DIMENSIONS ) {
+                os.writeInt(dimension);
+            }
+            for ( int depth = 0 ; depth < QUAL_REPORT_DIMENSIONS.length ; depth++ ) {
+                writeCounts(os, qualReport, depth, 0);
+                os.writeInt(STATE_END_OF_COUNTS);
+            }
+            os.writeInt(percentileReports.size());
+            for ( final PercentileReport r : percentileReports ) {
+                r.writeState(os);
+            }
+        } catch (IOException e) {
+            throw new UserException.CouldNotCreateOutputFile(path, "failed to write ground truth scorer report state", e);
+        }
+    }
+
+    /**
+     * Read a report state previously written by {@link #writeState}
+     */
+    public static GroundTruthScorerReport readState(final GATKPath path) {
+        final GroundTruthScorerReport report = new GroundTruthScorerReport();
+        try ( final DataInputStream is = new DataInputStream(new BufferedInputStream(path.getInputStream())) ) {
+            if ( !STATE_FORMAT_NAME.equals(is.readUTF()) ) {
+                throw new UserException.CouldNotReadInputFile(path, "not a ground truth scorer report state");
+            }
+            final int version = is.readInt();
+            if ( version != STATE_FORMAT_VERSION ) {
+                throw new UserException.CouldNotReadInputFile(path, "unsupported ground truth scorer report state version: " + version);
+            }
+            final int[] dimensions = new int[is.readInt()];
+            for ( int i = 0 ; i < dimensions.length ; i++ ) {
+                dimensions[i] = is.readInt();
+            }
+            if ( !Arrays.equals(dimensions, QUAL_REPORT_DIMENSIONS) ) {
+                throw new UserException.CouldNotReadInputFile(path, "ground truth scorer report state has quality report dimensions "
+                        + Arrays.toString(dimensions) + ", expected " + Arrays.toString(QUAL_REPORT_DIMENSIONS));
+            }
+            for ( int depth = 0 ; depth < dimensions.length ; depth++ ) {
+                int levelSize = 1;
+                for ( int d = 0 ; d <= depth ; d++ ) {
+                    levelSize *= dimensions[d];
+                }
+                int previousIndex = -1;
+                for ( int index = is.readInt() ; index != STATE_END_OF_COUNTS ; index = is.readInt() ) {
+                    if ( index <= previousIndex || index >= levelSize ) {
+                        throw new UserException.CouldNotReadInputFile(path, "ground truth scorer report state has an invalid quality report index: " + index);
+                    }
+                    final BooleanAccumulator acc = report.accumulatorAt(depth, index);
+                    acc.falseCount = is.readLong();
+                    acc.trueCount = is.readLong();
+                    previousIndex = index;
+                }
+            }
+            final int percentileReportCount = is.readInt();
+            for ( int i = 0 ; i < percentileReportCount ; i++ ) {
+                final PercentileReport r = new PercentileReport();
+                r.readState(is);
+                report.percentileReports.add(r);
+            }
+        } catch (IOException e) {
+            throw new UserException.CouldNotReadInputFile(path, "not a valid ground truth scorer report state", e);
+        }
+        return report;
+    }
+
+    // write the non-zero counts of the accumulators at a given depth under the given ones, returns the index following the last one visited
+    private static int writeCounts(final DataOutputStream os, final BooleanAccumulator[] accumulators, final int depth, int index) throws IOException {
+        for ( final BooleanAccumulator acc : accumulators ) {
+            if ( depth > 0 ) {
+                index = writeCounts(os, acc.bins, depth - 1, index);
+            } else {
+                if ( acc.getCount() != 0 ) {
+                    os.writeInt(index);
+                    os.writeLong(acc.falseCount);
+                    os.writeLong(acc.trueCount);
+                }
+                index++;
+            }
+        }
+        return index;
+    }
+
+    // locate the accumulator at a given depth of the quality report by its row-major index within that depth
+    private BooleanAccumulator accumulatorAt(final int depth, final int index) {
+        final int[] bins = new int[depth + 1];
+        int remainder = index;
+        for ( int d = depth ; d >= 0 ; d-- ) {
+            bins[d] = remainder % QUAL_REPORT_DIMENSIONS[d];
+            remainder /= QUAL_REPORT_DIMENSIONS[d];
+        }
+        BooleanAccumulator acc = qualReport[bins[0]];
+        for ( int d = 1 ; d <= depth ; d++ ) {
+            acc = acc.bins[bins[d]];
+        }
+        return acc;
+    }
+
+    static private int baseToBin(byte base, boolean isReverseStrand) {
+        final byte trueBase = !isReverseStrand ? base : BaseUtils.simpleComplement(base);
+        return FlowBasedRead.DEFAULT_FLOW_ORDER.indexOf(trueBase);
+    }
+
+    static private byte binToBase(int bin) {
+        return (byte)FlowBasedRead.DEFAULT_FLOW_ORDER.charAt(bin);
+    }
+
+    // 0,-1,1,-2,2... -> 0,1,2,3,4...
+    static private int deviationToBin(final int deviation) {
+        if ( deviation >= 0 ) {
+            return deviation * 2;
+        } else {
+            return (-deviation * 2) - 1;
+        }
+    }
+
+    // 0,1,2,3,4... -> 0,-1,1,-2,2...
+    static private String binToDeviation(final int bin) {
+        if ( bin == 0 ) {
+            return "0";
+        } else if ( (bin % 2) == 0 ) {
+            return String.format("+%d", bin / 2);
+        } else {
+            return String.format("%d", -((bin+1) / 2));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package org.broadinstitute.hellbender.tools.walkers.groundtruth;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.LinkedHashMap;
@@ -67,6 +69,79 @@ public class SeriesStats {
         }
     }
 
+    // merge the observations of another series into this one. the last value is not merged, as it depends on the order of merging
+    public void merge(final SeriesStats other) {
+
+        if ( other.count == 0 ) {
+            return;
+        }
+
+        // merge simple values
+        sum += other.sum;
+        if ( count > 0 ) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        } else {
+            min = other.min;
+            max = other.max;
+        }
+        count += other.count;
+        intCount += other.intCount;
+
+        // merge bins
+        for (Map.Entry<Double, AtomicInteger> entry : other.bins.entrySet() ) {
+            final AtomicInteger bin = bins.get(entry.getKey());
+            if ( bin != null ) {
+                bin.addAndGet(entry.getValue().get());
+            } else {
+                bins.put(entry.getKey(), new AtomicInteger(entry.getValue().get()));
+            }
+        }
+        for (Map.Entry<Double, SeriesStats> entry : other.auxBins.entrySet() ) {
+            auxBins.computeIfAbsent(entry.getKey(), k -> new SeriesStats()).merge(entry.getValue());
+        }
+    }
+
+    // write the state of this series (all but its last value) to a stream, to be read back by readState
+    void writeState(final DataOutput out) throws IOException {
+        out.writeInt(count);
+        out.writeInt(intCount);
+        out.writeDouble(sum);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(bins.size());
+        for (Map.Entry<Double, AtomicInteger> entry : bins.entrySet() ) {
+            out.writeDouble(entry.getKey());
+            out.writeInt(entry.getValue().get());
+        }
+        out.writeInt(auxBins.size());
+        for (Map.Entry<Double, SeriesStats> entry : auxBins.entrySet() ) {
+            out.writeDouble(entry.getKey());
+            entry.getValue().writeState(out);
+        }
+    }
+
+    // read the state written by writeState into this (empty) series
+    void readState(final DataInput in) throws IOException {
+        count = in.readInt();
+        intCount = in.readInt();
+        sum = in.readDouble();
+        min = in.readDouble();
+        max = in.readDouble();
+        final int binCount = in.readInt();
+        for ( int i = 0 ; i < binCount ; i++ ) {
+            final double key = in.readDouble();
+            bins.put(key, new AtomicInteger(in.readInt()));
+        }
+        final int auxBinCount = in.readInt();
+        for ( int i = 0 ; i < auxBinCount ; i++ ) {
+            final double key = in.readDouble();
+            final SeriesStats auxBin = new SeriesStats();
+            auxBin.readState(in);
+            auxBins.put(key, auxBin);
+        }
+    }
+
     public double getLast() {
         return last;
     }
@@ -99,7 +174,7 @@ public class SeriesStats {
         if ( count == 0 ) {
             return Double.NaN;
         } else if ( count == 1 ) {
-            return last;
+            return bins.firstKey();
         } else {
 
             int percentileIndex = (int)(count * precentile / 100);
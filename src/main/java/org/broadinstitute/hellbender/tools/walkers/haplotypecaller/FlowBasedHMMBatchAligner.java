@@ -0,0 +1,124 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.SampleList;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Batched alignment of reads to haplotypes using the {@link FlowBasedHMMEngine}.
+ *
+ * Tools such as FlowPairHMMAlignReadsToHaplotypes and HaplotypeBasedVariantRecaller align many small sets of reads
+ * against (other) small sets of haplotypes. This class accepts a batch of such alignment jobs and executes them on a
+ * thread pool, returning the resulting likelihoods in the order of the input jobs.
+ *
+ * Jobs are executed from the longest to the shortest (in terms of their haplotypes and reads), so that the flow pairHMM
+ * matrices of each thread are allocated by its first job and reused by the following ones.
+ */
+public final class FlowBasedHMMBatchAligner implements AutoCloseable {
+
+    /**
+     * A single alignment job: a set of (per sample) reads to be aligned against a set of haplotypes
+     */
+    public static final class Job {
+
+        private final List<Haplotype>               haplotypes;
+        private final SAMFileHeader                 header;
+        private final Map<String, List<GATKRead>>   perSampleReadList;
+
+        public Job(final List<Haplotype> haplotypes, final SAMFileHeader header, final Map<String, List<GATKRead>> perSampleReadList) {
+            this.haplotypes = Utils.nonNull(haplotypes, "haplotypes is null");
+            this.header = header;
+            this.perSampleReadList = Utils.nonNull(perSampleReadList, "perSampleReadList is null");
+        }
+
+        // size of the job, in terms of the longest haplotype and read. used to group similarly sized jobs together
+        private int maxHaplotypeLength() {
+            return haplotypes.stream().mapToInt(Haplotype::length).max().orElse(0);
+        }
+
+        private int maxReadLength() {
+            return perSampleReadList.values().stream().flatMap(Collection::stream).mapToInt(GATKRead::getLength).max().orElse(0);
+        }
+    }
+
+    private final FlowBasedHMMEngine    engine;
+    private final ForkJoinPool          threadPool;
+
+    /**
+     * @param engine - engine to compute likelihoods with
+     * @param threads - number of threads to run jobs on. 1 runs all jobs on the calling thread
+     */
+    public FlowBasedHMMBatchAligner(final FlowBasedHMMEngine engine, final int threads) {
+        Utils.validateArg(threads > 0, "threads must be positive");
+        this.engine = Utils.nonNull(engine, "engine is null");
+        this.threadPool = (threads > 1) ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Compute read likelihoods for a batch of jobs.
+     *
+     * @param jobs - jobs to execute
+     * @param samples - samples of the jobs (the keys of each job's per sample read list)
+     * @param filterPoorly - filter poorly modeled reads from the results
+     * @param normalizeLikelihoods - normalize likelihoods (see {@link FlowBasedHMMEngine#computeReadLikelihoods})
+     * @return - the likelihoods of each job, in the order of the input jobs
+     */
+    public List<AlleleLikelihoods<GATKRead, Haplotype>> computeReadLikelihoods(final List<Job> jobs,
+                                                                               final SampleList samples,
+                                                                               final boolean filterPoorly,
+                                                                               final boolean normalizeLikelihoods) {
+        Utils.nonNull(jobs, "jobs is null");
+        Utils.nonNull(samples, "samples is null");
+
+        // order jobs by size, longest first
+        final int[]     maxHaplotypeLength = jobs.stream().mapToInt(Job::maxHaplotypeLength).toArray();
+        final int[]     maxReadLength = jobs.stream().mapToInt(Job::maxReadLength).toArray();
+        final int[]     order = IntStream.range(0, jobs.size()).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> maxHaplotypeLength[i])
+                        .thenComparingInt(i -> maxReadLength[i])
+                        .reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        // execute, placing results at their job's index
+        final AlleleLikelihoods<GATKRead, Haplotype>[] results = newResultsArray(jobs.size());
+        final IntConsumer align = index -> {
+            final Job job = jobs.get(index);
+            results[index] = engine.computeReadLikelihoods(job.haplotypes, job.header, samples, job.perSampleReadList,
+                    filterPoorly, normalizeLikelihoods);
+        };
+        if ( threadPool != null && jobs.size() > 1 ) {
+            try {
+                threadPool.submit(() -> Arrays.stream(order).parallel().forEach(align)).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new GATKException("failed to compute read likelihoods", e);
+            }
+        } else {
+            Arrays.stream(order).forEach(align);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AlleleLikelihoods<GATKRead, Haplotype>[] newResultsArray(final int size) {
+        return (AlleleLikelihoods<GATKRead, Haplotype>[]) new AlleleLikelihoods<?, ?>[size];
+    }
+
+    @Override
+    public void close() {
+        if ( threadPool != null ) {
+            threadPool.shutdown();
+        }
+    }
+}
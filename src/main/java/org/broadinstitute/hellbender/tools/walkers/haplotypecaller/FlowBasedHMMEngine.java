@@ -37,7 +37,9 @@ public class FlowBasedHMMEngine implements ReadLikelihoodCalculationEngine {
     @VisibleForTesting
     public static final double INITIAL_QSCORE = 40.0;
 
-    private final FlowBasedPairHMM flowPairHMM;
+    // the flow pairHMM holds per-instance matrices, hence an instance is kept per thread. Reusing the instance
+    // (rather than re-initializing it on every call) allows its matrices to be reused across calls
+    private final ThreadLocal<FlowBasedPairHMM> flowPairHMM = ThreadLocal.withInitial(FlowBasedPairHMM::new);
 
     public static final byte MIN_USABLE_Q_SCORE_DEFAULT = 6;
     private static final int MIN_ADJUSTED_QSCORE = 10;
@@ -67,7 +69,6 @@ public class FlowBasedHMMEngine implements ReadLikelihoodCalculationEngine {
         this.readDisqualificationScale = readDisqualificationScale;
         this.dynamicReadDisqualification = dynamicReadDisqualification;
         this.pcrErrorModel = pcrErrorModel;
-        this.flowPairHMM = new FlowBasedPairHMM();
         this.dragstrParams = dragstrParams;
         this.constantGCP = constantGCP;
         this.flatDeletionPenalty = flatDeletionPenalty;
@@ -90,7 +91,10 @@ public class FlowBasedHMMEngine implements ReadLikelihoodCalculationEngine {
         return computeReadLikelihoods(haplotypeList, hdr, samples, perSampleReadList, filterPoorly, true);
     }
 
-
+    /**
+     * Compute read likelihoods. This method may be called concurrently from multiple threads
+     * (see {@link FlowBasedHMMBatchAligner}), each using its own flow pairHMM.
+     */
     public AlleleLikelihoods<GATKRead, Haplotype> computeReadLikelihoods(final List<Haplotype> haplotypeList,
                                                                          final SAMFileHeader hdr,
                                                                          final SampleList samples,
@@ -190,24 +194,6 @@ public class FlowBasedHMMEngine implements ReadLikelihoodCalculationEngine {
         return (byte) Math.max(minUsableIndelScoreToUse, MathUtils.fastRound(INITIAL_QSCORE - Math.exp(repeatLength / (rateFactor * Math.PI)) + 1.0));
     }
 
-    /**
-     * Initialize our flowPairHMM with parameters appropriate to the haplotypes and reads we're going to evaluate
-     *
-     * After calling this routine the PairHMM will be configured to best evaluate all reads in the samples
-     * against the set of haplotypes
-     *  @param haplotypes a non-null list of haplotypes
-     * @param perSampleReadList a mapping from sample -> reads
-     */
-    private void initializeFlowPairHMM(final List<FlowBasedHaplotype> haplotypes, final List<FlowBasedRead> perSampleReadList) {
-        initializePCRErrorModel();
-
-        final int readMaxLength = perSampleReadList.stream().mapToInt(FlowBasedRead::getKeyLength).max().orElse(0);
-        final int haplotypeMaxLength = haplotypes.stream().mapToInt(h -> h.getKeyLength()).max().orElse(0);
-
-        // initialize arrays to hold the probabilities of being in the match, insertion and deletion cases
-        flowPairHMM.initialize(readMaxLength, haplotypeMaxLength);;
-    }
-
     /**
      * Compute read likelihoods for a single sample
      * @param likelihoods Single sample likelihood matrix
@@ -258,10 +244,8 @@ public class FlowBasedHMMEngine implements ReadLikelihoodCalculationEngine {
             processedHaplotypes.add(fbh);
         }
 
-        initializeFlowPairHMM(processedHaplotypes, processedReads);
-
-
-        flowPairHMM.computeLog10LikelihoodsFlowBased(likelihoods, processedReads, processedHaplotypes);
+        // the pairHMM (re)allocates its matrices only when they are too small for the given reads and haplotypes
+        flowPairHMM.get().computeLog10LikelihoodsFlowBased(likelihoods, processedReads, processedHaplotypes);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
 
+import htsjdk.samtools.Cigar;
 import htsjdk.samtools.CigarElement;
 import htsjdk.samtools.CigarOperator;
 import htsjdk.samtools.util.CollectionUtil;
@@ -49,6 +50,10 @@ import java.util.*;
  *
  * To uncollapse a set of haplotypes, use {@link #uncollapseHmersInHaplotypes(Collection, boolean, byte[])}.
  *
+ * Haplotypes are examined in their run-length encoded form (see {@link RunLengthEncodedBases}). A haplotype which is
+ * simply the collapsed form of the reference it is located on (the common case) is uncollapsed in O(runs), directly
+ * from the reference, without having to realign it.
+ *
  */
 public class LongHomopolymerHaplotypeCollapsingEngine {
 
@@ -142,8 +147,9 @@ public class LongHomopolymerHaplotypeCollapsingEngine {
     public static Map<Haplotype, List<Haplotype>> identicalBySequence(final List<Haplotype> haplotypes) {
 
         // create a map where each node's value contains a list of haplotypes with an identical sequence
-        final Map<String, List<Haplotype>> sequenceMap = new LinkedHashMap<>();
-        haplotypes.forEach(h -> sequenceMap.computeIfAbsent(h.getBaseString(), k -> new LinkedList<>()).add(h));
+        // (sequences are keyed by their run-length encoding, which carries a precomputed hash)
+        final Map<RunLengthEncodedBases, List<Haplotype>> sequenceMap = new LinkedHashMap<>();
+        haplotypes.forEach(h -> sequenceMap.computeIfAbsent(RunLengthEncodedBases.encode(h.getBases()), k -> new LinkedList<>()).add(h));
 
         // create a map where each node's key is a haplotype and the value is the list of all haplotypes (incl self) with same sequence
         final LinkedHashMap<Haplotype, List<Haplotype>> result = new LinkedHashMap<>();
@@ -184,7 +190,7 @@ public class LongHomopolymerHaplotypeCollapsingEngine {
     public List<Haplotype> uncollapseHmersInHaplotypes(final Collection<Haplotype> haplotypes, final boolean limitToHmerSizeThreshold, final byte[] refBasesArg) {
 
         final List<Haplotype>       result = new LinkedList<>();
-        final Map<Locatable, byte[]> refMap = new LinkedHashMap<>();
+        final Map<Locatable, RunLengthEncodedBases> refMap = new LinkedHashMap<>();
         int                         alignmentStartHapwrtRef = 0;
         byte[]                      refBases = refBasesArg;
 
@@ -196,11 +202,7 @@ public class LongHomopolymerHaplotypeCollapsingEngine {
                     alignmentStartHapwrtRef = h.getAlignmentStartHapwrtRef();
                 }
             } else {
-                byte[] ref = refMap.get(h.getGenomeLocation());
-                if ( ref == null ) {
-                    ref = uncollapsedPartialRef(h.getGenomeLocation());
-                    refMap.put(h.getGenomeLocation(), ref);
-                }
+                refMap.computeIfAbsent(h.getGenomeLocation(), loc -> RunLengthEncodedBases.encode(uncollapsedPartialRef(loc)));
             }
         }
 
@@ -214,7 +216,11 @@ public class LongHomopolymerHaplotypeCollapsingEngine {
         // if we had a reference, generate cigar against it
         if ( refBases != null ) {
             for ( Haplotype h : result ) {
-                if ( !h.isReference() ) {
+                if ( !h.isReference() && Arrays.equals(refBases, h.getBases()) ) {
+                    // identical to the reference, no need to align
+                    h.setCigar(new Cigar(Collections.singletonList(new CigarElement(refBases.length, CigarOperator.M))));
+                    h.setAlignmentStartHapwrtRef(alignmentStartHapwrtRef);
+                } else if ( !h.isReference() ) {
                     final SmithWatermanAlignment alignment = aligner.align(refBases, h.getBases(),
                             alignmentParameters, SWOverhangStrategy.INDEL);
                     h.setCigar(alignment.getCigar());
@@ -226,22 +232,22 @@ public class LongHomopolymerHaplotypeCollapsingEngine {
         return result;
     }
 
-    private Haplotype uncollapseSingleHaplotype(final Haplotype h, final boolean limitToHmerSizeThreshold, final Map<Locatable, byte[]> refMap) {
+    private Haplotype uncollapseSingleHaplotype(final Haplotype h, final boolean limitToHmerSizeThreshold, final Map<Locatable, RunLengthEncodedBases> refMap) {
 
         if ( !h.isReference() ) {
 
             // find ref for this location
-            byte[] ref = refMap.get(h.getGenomeLocation());
-            if ( ref == null ) {
-                ref = uncollapsedPartialRef(h.getGenomeLocation());
-                refMap.put(h.getGenomeLocation(), ref);
+            final RunLengthEncodedBases refRuns = refMap.computeIfAbsent(h.getGenomeLocation(), loc -> RunLengthEncodedBases.encode(uncollapsedPartialRef(loc)));
+
+            // uncollapse haplotype. if not simply a collapsed form of the ref, align and select direction producing a stronger/longer result
+            UncollapseResult            result = uncollapseByRuns(h.getBases(), refRuns);
+            if ( result == null ) {
+                final byte[]            ref = refRuns.decode();
+                final UncollapseResult  resultFwd = uncollapseByRef(h.getBases(), ref, false);
+                final UncollapseResult  resultRev = uncollapseByRef(h.getBases(), ref, true);
+                result = (resultRev.bases.length > resultFwd.bases.length) ? resultRev : resultFwd;
             }
 
-            // uncollapse haplotype, select direction producing a stronger/longer result
-            final UncollapseResult      resultFwd = uncollapseByRef(h.getBases(), ref, false);
-            final UncollapseResult      resultRev = uncollapseByRef(h.getBases(), ref, true);
-            final UncollapseResult      result = (resultRev.bases.length > resultFwd.bases.length) ? resultRev : resultFwd;
-
             // limit?
             if ( limitToHmerSizeThreshold ) {
                 result.bases = collapseBases(result.bases);
@@ -263,39 +269,50 @@ public class LongHomopolymerHaplotypeCollapsingEngine {
 
     private byte[] collapseBases(final byte[] fullBases) {
 
-        // collapsed sequence would not be longer than full sequence
-        final byte[]          collapsedBases = new byte[fullBases.length];
+        // limit all homopolymers (other than the first) to the threshold
+        final RunLengthEncodedBases     collapsed = RunLengthEncodedBases.encode(fullBases).collapse(hmerSizeThreshold);
+        return (collapsed.getLength() == fullBases.length) ? fullBases : collapsed.decode();
+    }
 
-        // loop while trimming
-        byte    lastBase = 0;
-        int     baseSameCount = 0;
-        int     dstOfs = 0;
-        boolean firstHomopolymer = true;
-        for  ( byte base : fullBases ) {
-            if ( base == lastBase ) {
-                baseSameCount++;
-                if ( !firstHomopolymer && (baseSameCount >= hmerSizeThreshold) ) {
-                    // collapsing, do not store
-                } else {
-                    // stable but under threshold, store
-                    collapsedBases[dstOfs++] = base;
-                }
-            } else {
-                // unstable, simply store
-                if ( lastBase != 0 ) {
-                    firstHomopolymer = false;
-                }
-                lastBase = base;
-                baseSameCount = 0;
+    /*
+     * uncollapse a haplotype directly from its reference, without alignment. This is possible when the haplotype is the
+     * collapsed form of the reference: both consist of the same homopolymers, with haplotype homopolymers being either of
+     * the reference length or limited to the threshold where the reference homopolymer is longer than it. Homopolymers at
+     * the edges of the haplotype must be of the reference length, as these can not be reliably uncollapsed.
+     *
+     * returns null if the haplotype is not a collapsed form of the reference (i.e. contains an actual variation).
+     */
+    private UncollapseResult uncollapseByRuns(final byte[] bases, final RunLengthEncodedBases refRuns) {
+
+        final RunLengthEncodedBases     runs = RunLengthEncodedBases.encode(bases);
+        final int                       runCount = runs.getRunCount();
+        if ( runCount != refRuns.getRunCount() ) {
+            return null;
+        }
 
-                collapsedBases[dstOfs++] = base;
+        boolean     collapsed = false;
+        for ( int run = 0 ; run < runCount ; run++ ) {
+            if ( runs.getRunBase(run) != refRuns.getRunBase(run) ) {
+                return null;
+            }
+            final int       length = runs.getRunLength(run);
+            final int       refLength = refRuns.getRunLength(run);
+            if ( length != refLength ) {
+                if ( run == 0 || run == (runCount - 1) || length != hmerSizeThreshold || refLength < hmerSizeThreshold ) {
+                    return null;
+                }
+                collapsed = true;
             }
         }
 
-        // adjust size of collapsedBases
-        // not very efficient as it allocates copies the data.
-        // do we really need the array to be the right size?
-        return Arrays.copyOf(collapsedBases, dstOfs);
+        final UncollapseResult          uncollapseResult = new UncollapseResult();
+        uncollapseResult.bases = collapsed ? refRuns.decode() : bases;
+        uncollapseResult.collapsed = collapsed;
+        if ( debug ) {
+            logger.info("uncollapseByRuns: collapsed: " + collapsed + ", result:");
+            logger.info(new String(uncollapseResult.bases));
+        }
+        return uncollapseResult;
     }
 
     private byte[] uncollapsedPartialRef(final Locatable ucLoc) {
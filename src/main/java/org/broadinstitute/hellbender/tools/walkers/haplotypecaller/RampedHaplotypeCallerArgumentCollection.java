@@ -3,6 +3,7 @@ package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
 import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.Hidden;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ramps.RampBase;
 
 public class RampedHaplotypeCallerArgumentCollection {
 
@@ -15,6 +16,7 @@ public class RampedHaplotypeCallerArgumentCollection {
      */
     public final String OFF_RAMP_TYPE = "off-ramp-type";
     public final String OFF_RAMP_FILE = "off-ramp-file";
+    public final String OFF_RAMP_FORMAT = "off-ramp-format";
     public final String ON_RAMP_TYPE = "on-ramp-type";
     public final String ON_RAMP_FILE = "on-ramp-file";
 
@@ -62,6 +64,16 @@ public class RampedHaplotypeCallerArgumentCollection {
     @Argument(fullName = OFF_RAMP_FILE, doc = "ramps: File to use for writing the off-ramp", optional=true)
     public String offRampFile=null;
 
+    /**
+     * Off ramp files are written as zip files by default. The INDEXED format stores an index of the region entries,
+     * allowing on ramps to random access (memory mapped) region state without scanning the file. On ramps detect the
+     * format of their file automatically.
+     */
+    @Advanced
+    @Hidden
+    @Argument(fullName = OFF_RAMP_FORMAT, doc = "ramps: Format of the off-ramp file (ZIP or INDEXED)", optional=true)
+    public RampBase.Format offRampFormat = RampBase.Format.ZIP;
+
     @Advanced
     @Hidden
     @Argument(fullName = ON_RAMP_TYPE, doc = "ramp: Type of on-ramp, i.e. step in haplotype-caller where the process should be restored from using a given state file", optional=true)
@@ -94,13 +94,13 @@ public class RampedHaplotypeCallerEngine extends HaplotypeCallerEngine {
                     case NONE:
                         break;
                     case PRE_FILTER_OFF:
-                        preFilterOffRamp = new PreFilterOffRamp(rpArgs.offRampFile);
+                        preFilterOffRamp = new PreFilterOffRamp(rpArgs.offRampFile, rpArgs.offRampFormat);
                         break;
                     case POST_ASSEMBLER_OFF:
-                        postAssemblerOffRamp = new AssemblerOffRamp(rpArgs.offRampFile);
+                        postAssemblerOffRamp = new AssemblerOffRamp(rpArgs.offRampFile, rpArgs.offRampFormat);
                         break;
                     case PRE_ASSEMBLER_OFF:
-                        preAssemblerOffRamp = new AssemblerOffRamp(rpArgs.offRampFile);
+                        preAssemblerOffRamp = new AssemblerOffRamp(rpArgs.offRampFile, rpArgs.offRampFormat);
                         break;
                 }
             }
@@ -58,6 +58,7 @@ public class ReferenceConfidenceModel {
     // these are filled only when the softclipping is being reversed
     public static final String ORIGINAL_SOFTCLIP_START_TAG = "os";
     public static final String ORIGINAL_SOFTCLIP_END_TAG = "oe";
+    private static final String ORIGINAL_SOFTCLIP_BOUNDS_CACHE_ATTRIBUTE_NAME = "OSB";
 
     private final SampleList samples;
     private final int indelInformativeDepthIndelSize;
@@ -119,6 +120,13 @@ public class ReferenceConfidenceModel {
     private static final double INDEL_LIKELIHOOD = QualityUtils.qualToErrorProbLog10(INDEL_QUAL);
     private static final int IDX_HOM_REF = 0;
 
+    /**
+     * Per ploidy (null if not yet needed): the genotype likelihood contributions of a pileup element of each
+     * quality (0 to {@link Byte#MAX_VALUE}) supporting the reference or not, see {@link #getRefVsNonRefLikelihoodContributions}.
+     * These only depend on the quality, so they are computed once rather than for every base of every read.
+     */
+    private double[][] refVsNonRefLikelihoodContributions = new double[INITIAL_INDEL_LK_CACHE_PLOIDY_CAPACITY + 1][];
+
     /**
      * Options related to posterior probability calcs
      */
@@ -260,6 +268,9 @@ public class ReferenceConfidenceModel {
             readLikelihoods.sampleEvidence(0).forEach(r -> r.clearTransientAttribute(INDEL_INFORMATIVE_BASES_CACHE_ATTRIBUTE_NAME));
 
         }
+        if (!useSoftClippedBases) {
+            readLikelihoods.sampleEvidence(0).forEach(r -> r.clearTransientAttribute(ORIGINAL_SOFTCLIP_BOUNDS_CACHE_ATTRIBUTE_NAME));
+        }
 
         return results;
     }
@@ -405,6 +416,7 @@ public class ReferenceConfidenceModel {
 
         final int likelihoodCount = ploidy + 1;
         final double log10Ploidy = Math.log10(ploidy);
+        final double[] likelihoodContributions = getRefVsNonRefLikelihoodContributions(ploidy);
 
         final RefVsAnyResult result = new RefVsAnyResult(likelihoodCount);
         int readCount = 0;
@@ -420,13 +432,14 @@ public class ReferenceConfidenceModel {
             if (!useSoftClippedBases && readsWereRealigned){
                 int loc = pileup.getLocation().getStart();
                 //skip bases that were originally softclipped
-                if ((getOriginalSoftStart(p.getRead()) > loc) || (getOriginalSoftEnd(p.getRead()) < loc)){
+                final int[] originalSoftBounds = getOriginalSoftBounds(p.getRead());
+                if ((originalSoftBounds[0] > loc) || (originalSoftBounds[1] < loc)){
                     continue;
                 }
             }
 
             readCount++;
-            applyPileupElementRefVsNonRefLikelihoodAndCount(refBase, likelihoodCount, log10Ploidy, result, p, qual, hqSoftClips, readsWereRealigned);
+            applyPileupElementRefVsNonRefLikelihoodAndCount(refBase, likelihoodCount, log10Ploidy, likelihoodContributions, result, p, qual, hqSoftClips, readsWereRealigned);
         }
         final double denominator = readCount * log10Ploidy;
         for (int i = 0; i < likelihoodCount; i++) {
@@ -435,6 +448,19 @@ public class ReferenceConfidenceModel {
         return result;
     }
 
+    /**
+     * @return the original soft start and end of a read, cached in a transient attribute of the read since they are
+     * needed at every position the read covers (the cache is cleared at the end of {@link #calculateRefConfidence})
+     */
+    private int[] getOriginalSoftBounds(final GATKRead read) {
+        int[] bounds = (int[]) read.getTransientAttribute(ORIGINAL_SOFTCLIP_BOUNDS_CACHE_ATTRIBUTE_NAME);
+        if (bounds == null) {
+            bounds = new int[] {getOriginalSoftStart(read), getOriginalSoftEnd(read)};
+            read.setTransientAttribute(ORIGINAL_SOFTCLIP_BOUNDS_CACHE_ATTRIBUTE_NAME, bounds);
+        }
+        return bounds;
+    }
+
     private int getOriginalSoftStart(GATKRead read) {
         if (!read.hasAttribute(ORIGINAL_SOFTCLIP_START_TAG)){
             throw new GATKException("Attempt to read soft clip start that was not saved");
@@ -470,32 +496,86 @@ public class ReferenceConfidenceModel {
         return refModelDeletionQuality;
     }
 
-    private void applyPileupElementRefVsNonRefLikelihoodAndCount(final byte refBase, final int likelihoodCount, final double log10Ploidy, final RefVsAnyResult result, final PileupElement element, final byte qual, final MathUtils.RunningAverage hqSoftClips, final boolean readsWereRealigned) {
+    private void applyPileupElementRefVsNonRefLikelihoodAndCount(final byte refBase, final int likelihoodCount, final double log10Ploidy, final double[] likelihoodContributions, final RefVsAnyResult result, final PileupElement element, final byte qual, final MathUtils.RunningAverage hqSoftClips, final boolean readsWereRealigned) {
         final boolean isAlt = readsWereRealigned ? isAltAfterAssembly(element, refBase) : isAltBeforeAssembly(element, refBase);
+        if (isAlt) {
+            result.nonRefDepth++;
+        } else {
+            result.refDepth++;
+        }
+
+        if (qual >= 0) {
+            final int offset = ((qual << 1) | (isAlt ? 1 : 0)) * likelihoodCount;
+            for (int i = 0; i < likelihoodCount; i++) {
+                result.genotypeLikelihoods[i] += likelihoodContributions[offset + i];
+            }
+        } else {
+            final double[] contributions = new double[likelihoodCount];
+            computeRefVsNonRefLikelihoodContributions(qual, isAlt, likelihoodCount, log10Ploidy, contributions, 0);
+            for (int i = 0; i < likelihoodCount; i++) {
+                result.genotypeLikelihoods[i] += contributions[i];
+            }
+        }
+        if (isAlt && hqSoftClips != null && element.isNextToSoftClip()) {
+            hqSoftClips.add(AlignmentUtils.countHighQualitySoftClips(element.getRead(), HQ_BASE_QUALITY_SOFTCLIP_THRESHOLD));
+        }
+    }
+
+    /**
+     * @return the likelihood contributions of a pileup element for a ploidy, the {@code likelihoodCount = ploidy + 1}
+     * contributions of an element of quality q supporting the reference (isAlt = 0) or not (isAlt = 1) starting at
+     * offset {@code ((q << 1) | isAlt) * likelihoodCount}
+     */
+    private double[] getRefVsNonRefLikelihoodContributions(final int ploidy) {
+        if (refVsNonRefLikelihoodContributions.length <= ploidy) {
+            refVsNonRefLikelihoodContributions = Arrays.copyOf(refVsNonRefLikelihoodContributions, ploidy << 1);
+        }
+
+        if (refVsNonRefLikelihoodContributions[ploidy] != null) {
+            return refVsNonRefLikelihoodContributions[ploidy];
+        }
+
+        final int likelihoodCount = ploidy + 1;
+        final double log10Ploidy = Math.log10(ploidy);
+        final double[] result = new double[(Byte.MAX_VALUE + 1) * 2 * likelihoodCount];
+        for (int qual = 0; qual <= Byte.MAX_VALUE; qual++) {
+            computeRefVsNonRefLikelihoodContributions((byte) qual, false, likelihoodCount, log10Ploidy, result, (qual << 1) * likelihoodCount);
+            computeRefVsNonRefLikelihoodContributions((byte) qual, true, likelihoodCount, log10Ploidy, result, ((qual << 1) | 1) * likelihoodCount);
+        }
+        refVsNonRefLikelihoodContributions[ploidy] = result;
+        return result;
+    }
+
+    /**
+     * Compute the amounts added to the genotype likelihoods of a sample by a pileup element
+     *
+     * @param qual the quality of the element
+     * @param isAlt whether the element supports a non-ref allele
+     * @param likelihoodCount number of genotypes, i.e. ploidy + 1
+     * @param log10Ploidy log10 of the ploidy
+     * @param dest array where to store the {@code likelihoodCount} contributions
+     * @param offset offset in {@code dest} of the first contribution
+     */
+    private static void computeRefVsNonRefLikelihoodContributions(final byte qual, final boolean isAlt, final int likelihoodCount,
+                                                                  final double log10Ploidy, final double[] dest, final int offset) {
         final double referenceLikelihood;
         final double nonRefLikelihood;
         if (isAlt) {
             nonRefLikelihood = QualityUtils.qualToProbLog10(qual);
             referenceLikelihood = QualityUtils.qualToErrorProbLog10(qual) + MathUtils.LOG10_ONE_THIRD;
-            result.nonRefDepth++;
         } else {
             referenceLikelihood = QualityUtils.qualToProbLog10(qual);
             nonRefLikelihood = QualityUtils.qualToErrorProbLog10(qual) + MathUtils.LOG10_ONE_THIRD;
-            result.refDepth++;
         }
 
         // Homozygous likelihoods don't need the logSum trick.
-        result.genotypeLikelihoods[0] += referenceLikelihood + log10Ploidy;
-        result.genotypeLikelihoods[likelihoodCount - 1] += nonRefLikelihood + log10Ploidy;
+        dest[offset] = referenceLikelihood + log10Ploidy;
+        dest[offset + likelihoodCount - 1] = nonRefLikelihood + log10Ploidy;
         // Heterozygous likelihoods need the logSum trick:
         for (int i = 1, j = likelihoodCount - 2; i < likelihoodCount - 1; i++, j--) {
-            result.genotypeLikelihoods[i] +=
-                    MathUtils.approximateLog10SumLog10(
-                            referenceLikelihood + Math.log10(j),
-                            nonRefLikelihood + Math.log10(i));
-        }
-        if (isAlt && hqSoftClips != null && element.isNextToSoftClip()) {
-            hqSoftClips.add(AlignmentUtils.countHighQualitySoftClips(element.getRead(), HQ_BASE_QUALITY_SOFTCLIP_THRESHOLD));
+            dest[offset + i] = MathUtils.approximateLog10SumLog10(
+                    referenceLikelihood + Math.log10(j),
+                    nonRefLikelihood + Math.log10(i));
         }
     }
 
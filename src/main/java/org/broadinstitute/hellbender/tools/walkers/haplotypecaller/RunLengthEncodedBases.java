@@ -0,0 +1,164 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
+
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.Arrays;
+
+/**
+ * A run-length encoded (homopolymer level) view of a sequence of bases.
+ *
+ * The encoding holds one entry per homopolymer (run), consisting of its base and its length. It is used by
+ * {@link LongHomopolymerHaplotypeCollapsingEngine} to collapse and compare haplotypes in O(runs) rather than
+ * operating (and aligning) on individual bases.
+ *
+ * The hash code of an encoding is computed once upon construction and is identical to {@link Arrays#hashCode(byte[])}
+ * of the encoded bases, so it can be used for fast sequence identity checks.
+ */
+public final class RunLengthEncodedBases {
+
+    private final byte[]    runBases;
+    private final int[]     runLengths;
+    private final int       runCount;
+    private final int       length;
+    private final int       hash;
+
+    private RunLengthEncodedBases(final byte[] runBases, final int[] runLengths, final int runCount, final int length, final int hash) {
+        this.runBases = runBases;
+        this.runLengths = runLengths;
+        this.runCount = runCount;
+        this.length = length;
+        this.hash = hash;
+    }
+
+    /**
+     * Encode a sequence of bases
+     *
+     * @param bases - bases to encode
+     * @return - run-length encoding of the bases
+     */
+    public static RunLengthEncodedBases encode(final byte[] bases) {
+        Utils.nonNull(bases);
+
+        // count runs first, so that arrays are allocated at their exact size
+        int     runCount = 0;
+        for ( int i = 0 ; i < bases.length ; i++ ) {
+            if ( i == 0 || bases[i] != bases[i - 1] ) {
+                runCount++;
+            }
+        }
+
+        // fill runs and compute hash on the way
+        final byte[]    runBases = new byte[runCount];
+        final int[]     runLengths = new int[runCount];
+        int             run = -1;
+        int             hash = 1;
+        for ( int i = 0 ; i < bases.length ; i++ ) {
+            if ( i == 0 || bases[i] != bases[i - 1] ) {
+                runBases[++run] = bases[i];
+            }
+            runLengths[run]++;
+            hash = 31 * hash + bases[i];
+        }
+
+        return new RunLengthEncodedBases(runBases, runLengths, runCount, bases.length, hash);
+    }
+
+    /**
+     * Collapse the encoded sequence by limiting the length of its homopolymers to a given threshold. The first
+     * homopolymer is never limited.
+     *
+     * See {@link LongHomopolymerHaplotypeCollapsingEngine} for a description of the semantics of collapsing.
+     *
+     * @param hmerSizeThreshold - maximal length of a (non-first) homopolymer
+     * @return - collapsed encoding (might be this instance, if there is nothing to collapse)
+     */
+    public RunLengthEncodedBases collapse(final int hmerSizeThreshold) {
+
+        // find first run to collapse, most sequences do not require collapsing
+        int     firstRun = 1;
+        while ( firstRun < runCount && runLengths[firstRun] <= hmerSizeThreshold ) {
+            firstRun++;
+        }
+        if ( firstRun >= runCount ) {
+            return this;
+        }
+
+        // limit lengths, recompute length and hash
+        final int[]     collapsedLengths = Arrays.copyOf(runLengths, runCount);
+        int             collapsedLength = 0;
+        int             hash = 1;
+        for ( int run = 0 ; run < runCount ; run++ ) {
+            if ( run >= firstRun ) {
+                collapsedLengths[run] = Math.min(collapsedLengths[run], hmerSizeThreshold);
+            }
+            collapsedLength += collapsedLengths[run];
+            for ( int i = 0 ; i < collapsedLengths[run] ; i++ ) {
+                hash = 31 * hash + runBases[run];
+            }
+        }
+
+        return new RunLengthEncodedBases(runBases, collapsedLengths, runCount, collapsedLength, hash);
+    }
+
+    /**
+     * @return - the bases represented by this encoding
+     */
+    public byte[] decode() {
+        final byte[]    bases = new byte[length];
+        int             ofs = 0;
+        for ( int run = 0 ; run < runCount ; run++ ) {
+            Arrays.fill(bases, ofs, ofs + runLengths[run], runBases[run]);
+            ofs += runLengths[run];
+        }
+        return bases;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public byte getRunBase(final int run) {
+        return runBases[run];
+    }
+
+    public int getRunLength(final int run) {
+        return runLengths[run];
+    }
+
+    /**
+     * @return - the number of bases represented by this encoding
+     */
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( !(o instanceof RunLengthEncodedBases) ) {
+            return false;
+        }
+        final RunLengthEncodedBases other = (RunLengthEncodedBases)o;
+        if ( hash != other.hash || length != other.length || runCount != other.runCount ) {
+            return false;
+        }
+        for ( int run = 0 ; run < runCount ; run++ ) {
+            if ( runBases[run] != other.runBases[run] || runLengths[run] != other.runLengths[run] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return new String(decode());
+    }
+}
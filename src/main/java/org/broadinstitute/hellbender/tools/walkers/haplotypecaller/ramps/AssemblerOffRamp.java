@@ -20,6 +20,10 @@ public class AssemblerOffRamp extends OffRampBase {
         super(filename);
     }
 
+    public AssemblerOffRamp(final String filename, final Format format) throws IOException {
+        super(filename, format);
+    }
+
     @Override
     public void close() throws IOException {
         if ( haplotypeBAMWriter != null ) {
@@ -0,0 +1,275 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ramps;
+
+import htsjdk.samtools.seekablestream.SeekableStream;
+import org.apache.commons.io.IOUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An indexed ramp archive: a container of named entries (payloads), along with an index locating each entry.
+ *
+ * Unlike a zip archive, entries are stored uncompressed (their content, such as BAM files, is typically compressed
+ * already) and are located through an index stored at the end of the file. On read, the index is loaded once and
+ * entries are memory mapped on access, so that an on-ramp can random access the state of any region without
+ * scanning the archive.
+ *
+ * File layout:
+ * <pre>
+ *     magic (8 bytes)
+ *     entry payloads (concatenated)
+ *     index: entry count (int), followed by each entry's name (int length + utf-8 bytes), offset (long) and length (long)
+ *     index offset (long)
+ *     magic (8 bytes)
+ * </pre>
+ */
+public final class IndexedRampArchive {
+
+    private static final byte[]     MAGIC = "GATKRMP1".getBytes(StandardCharsets.US_ASCII);
+    private static final int        TRAILER_SIZE = Long.BYTES + MAGIC.length;
+
+    private IndexedRampArchive() {
+    }
+
+    /**
+     * @return - does the given file start with the indexed ramp archive magic?
+     */
+    public static boolean isIndexedRampArchive(final File file) throws IOException {
+        if ( file.length() < MAGIC.length + TRAILER_SIZE ) {
+            return false;
+        }
+        try ( final InputStream is = new FileInputStream(file) ) {
+            final byte[]    magic = new byte[MAGIC.length];
+            return IOUtils.read(is, magic) == magic.length && Arrays.equals(magic, MAGIC);
+        }
+    }
+
+    /**
+     * Sequentially writes entries into an archive. The index is written upon close.
+     */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream          os;
+        private final Map<String, long[]>       index = new LinkedHashMap<>();
+        private long                            offset;
+
+        public Writer(final File file) throws IOException {
+            os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            os.write(MAGIC);
+            offset = MAGIC.length;
+        }
+
+        public void addEntry(final String name, final byte[] bytes) throws IOException {
+            startEntry(name);
+            os.write(bytes);
+            endEntry(name, bytes.length);
+        }
+
+        public void addEntry(final String name, final Path path) throws IOException {
+            startEntry(name);
+            final long  length;
+            try ( final InputStream is = new FileInputStream(path.toFile()) ) {
+                length = IOUtils.copyLarge(is, os);
+            }
+            endEntry(name, length);
+        }
+
+        private void startEntry(final String name) throws IOException {
+            if ( index.containsKey(name) ) {
+                throw new IOException("duplicate ramp entry: " + name);
+            }
+        }
+
+        private void endEntry(final String name, final long length) throws IOException {
+            if ( length > Integer.MAX_VALUE ) {
+                throw new IOException("ramp entry too large to be mapped: " + name + ", " + length + " bytes");
+            }
+            index.put(name, new long[] {offset, length});
+            offset += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            // write index, followed by the trailer
+            final long  indexOffset = offset;
+            os.writeInt(index.size());
+            for ( final Map.Entry<String, long[]> entry : index.entrySet() ) {
+                final byte[]    name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                os.writeInt(name.length);
+                os.write(name);
+                os.writeLong(entry.getValue()[0]);
+                os.writeLong(entry.getValue()[1]);
+            }
+            os.writeLong(indexOffset);
+            os.write(MAGIC);
+            os.close();
+        }
+    }
+
+    /**
+     * Random access reader of an archive. Entries are memory mapped on access. Access is thread safe.
+     */
+    public static final class Reader implements Closeable {
+
+        private final File                      file;
+        private final FileChannel               channel;
+        private final Map<String, long[]>       index = new LinkedHashMap<>();
+
+        public Reader(final File file) throws IOException {
+            this.file = file;
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+            // locate index through the trailer
+            final long              size = channel.size();
+            final ByteBuffer        trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_SIZE, TRAILER_SIZE);
+            final long              indexOffset = trailer.getLong();
+            final byte[]            magic = new byte[MAGIC.length];
+            trailer.get(magic);
+            if ( !Arrays.equals(magic, MAGIC) || indexOffset < MAGIC.length || indexOffset > size - TRAILER_SIZE ) {
+                channel.close();
+                throw new IOException("not a valid indexed ramp archive (truncated?): " + file);
+            }
+
+            // read index
+            final ByteBuffer        buffer = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, size - TRAILER_SIZE - indexOffset);
+            final int               count = buffer.getInt();
+            for ( int i = 0 ; i < count ; i++ ) {
+                final byte[]        name = new byte[buffer.getInt()];
+                buffer.get(name);
+                index.put(new String(name, StandardCharsets.UTF_8), new long[] {buffer.getLong(), buffer.getLong()});
+            }
+        }
+
+        public boolean hasEntry(final String name) {
+            return index.containsKey(name);
+        }
+
+        /**
+         * @return - a (read only) buffer mapping the content of an entry
+         */
+        public ByteBuffer getEntryBuffer(final String name) throws IOException {
+            final long[]    location = index.get(name);
+            if ( location == null ) {
+                throw new IOException("no such: " + name);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, location[0], location[1]);
+        }
+
+        public InputStream getEntry(final String name) throws IOException {
+            return new ByteBufferInputStream(getEntryBuffer(name));
+        }
+
+        /**
+         * @return - a seekable stream over the content of an entry, suitable for opening embedded (indexed) BAM files
+         */
+        public SeekableStream getSeekableEntry(final String name) throws IOException {
+            return new ByteBufferSeekableStream(getEntryBuffer(name), file + "/" + name);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer    buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if ( len == 0 ) {
+                return 0;
+            }
+            if ( !buffer.hasRemaining() ) {
+                return -1;
+            }
+            final int   count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static final class ByteBufferSeekableStream extends SeekableStream {
+
+        private final ByteBuffer    buffer;
+        private final String        source;
+
+        ByteBufferSeekableStream(final ByteBuffer buffer, final String source) {
+            this.buffer = buffer;
+            this.source = source;
+        }
+
+        @Override
+        public long length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public long position() {
+            return buffer.position();
+        }
+
+        @Override
+        public void seek(final long position) throws IOException {
+            if ( position < 0 || position > buffer.limit() ) {
+                throw new EOFException("seek position " + position + " out of range for " + source);
+            }
+            buffer.position((int)position);
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if ( len == 0 ) {
+                return 0;
+            }
+            if ( !buffer.hasRemaining() ) {
+                return -1;
+            }
+            final int   count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public boolean eof() {
+            return !buffer.hasRemaining();
+        }
+
+        @Override
+        public String getSource() {
+            return source;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
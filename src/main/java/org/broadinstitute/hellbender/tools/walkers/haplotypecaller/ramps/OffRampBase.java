@@ -14,14 +14,26 @@ import java.util.zip.ZipOutputStream;
 
 public abstract class OffRampBase extends RampBase {
 
+    // one of these is used for writing, depending on the format
     final protected ZipOutputStream outputZip;
+    final protected IndexedRampArchive.Writer outputArchive;
 
     public OffRampBase(final String filename) throws IOException {
+        this(filename, Format.ZIP);
+    }
+
+    public OffRampBase(final String filename, final Format format) throws IOException {
         super(filename, Type.OffRamp);
 
-        // open zip for writing
+        // open zip (or indexed archive) for writing
         this.file.getAbsoluteFile().getParentFile().mkdirs();
-        outputZip = new ZipOutputStream(new FileOutputStream(this.file));
+        if ( format == Format.INDEXED ) {
+            outputZip = null;
+            outputArchive = new IndexedRampArchive.Writer(this.file);
+        } else {
+            outputZip = new ZipOutputStream(new FileOutputStream(this.file));
+            outputArchive = null;
+        }
 
         // create info object
         info = new JSONObject();
@@ -34,7 +46,11 @@ public abstract class OffRampBase extends RampBase {
         addEntry(null,"info.json", info.toString(2).getBytes());
 
         // close file
-        outputZip.close();
+        if ( outputArchive != null ) {
+            outputArchive.close();
+        } else {
+            outputZip.close();
+        }
 
         super.close();
     }
@@ -85,6 +101,10 @@ public abstract class OffRampBase extends RampBase {
     protected void addEntry(final Locatable loc, final String name, final byte[] bytes) throws IOException {
 
         final String      prefix = loc != null ? getLocFilenameSuffix(loc) + "/" : "";
+        if ( outputArchive != null ) {
+            outputArchive.addEntry(prefix + name, bytes);
+            return;
+        }
         final ZipEntry    e = new ZipEntry(prefix + name);
         outputZip.putNextEntry(e);
         outputZip.write(bytes);
@@ -94,6 +114,10 @@ public abstract class OffRampBase extends RampBase {
     protected void addEntry(final Locatable loc, final String name, final Path path) throws IOException {
 
         final String      prefix = loc != null ? getLocFilenameSuffix(loc) + "/" : "";
+        if ( outputArchive != null ) {
+            outputArchive.addEntry(prefix + name, path);
+            return;
+        }
         final ZipEntry    e = new ZipEntry(prefix + name);
         outputZip.putNextEntry(e);
         final InputStream is = new FileInputStream(path.toFile());
@@ -19,14 +19,22 @@ import java.util.zip.ZipFile;
 
 public class OnRampBase extends RampBase {
 
+    // one of these is used for reading, depending on the format of the file
     final private ZipFile inputZip;
+    final protected IndexedRampArchive.Reader inputArchive;
     private Map<String,Integer> regionIndex = new LinkedHashMap<>();
 
     public OnRampBase(final String filename) throws IOException {
         super(filename, Type.OnRamp);
 
-        // open zip for reading
-        inputZip = new ZipFile(this.file);
+        // open zip (or indexed archive) for reading, format is detected from the file
+        if ( IndexedRampArchive.isIndexedRampArchive(this.file) ) {
+            inputZip = null;
+            inputArchive = new IndexedRampArchive.Reader(this.file);
+        } else {
+            inputZip = new ZipFile(this.file);
+            inputArchive = null;
+        }
 
         // read info object
         final InputStream is = getEntry(null,"info.json");
@@ -42,7 +50,11 @@ public class OnRampBase extends RampBase {
     public void close() throws IOException {
 
         // close file
-        inputZip.close();
+        if ( inputArchive != null ) {
+            inputArchive.close();
+        } else {
+            inputZip.close();
+        }
 
         super.close();
     }
@@ -52,12 +64,13 @@ public class OnRampBase extends RampBase {
         final String      prefix = loc != null ? getLocFilenameSuffix(loc) + "/" : "";
         final String      name = prefix + nameParam;
 
-        Enumeration<? extends ZipEntry> entries = inputZip.entries();
-        while ( entries.hasMoreElements() ) {
-            ZipEntry entry = entries.nextElement();
-            if ( entry.getName().equals(name) ) {
-                return inputZip.getInputStream(entry);
-            }
+        // locate entry through the archive's index (rather than scanning it)
+        if ( inputArchive != null ) {
+            return inputArchive.getEntry(name);
+        }
+        final ZipEntry    entry = inputZip.getEntry(name);
+        if ( entry != null ) {
+            return inputZip.getInputStream(entry);
         }
 
         // if here, not found
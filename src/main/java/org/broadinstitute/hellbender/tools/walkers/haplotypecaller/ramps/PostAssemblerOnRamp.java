@@ -32,13 +32,21 @@ public class PostAssemblerOnRamp extends OnRampBase {
     public PostAssemblerOnRamp(final String filename) throws IOException {
         super(filename);
 
-        // open haplotype file (bam)
-        haplotypeBAMWriterPath = File.createTempFile("haplotypes_", ".bam").toPath();
-        haplotypeBAIWriterPath = getBamIndexPath(haplotypeBAMWriterPath);
-        copyStreamToPath(getEntry(null, "haplotypes.bam"), haplotypeBAMWriterPath);
-        copyStreamToPath(getEntry(null, "haplotypes.bai"), haplotypeBAIWriterPath);
-        final SamInputResource    samInputResource = SamInputResource.of(haplotypeBAMWriterPath);
-        samInputResource.index(haplotypeBAIWriterPath);
+        // open haplotype file (bam). indexed archives are read in place, zip entries are first copied to temp files
+        final SamInputResource    samInputResource;
+        if ( inputArchive != null ) {
+            haplotypeBAMWriterPath = null;
+            haplotypeBAIWriterPath = null;
+            samInputResource = SamInputResource.of(inputArchive.getSeekableEntry("haplotypes.bam"));
+            samInputResource.index(inputArchive.getSeekableEntry("haplotypes.bai"));
+        } else {
+            haplotypeBAMWriterPath = File.createTempFile("haplotypes_", ".bam").toPath();
+            haplotypeBAIWriterPath = getBamIndexPath(haplotypeBAMWriterPath);
+            copyStreamToPath(getEntry(null, "haplotypes.bam"), haplotypeBAMWriterPath);
+            copyStreamToPath(getEntry(null, "haplotypes.bai"), haplotypeBAIWriterPath);
+            samInputResource = SamInputResource.of(haplotypeBAMWriterPath);
+            samInputResource.index(haplotypeBAIWriterPath);
+        }
         haplotypeReader = SamReaderFactory.makeDefault().open(samInputResource);
     }
 
@@ -46,6 +54,8 @@ public class PostAssemblerOnRamp extends OnRampBase {
     public void close() throws IOException {
         if ( haplotypeReader != null ) {
             haplotypeReader.close();
+        }
+        if ( haplotypeBAMWriterPath != null ) {
             haplotypeBAMWriterPath.toFile().delete();
             haplotypeBAIWriterPath.toFile().delete();
         }
@@ -22,6 +22,10 @@ public class PreFilterOffRamp extends OffRampBase {
         super(filename);
     }
 
+    public PreFilterOffRamp(final String filename, final Format format) throws IOException {
+        super(filename, format);
+    }
+
     public synchronized  void add(final Locatable loc, final String name, final AlleleLikelihoods<GATKRead, Haplotype> value,
                                   final AssemblyRegion regionForGenotyping, final AssemblyRegion region) throws IOException {
 
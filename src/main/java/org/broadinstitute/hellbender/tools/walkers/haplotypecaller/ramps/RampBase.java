@@ -20,6 +20,12 @@ public abstract class RampBase {
         OnRamp
     }
 
+    // format of ramp file
+    public enum Format {
+        ZIP,                // zip archive, with a json info entry and entries per region
+        INDEXED             // indexed, memory mapped archive (see IndexedRampArchive)
+    }
+
     // local vars
     final protected Type        type;
     final protected File        file;
@@ -1,6 +1,7 @@
 package org.broadinstitute.hellbender.tools.walkers.mutect;
 
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
@@ -15,9 +16,14 @@ import org.broadinstitute.hellbender.engine.filters.MappingQualityReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.annotator.*;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyBasedCallerArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.HaplotypeCallerArgumentCollection;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ReadThreadingAssemblerArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ReferenceConfidenceMode;
 import org.broadinstitute.hellbender.transformers.ReadTransformer;
+import org.broadinstitute.hellbender.utils.OrderedTaskPool;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.downsampling.MutectDownsampler;
 import org.broadinstitute.hellbender.utils.downsampling.ReadsDownsampler;
 import org.broadinstitute.hellbender.cmdline.ModeArgumentUtils;
@@ -220,6 +226,7 @@ import java.util.*;
 public final class Mutect2 extends AssemblyRegionWalker {
      public static final String MUTECT_STATS_SHORT_NAME = "stats";
      public static final String DEFAULT_STATS_EXTENSION = ".stats";
+     public static final String REGION_THREADS_LONG_NAME = "region-threads";
 
     @ArgumentCollection
     protected M2ArgumentCollection MTAC = new M2ArgumentCollection();
@@ -227,10 +234,27 @@ public final class Mutect2 extends AssemblyRegionWalker {
     @Argument(fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME, shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME, doc = "File to which variants should be written")
     public GATKPath outputVCF;
 
+    /**
+     * Number of threads used to call assembly regions. When positive, regions are called in parallel, each thread
+     * owning an engine (and reference and feature sources) of its own, and calls are written in region order.
+     * Each region is called on a copy of its reads, with a random generator seeded from its location (as it is when calling
+     * on the traversal thread), so that the output does not depend on the number of threads. Determining active regions,
+     * which also accumulates the callable sites statistics and the F1R2 counts, remains on the traversal thread.
+     * Not compatible with --bam-output, --debug-assembly-variants-out nor --mutect3-dataset.
+     */
+    @Argument(fullName = REGION_THREADS_LONG_NAME, doc = "Number of threads used to call assembly regions (0 to call regions on the traversal thread)", optional = true, minValue = 0)
+    private int regionThreads = 0;
+
     private VariantContextWriter vcfWriter;
 
     private Mutect2Engine m2Engine;
 
+    // multi-threaded region calling. each thread owns an engine, a reference data source and a feature manager
+    private OrderedTaskPool<List<VariantContext>> threadPool;
+    private ThreadLocal<Mutect2Engine> threadEngine;
+    private ThreadLocal<ReferenceDataSource> threadReferenceDataSource;
+    private ThreadLocal<FeatureManager> threadFeatureManager;
+
     @Override
     public boolean useVariantAnnotations() { return true;}
 
@@ -283,10 +307,28 @@ public final class Mutect2 extends AssemblyRegionWalker {
             throw new UserException.CouldNotCreateOutputFile(MTAC.f1r2TarGz, M2ArgumentCollection.F1R2_TAR_GZ_NAME + " file must end in .tar.gz");
         }
         m2Engine.writeHeader(vcfWriter, getDefaultToolVCFHeaderLines());
+
+        if (regionThreads > 0) {
+            if (MTAC.bamOutputPath != null || MTAC.assemblerArgs.debugAssemblyVariantsOut != null || MTAC.mutect3Dataset != null) {
+                throw new CommandLineException.BadArgumentValue(REGION_THREADS_LONG_NAME, "is not compatible with --" + AssemblyBasedCallerArgumentCollection.BAM_OUTPUT_LONG_NAME
+                        + ", --" + ReadThreadingAssemblerArgumentCollection.DEBUG_ASSEMBLY_VARIANTS_OUT_LONG_NAME + " nor --" + M2ArgumentCollection.MUTECT3_DATASET_LONG_NAME);
+            }
+            threadPool = new OrderedTaskPool<>(regionThreads, 1, calls -> calls.forEach(vcfWriter::add), "call assembly regions");
+            // annotations may hold mutable state, so each thread annotates with its own instances
+            threadEngine = threadPool.threadLocal(() -> new Mutect2Engine(MTAC, assemblyRegionArgs, createOutputBamIndex, createOutputBamMD5, getHeaderForReads(),
+                    getBestAvailableSequenceDictionary(), referenceArguments.getReferenceSpecifier(),
+                    new VariantAnnotatorEngine(AnnotationUtils.copyAnnotations(makeVariantAnnotations()), null, Collections.emptyList(), false, false), true));
+            threadReferenceDataSource = threadPool.threadLocal(() -> ReferenceDataSource.of(referenceArguments.getReferencePath()));
+            threadFeatureManager = threadPool.threadLocal(() -> features == null ? null :
+                    new FeatureManager(this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES, cloudPrefetchBuffer, cloudIndexPrefetchBuffer, getGenomicsDBOptions()));
+        }
     }
 
     @Override
     public Object onTraversalSuccess() {
+        if (threadPool != null) {
+            threadPool.finish();
+        }
         m2Engine.writeExtraOutputs(new File(outputVCF + DEFAULT_STATS_EXTENSION));
 
         return "SUCCESS";
@@ -294,11 +336,36 @@ public final class Mutect2 extends AssemblyRegionWalker {
 
     @Override
     public void apply(final AssemblyRegion region, final ReferenceContext referenceContext, final FeatureContext featureContext ) {
-        m2Engine.callRegion(region, referenceContext, featureContext).forEach(vcfWriter::add);
+        if (threadPool == null) {
+            Utils.callWithRandomGenerator(OrderedTaskPool.locationSeed(region.getPaddedSpan()),
+                    () -> m2Engine.callRegion(region, referenceContext, featureContext)).forEach(vcfWriter::add);
+        } else {
+            final AssemblyRegion regionCopy = copyRegion(region);
+            threadPool.submit(() -> callRegionOnThread(regionCopy));
+        }
+    }
+
+    // a copy of a region, with copies of its reads: calling a region modifies its reads, which are shared with the next region
+    private AssemblyRegion copyRegion(final AssemblyRegion region) {
+        final AssemblyRegion copy = new AssemblyRegion(region.getSpan(), region.getPaddedSpan(), region.isActive(), region.getHeader());
+        region.getReads().forEach(read -> copy.add(read.copy()));
+        copy.addAllAlignmentData(region.getAlignmentData());
+        return copy;
+    }
+
+    // call a region using the resources of the current thread, with a random generator seeded from the region's location
+    private List<VariantContext> callRegionOnThread(final AssemblyRegion region) {
+        final SimpleInterval paddedSpan = region.getPaddedSpan();
+        return Utils.callWithRandomGenerator(OrderedTaskPool.locationSeed(paddedSpan), () -> threadEngine.get().callRegion(region,
+                new ReferenceContext(threadReferenceDataSource.get(), paddedSpan),
+                new FeatureContext(threadFeatureManager.get(), paddedSpan)));
     }
 
     @Override
     public void closeTool() {
+        if (threadPool != null) {
+            threadPool.close();
+        }
         if (vcfWriter != null) {
             vcfWriter.close();
         }
@@ -141,6 +141,20 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator, AutoCloseab
     public Mutect2Engine(final M2ArgumentCollection MTAC, AssemblyRegionArgumentCollection assemblyRegionArgs,
                          final boolean createBamOutIndex, final boolean createBamOutMD5, final SAMFileHeader header,
                          final SAMSequenceDictionary sequenceDictionary, final GATKPath referenceSpec, final VariantAnnotatorEngine annotatorEngine) {
+        this(MTAC, assemblyRegionArgs, createBamOutIndex, createBamOutMD5, header, sequenceDictionary, referenceSpec, annotatorEngine, false);
+    }
+
+    /**
+     * Same as above, optionally creating an engine that is only used to call regions ({@link #callRegion}) on behalf
+     * of another engine, which determines activity and writes the extra outputs. Such an engine does not create
+     * an F1R2 counts collector.
+     *
+     * @param regionCallingOnly true to create an engine that is only used to call regions
+     */
+    public Mutect2Engine(final M2ArgumentCollection MTAC, AssemblyRegionArgumentCollection assemblyRegionArgs,
+                         final boolean createBamOutIndex, final boolean createBamOutMD5, final SAMFileHeader header,
+                         final SAMSequenceDictionary sequenceDictionary, final GATKPath referenceSpec, final VariantAnnotatorEngine annotatorEngine,
+                         final boolean regionCallingOnly) {
         this.MTAC = Utils.nonNull(MTAC);
         this.header = Utils.nonNull(header);
         this.sequenceDictionary = sequenceDictionary;
@@ -176,7 +190,7 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator, AutoCloseab
         referenceConfidenceModel = new SomaticReferenceConfidenceModel(samplesList, header, 0,
                 MTAC.minAF, MTAC.refModelDelQual, !MTAC.overrideSoftclipFragmentCheck, isFlowBased);  //TODO: do something classier with the indel size arg
         final List<String> tumorSamples = ReadUtils.getSamplesFromHeader(header).stream().filter(this::isTumorSample).collect(Collectors.toList());
-        f1R2CountsCollector = MTAC.f1r2TarGz == null ? Optional.empty() : Optional.of(new F1R2CountsCollector(MTAC.f1r2Args, header, MTAC.f1r2TarGz, tumorSamples));
+        f1R2CountsCollector = MTAC.f1r2TarGz == null || regionCallingOnly ? Optional.empty() : Optional.of(new F1R2CountsCollector(MTAC.f1r2Args, header, MTAC.f1r2TarGz, tumorSamples));
         assembledEventMapVcfOutputWriter = Optional.ofNullable(MTAC.assemblerArgs.debugAssemblyVariantsOut != null ?
                 GATKVariantContextUtils.createVCFWriter(
                         new GATKPath(MTAC.assemblerArgs.debugAssemblyVariantsOut).toPath(),
@@ -10,6 +10,7 @@ import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.CommandLineProgram;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.ShortVariantDiscoveryProgramGroup;
+import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.mutect.M2ArgumentCollection;
 import org.broadinstitute.hellbender.utils.Nucleotide;
@@ -19,6 +20,8 @@ import org.broadinstitute.hellbender.tools.walkers.mutect.Mutect2;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -52,6 +55,7 @@ public class LearnReadOrientationModel extends CommandLineProgram {
     public static final String MAX_EM_ITERATIONS_LONG_NAME = "num-em-iterations";
     public static final String MAX_DEPTH_LONG_NAME = "max-depth";
     public static final String ARTIFACT_PRIOR_EXTENSION = ".orientation_priors";
+    public static final String LEARNING_THREADS_LONG_NAME = "learning-threads";
 
     @Argument(fullName = StandardArgumentDefinitions.INPUT_LONG_NAME, shortName = StandardArgumentDefinitions.INPUT_SHORT_NAME,
             doc = "One or more .tar.gz containing outputs of CollectF1R2Counts")
@@ -69,6 +73,9 @@ public class LearnReadOrientationModel extends CommandLineProgram {
     @Argument(fullName = MAX_DEPTH_LONG_NAME, doc = "sites with depth higher than this value will be grouped", optional = true)
     private int maxDepth = F1R2FilterConstants.DEFAULT_MAX_DEPTH;
 
+    @Argument(fullName = LEARNING_THREADS_LONG_NAME, doc = "number of threads used to read the inputs and to fit the models of the reference contexts", optional = true, minValue = 1)
+    private int threads = 1;
+
     private Map<String, List<Histogram<Integer>>> refHistogramsBySample;
 
     private Map<String, List<Histogram<Integer>>> altHistogramsBySample;
@@ -79,22 +86,41 @@ public class LearnReadOrientationModel extends CommandLineProgram {
             throw new UserException.CouldNotCreateOutputFile(outputTarGz,  "Output file must end in .tar.gz");
         }
 
+        // parallel streams below run on this pool, so that their parallelism is bounded by the number of threads
+        final ForkJoinPool threadPool = new ForkJoinPool(threads);
+        try {
+            threadPool.submit(this::learnAndWriteArtifactPriors).get();
+        } catch (InterruptedException | ExecutionException e) {
+            // rethrow user and runtime exceptions as is
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GATKException("failed to learn the read orientation model", e);
+        } finally {
+            threadPool.shutdown();
+        }
+
+        return "SUCCESS";
+    }
+
+    private void learnAndWriteArtifactPriors() {
         final List<File> tmpDirs = IntStream.range(0, inputTarGzs.size())
                 .mapToObj(n -> IOUtils.createTempDir(Integer.toString(n)))
                 .collect(Collectors.toList());
 
-        IntStream.range(0, inputTarGzs.size()).forEach(n -> IOUtils.extractTarGz(inputTarGzs.get(n).toPath(), tmpDirs.get(n).toPath()));
+        IntStream.range(0, inputTarGzs.size()).parallel().forEach(n -> IOUtils.extractTarGz(inputTarGzs.get(n).toPath(), tmpDirs.get(n).toPath()));
 
         final List<File> refHistogramFiles = tmpDirs.stream().flatMap(dir -> F1R2CountsCollector.getRefHistogramsFromExtractedTar(dir).stream()).collect(Collectors.toList());
         final List<File> altHistogramFiles = tmpDirs.stream().flatMap(dir -> F1R2CountsCollector.getAltHistogramsFromExtractedTar(dir).stream()).collect(Collectors.toList());
         final List<File> altTableFiles = tmpDirs.stream().flatMap(dir -> F1R2CountsCollector.getAltTablesFromExtractedTar(dir).stream()).collect(Collectors.toList());
 
         // TODO: this is brittle: it relies on the fact that in CollectF1R2Counts we put a single header line with the same name in the ref and alt histograms
-        final Map<String, List<MetricsFile<?, Integer>>> refHistogramMetricsFilesBySample = refHistogramFiles.stream()
+        // files are parsed in parallel, but grouped (and thus summed) in input order
+        final Map<String, List<MetricsFile<?, Integer>>> refHistogramMetricsFilesBySample = refHistogramFiles.parallelStream()
                 .map(file -> readMetricsFile(file))
                 .collect(Collectors.groupingBy(metricsFile -> metricsFile.getHeaders().get(0).toString()));
 
-        final Map<String, List<MetricsFile<?, Integer>>> altHistogramMetricsFilesBySample = altHistogramFiles.stream()
+        final Map<String, List<MetricsFile<?, Integer>>> altHistogramMetricsFilesBySample = altHistogramFiles.parallelStream()
                 .map(file -> readMetricsFile(file))
                 .collect(Collectors.groupingBy(metricsFile -> metricsFile.getHeaders().get(0).toString()));
 
@@ -113,7 +139,8 @@ public class LearnReadOrientationModel extends CommandLineProgram {
 
         final Map<String, List<AltSiteRecord>> recordsBySample = gatherAltSiteRecords(altTableFiles);
 
-        final Map<String, ArtifactPriorCollection> artifactPriorCollectionBySample = new HashMap<>();
+        // gather the data of each (sample, reference context), then fit the models of all of them in parallel
+        final List<ContextData> contextDataList = new ArrayList<>();
         for (final Map.Entry<String, List<AltSiteRecord>> entry : recordsBySample.entrySet()) {
             final String sample = entry.getKey();
             final List<AltSiteRecord> records = entry.getValue();
@@ -121,19 +148,17 @@ public class LearnReadOrientationModel extends CommandLineProgram {
             final Map<String, List<AltSiteRecord>> altDesignMatrixByContext = records.stream()
                     .collect(Collectors.groupingBy(AltSiteRecord::getReferenceContext));
 
-            final ArtifactPriorCollection artifactPriorCollection = new ArtifactPriorCollection(sample);
+            final Map<String, Histogram<Integer>> refHistogramsByContext = histogramsByLabel(refHistogramsBySample.get(sample));
 
             // Since e.g. G->T under AGT F1R2 is equivalent to C->A under ACT F2R1, combine the data
             for (final String refContext : F1R2FilterConstants.CANONICAL_KMERS) {
                 final String reverseComplement = SequenceUtil.reverseComplement(refContext);
 
                 // Merge ref histograms
-                final Histogram<Integer> refHistogram = refHistogramsBySample.get(sample).stream()
-                        .filter(h -> h.getValueLabel().equals(refContext))
-                        .findFirst().orElseGet(() -> F1R2FilterUtils.createRefHistogram(refContext, maxDepth));
-                final Histogram<Integer> refHistogramRevComp = refHistogramsBySample.get(sample).stream()
-                        .filter(h -> h.getValueLabel().equals(reverseComplement))
-                        .findFirst().orElseGet(() -> F1R2FilterUtils.createRefHistogram(reverseComplement, maxDepth));
+                final Histogram<Integer> refHistogram = refHistogramsByContext.containsKey(refContext) ?
+                        refHistogramsByContext.get(refContext) : F1R2FilterUtils.createRefHistogram(refContext, maxDepth);
+                final Histogram<Integer> refHistogramRevComp = refHistogramsByContext.containsKey(reverseComplement) ?
+                        refHistogramsByContext.get(reverseComplement) : F1R2FilterUtils.createRefHistogram(reverseComplement, maxDepth);
                 final Histogram<Integer> combinedRefHistograms = combineRefHistogramWithRC(refContext, refHistogram, refHistogramRevComp, maxDepth);
 
 
@@ -160,18 +185,28 @@ public class LearnReadOrientationModel extends CommandLineProgram {
                     continue;
                 }
 
-                final LearnReadOrientationModelEngine engine = new LearnReadOrientationModelEngine(
-                        combinedRefHistograms,
-                        combinedAltHistograms,
-                        altDesignMatrix,
+                contextDataList.add(new ContextData(sample, combinedRefHistograms, combinedAltHistograms, altDesignMatrix));
+            }
+        }
+
+        // the fits of different contexts are independent.  Each engine is created by the thread that fits it and
+        // dropped right after, so that only as many engines as there are threads are alive at once.
+        // Priors are set in the original order.
+        final List<Pair<String, ArtifactPrior>> artifactPriorsBySample = contextDataList.parallelStream()
+                .map(data -> Pair.of(data.sample, new LearnReadOrientationModelEngine(
+                        data.refHistogram,
+                        data.altHistograms,
+                        data.altDesignMatrix,
                         convergenceThreshold,
                         maxEMIterations,
                         maxDepth,
-                        logger);
-                final ArtifactPrior artifactPrior = engine.learnPriorForArtifactStates();
-                artifactPriorCollection.set(artifactPrior);
-            }
-            artifactPriorCollectionBySample.put(sample, artifactPriorCollection);
+                        logger).learnPriorForArtifactStates()))
+                .collect(Collectors.toList());
+
+        final Map<String, ArtifactPriorCollection> artifactPriorCollectionBySample = new HashMap<>();
+        recordsBySample.keySet().forEach(sample -> artifactPriorCollectionBySample.put(sample, new ArtifactPriorCollection(sample)));
+        for (final Pair<String, ArtifactPrior> sampleAndPrior : artifactPriorsBySample) {
+            artifactPriorCollectionBySample.get(sampleAndPrior.getLeft()).set(sampleAndPrior.getRight());
         }
 
         final File tmpPriorDir = IOUtils.createTempDir("priors");
@@ -186,9 +221,29 @@ public class LearnReadOrientationModel extends CommandLineProgram {
         } catch (IOException ex) {
             throw new UserException.CouldNotCreateOutputFile("Could not create output .tar.gz file.", ex);
         }
+    }
 
+    // the data from which the model of a (sample, reference context) is learned
+    private static final class ContextData {
+        private final String sample;
+        private final Histogram<Integer> refHistogram;
+        private final List<Histogram<Integer>> altHistograms;
+        private final List<AltSiteRecord> altDesignMatrix;
+
+        private ContextData(final String sample, final Histogram<Integer> refHistogram,
+                            final List<Histogram<Integer>> altHistograms, final List<AltSiteRecord> altDesignMatrix) {
+            this.sample = sample;
+            this.refHistogram = refHistogram;
+            this.altHistograms = altHistograms;
+            this.altDesignMatrix = altDesignMatrix;
+        }
+    }
 
-        return "SUCCESS";
+    // histograms by their value label.  Labels are unique within the histograms of a metrics file
+    private static Map<String, Histogram<Integer>> histogramsByLabel(final List<Histogram<Integer>> histograms) {
+        final Map<String, Histogram<Integer>> result = new HashMap<>(histograms.size() * 2);
+        histograms.forEach(h -> result.putIfAbsent(h.getValueLabel(), h));
+        return result;
     }
 
     @VisibleForTesting
@@ -317,14 +372,15 @@ public class LearnReadOrientationModel extends CommandLineProgram {
                     "The list of alt histograms missing some (kmer, alt allele, f1r2) triple");
         }
 
+        final Map<String, Histogram<Integer>> histogramsByLabel = histogramsByLabel(histogramList);
         for (int i = 1; i < metricsFiles.size(); i++){
             final List<Histogram<Integer>> ithHistograms = metricsFiles.get(i).getAllHistograms();
             for (final Histogram<Integer> jthHistogram : ithHistograms){
                 final String refContext = jthHistogram.getValueLabel();
-                final Optional<Histogram<Integer>> hist = histogramList.stream().filter(h -> h.getValueLabel().equals(refContext)).findAny();
-                Utils.validate(hist.isPresent(),"Missing histogram header for: " + refContext);
+                final Histogram<Integer> hist = histogramsByLabel.get(refContext);
+                Utils.validate(hist != null,"Missing histogram header for: " + refContext);
 
-                hist.get().addHistogram(jthHistogram);
+                hist.addHistogram(jthHistogram);
             }
         }
         return histogramList;
@@ -332,9 +388,13 @@ public class LearnReadOrientationModel extends CommandLineProgram {
 
     @VisibleForTesting
     static Map<String, List<AltSiteRecord>> gatherAltSiteRecords(final List<File> tables){
+        // tables are parsed in parallel, and their records concatenated in input order
+        final List<Pair<String, List<AltSiteRecord>>> tableRecords = tables.parallelStream()
+                .map(table -> AltSiteRecord.readAltSiteRecords(table.toPath(), DEFAULT_INITIAL_LIST_SIZE))
+                .collect(Collectors.toList());
+
         final Map<String, List<AltSiteRecord>> result = new HashMap<>();
-        for (final File table : tables) {
-            final Pair<String, List<AltSiteRecord>> sampleAndRecords = AltSiteRecord.readAltSiteRecords(table.toPath(), DEFAULT_INITIAL_LIST_SIZE);
+        for (final Pair<String, List<AltSiteRecord>> sampleAndRecords : tableRecords) {
             final String sample = sampleAndRecords.getLeft();
             final List<AltSiteRecord> records = sampleAndRecords.getRight();
 
@@ -107,6 +107,12 @@ public final class HaplotypeBasedVariantRecaller extends GATKTool {
         readsReader.setReadFilter(readFilter);
         progressMeter.setRecordsBetweenTimeChecks(1);
 
+        // the flow based HMM engine computes the likelihoods of multiple variants as a batch
+        final FlowBasedHMMBatchAligner          batchAligner = (likelihoodCalculationEngine instanceof FlowBasedHMMEngine)
+                                                        ? new FlowBasedHMMBatchAligner((FlowBasedHMMEngine)likelihoodCalculationEngine, vrArgs.alignmentThreads)
+                                                        : null;
+        final List<PendingVariant>              pendingVariants = new LinkedList<>();
+
         // walk regions, as defined by argument
         for ( SimpleInterval region : intervals ) {
 
@@ -147,9 +153,7 @@ public final class HaplotypeBasedVariantRecaller extends GATKTool {
                     progressMeter.update(vcLoc);
 
                     // prepare assembly result
-                    final List<Map<Integer, AlleleLikelihoods<GATKRead, Allele>>> genotypeLikelihoodsList = new LinkedList<>();
-                    final List<AssemblyResultSet>                                 assemblyResultList = new LinkedList<>();
-                    final List<SAMFileHeader>                                     readsHeaderList = new LinkedList<>();
+                    final PendingVariant pendingVariant = new PendingVariant(haplotypeSpan, processedHaplotypes, variants);
                     for ( Map.Entry<SamReader, Collection<GATKRead>> entry : readsByReader.entrySet() ) {
                         final AssemblyResultSet assemblyResult = new AssemblyResultSet();
                         processedHaplotypes.forEach(haplotype -> assemblyResult.add(haplotype));
@@ -166,32 +170,92 @@ public final class HaplotypeBasedVariantRecaller extends GATKTool {
                         assemblyResult.setFullReferenceWithPadding(refBases);
                         assemblyResult.setRegionForGenotyping(regionForGenotyping);
 
+                        pendingVariant.assemblyResultList.add(assemblyResult);
+                        pendingVariant.perSampleReadLists.add(perSampleReadList);
+                        pendingVariant.readsHeaderList.add(samReader.getFileHeader());
+                    }
+                    pendingVariants.add(pendingVariant);
 
-                        // computer likelihood
-                        final AlleleLikelihoods<GATKRead, Haplotype> readLikelihoods = likelihoodCalculationEngine.computeReadLikelihoods(
-                                assemblyResult, samplesList, perSampleReadList, false);
-
-                        // assign
-                        final SAMFileHeader readsHeader = samReader.getFileHeader();
-                        final Map<Integer, AlleleLikelihoods<GATKRead, Allele>> genotypeLikelihoods = simplifiedAssignGenotypeLikelihood(
-                                processedHaplotypes,
-                                readLikelihoods,
-                                assemblyResult.getFullReferenceWithPadding(),
-                                assemblyResult.getPaddedReferenceLoc(),
-                                regionForGenotyping.getSpan());
-
-                        genotypeLikelihoodsList.add(genotypeLikelihoods);
-                        assemblyResultList.add(assemblyResult);
-                        readsHeaderList.add(readsHeader);
+                    // variants are recalled in batches, a variant per thread
+                    if ( pendingVariants.size() >= vrArgs.alignmentThreads ) {
+                        recallPendingVariants(pendingVariants, likelihoodCalculationEngine, batchAligner, samplesList, resultWriter);
                     }
-                    resultWriter.add(haplotypeSpan, genotypeLikelihoodsList, variants, assemblyResultList, readsHeaderList);
                 });
             });
         }
+        recallPendingVariants(pendingVariants, likelihoodCalculationEngine, batchAligner, samplesList, resultWriter);
 
+        if ( batchAligner != null ) {
+            batchAligner.close();
+        }
         resultWriter.close();
     }
 
+    // a variant whose read likelihoods are yet to be computed, with its assembly results (one per reads file)
+    private static final class PendingVariant {
+        final SimpleInterval                    haplotypeSpan;
+        final List<Haplotype>                   processedHaplotypes;
+        final List<VariantContext>              variants;
+        final List<AssemblyResultSet>           assemblyResultList = new LinkedList<>();
+        final List<Map<String, List<GATKRead>>> perSampleReadLists = new LinkedList<>();
+        final List<SAMFileHeader>               readsHeaderList = new LinkedList<>();
+
+        PendingVariant(final SimpleInterval haplotypeSpan, final List<Haplotype> processedHaplotypes, final List<VariantContext> variants) {
+            this.haplotypeSpan = haplotypeSpan;
+            this.processedHaplotypes = processedHaplotypes;
+            this.variants = variants;
+        }
+    }
+
+    // compute read likelihoods for pending variants (as a batch, if possible), assign and output them in order
+    private void recallPendingVariants(final List<PendingVariant> pendingVariants,
+                                       final ReadLikelihoodCalculationEngine likelihoodCalculationEngine,
+                                       final FlowBasedHMMBatchAligner batchAligner,
+                                       final SampleList samplesList,
+                                       final VariantRecallerResultWriter resultWriter) {
+
+        // computer likelihood
+        final List<AlleleLikelihoods<GATKRead, Haplotype>> readLikelihoodsList;
+        if ( batchAligner != null ) {
+            final List<FlowBasedHMMBatchAligner.Job> jobs = new LinkedList<>();
+            for ( final PendingVariant pendingVariant : pendingVariants ) {
+                final Iterator<Map<String, List<GATKRead>>> perSampleReadListIter = pendingVariant.perSampleReadLists.iterator();
+                for ( final AssemblyResultSet assemblyResult : pendingVariant.assemblyResultList ) {
+                    jobs.add(new FlowBasedHMMBatchAligner.Job(assemblyResult.getHaplotypeList(),
+                            assemblyResult.getRegionForGenotyping().getHeader(), perSampleReadListIter.next()));
+                }
+            }
+            readLikelihoodsList = batchAligner.computeReadLikelihoods(jobs, samplesList, false, true);
+        } else {
+            readLikelihoodsList = new LinkedList<>();
+            for ( final PendingVariant pendingVariant : pendingVariants ) {
+                final Iterator<Map<String, List<GATKRead>>> perSampleReadListIter = pendingVariant.perSampleReadLists.iterator();
+                for ( final AssemblyResultSet assemblyResult : pendingVariant.assemblyResultList ) {
+                    readLikelihoodsList.add(likelihoodCalculationEngine.computeReadLikelihoods(
+                            assemblyResult, samplesList, perSampleReadListIter.next(), false));
+                }
+            }
+        }
+
+        // assign
+        final Iterator<AlleleLikelihoods<GATKRead, Haplotype>> readLikelihoodsIter = readLikelihoodsList.iterator();
+        for ( final PendingVariant pendingVariant : pendingVariants ) {
+            final List<Map<Integer, AlleleLikelihoods<GATKRead, Allele>>> genotypeLikelihoodsList = new LinkedList<>();
+            for ( final AssemblyResultSet assemblyResult : pendingVariant.assemblyResultList ) {
+                final Map<Integer, AlleleLikelihoods<GATKRead, Allele>> genotypeLikelihoods = simplifiedAssignGenotypeLikelihood(
+                        pendingVariant.processedHaplotypes,
+                        readLikelihoodsIter.next(),
+                        assemblyResult.getFullReferenceWithPadding(),
+                        assemblyResult.getPaddedReferenceLoc(),
+                        assemblyResult.getRegionForGenotyping().getSpan());
+                genotypeLikelihoodsList.add(genotypeLikelihoods);
+            }
+            resultWriter.add(pendingVariant.haplotypeSpan, genotypeLikelihoodsList, pendingVariant.variants,
+                    pendingVariant.assemblyResultList, pendingVariant.readsHeaderList);
+        }
+        pendingVariants.clear();
+    }
+
     @Override
     public List<ReadFilter> getDefaultReadFilters() {
         return HaplotypeCallerEngine.makeStandardHCReadFilters();
@@ -28,4 +28,11 @@ public class HaplotypeBasedVariantRecallerArgumentCollection implements Serializ
      **/
     @Argument(fullName = "matrix-file-csv", doc = "CSV file to be filled with likelihood matrix data", optional = false)
     public File matrixCsvFile = null;
+
+    /**
+     *  This argument specifies the number of threads to compute read likelihoods on. Only applies to the FlowBasedHMM
+     *  likelihood calculation engine, for which the likelihoods of multiple variants are computed as a batch
+     **/
+    @Argument(fullName = "alignment-threads", doc = "Number of threads to compute read likelihoods on (FlowBasedHMM engine only)", optional = true, minValue = 1)
+    public int alignmentThreads = 1;
 }
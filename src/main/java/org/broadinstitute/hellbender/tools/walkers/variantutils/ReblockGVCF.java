@@ -10,6 +10,7 @@ import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
+import org.broadinstitute.barclay.argparser.Hidden;
 import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.argumentcollections.DbsnpArgumentCollection;
@@ -26,6 +27,7 @@ import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.HaplotypeCall
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.HaplotypeCallerGenotypingEngine;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ReferenceConfidenceMode;
 import org.broadinstitute.hellbender.utils.MathUtils;
+import org.broadinstitute.hellbender.utils.OrderedTaskPool;
 import org.broadinstitute.hellbender.utils.collections.Permutation;
 import org.broadinstitute.hellbender.utils.fasta.CachingIndexedFastaSequenceFile;
 import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
@@ -116,6 +118,11 @@ public final class ReblockGVCF extends MultiVariantWalker {
     public static final String KEEP_SITE_FILTERS_LONG_NAME = "keep-site-filters";
     public static final String KEEP_SITE_FILTERS_SHORT_NAME = "keep-filters";
     public static final String ADD_FILTERS_TO_GENOTYPE = "add-site-filters-to-genotype";
+    public static final String REBLOCKING_THREADS_LONG_NAME = "reblocking-threads";
+    public static final String REBLOCKING_BATCH_SIZE_LONG_NAME = "reblocking-batch-size";
+
+    // default minimum number of records reblocked together on a thread
+    private static final int DEFAULT_RECORDS_PER_BATCH = 1000;
 
     @Argument(fullName = StandardArgumentDefinitions.OUTPUT_LONG_NAME, shortName = StandardArgumentDefinitions.OUTPUT_SHORT_NAME,
             doc="File to which variants should be written")
@@ -181,6 +188,21 @@ public final class ReblockGVCF extends MultiVariantWalker {
     @Argument(fullName= ADD_FILTERS_TO_GENOTYPE, doc="Add site level filters to genotype level. Site level filters removed by default, if they should be kept, use --" + KEEP_SITE_FILTERS_LONG_NAME)
     private boolean addFiltersToFormatField = false;
 
+    /**
+     * Number of threads used to reblock records. When positive, batches of records are reblocked on a thread pool, each
+     * with a writer of its own, and the reblocked batches are written in input order. A batch only ends where no record
+     * spans the next one and the reference block of the next record cannot be combined with the previous one (on a new
+     * contig, after a gap, or between reference blocks of different GQ bands), so the output is the same as on the
+     * traversal thread.
+     */
+    @Advanced
+    @Argument(fullName = REBLOCKING_THREADS_LONG_NAME, doc = "Number of threads used to reblock records concurrently (0 to reblock on the traversal thread)", optional = true, minValue = 0)
+    private int reblockingThreads = 0;
+
+    @Hidden
+    @Argument(fullName = REBLOCKING_BATCH_SIZE_LONG_NAME, doc = "Minimum number of records reblocked together on a thread", optional = true, minValue = 1)
+    private int recordsPerBatch = DEFAULT_RECORDS_PER_BATCH;
+
     //TODO: this will be an argument when posteriors handling is fully implemented in AlleleSubsettingUtils
     protected String posteriorsKey = null;
 
@@ -213,6 +235,18 @@ public final class ReblockGVCF extends MultiVariantWalker {
     @VisibleForTesting
     ReblockingGVCFWriter vcfWriter;
 
+    // the writer underlying vcfWriter, to which batches reblocked on other threads are written
+    private VariantContextWriter outputWriter;
+
+    // when reblocking concurrently: the pool, the records of the current batch and the end of those on its last
+    // contig, and the writer of the batch being reblocked and the resources of each thread
+    private OrderedTaskPool<List<VariantContext>> threadPool;
+    private List<VariantContext> currentBatch;
+    private int currentBatchEnd;
+    private ThreadLocal<ReblockingGVCFWriter> threadVcfWriter;
+    private ThreadLocal<HaplotypeCallerGenotypingEngine> threadGenotypingEngine;
+    private ThreadLocal<CachingIndexedFastaSequenceFile> threadReferenceReader;
+
     @Override
     public boolean useVariantAnnotations() { return true;}
 
@@ -301,22 +335,34 @@ public final class ReblockGVCF extends MultiVariantWalker {
         referenceReader = ReferenceUtils.createReferenceReader(referenceArguments.getReferenceSpecifier());
 
         createVcfWriter(headerLines);
+
+        if (reblockingThreads > 0) {
+            threadPool = new OrderedTaskPool<>(reblockingThreads, recordsPerBatch, batchOutput -> batchOutput.forEach(outputWriter::add), "reblock records");
+            currentBatch = new ArrayList<>(recordsPerBatch);
+            threadVcfWriter = new ThreadLocal<>();
+            final SampleList samples = new IndexedSampleList(getSamplesForVariants());
+            threadGenotypingEngine = threadPool.threadLocal(() -> createGenotypingEngine(samples));
+            threadReferenceReader = threadPool.threadLocal(() -> ReferenceUtils.createReferenceReader(referenceArguments.getReferenceSpecifier()));
+        }
     }
 
     @VisibleForTesting
     public void createVcfWriter(Set<VCFHeaderLine> headerLines) {
-        final VariantContextWriter writer = createVCFWriter(outputFile);
-
-        final ReblockingOptions reblockingOptions = new ReblockingOptions(dropLowQuals, allowMissingHomRefData, rgqThreshold);
+        outputWriter = createVCFWriter(outputFile);
 
         try {
-            vcfWriter = new ReblockingGVCFWriter(writer, new ArrayList<>(GVCFGQBands), floorBlocks, referenceReader, reblockingOptions);
+            vcfWriter = createReblockingWriter(outputWriter, referenceReader);
         } catch ( final IllegalArgumentException e ) {
             throw new UserException.BadInput("GQBands are malformed: " + e.getMessage(), e);
         }
         vcfWriter.writeHeader(new VCFHeader(headerLines, getSamplesForVariants()));  //don't get samples from header -- multi-variant inputHeader doens't have sample names
     }
 
+    private ReblockingGVCFWriter createReblockingWriter(final VariantContextWriter writer, final CachingIndexedFastaSequenceFile reader) {
+        final ReblockingOptions reblockingOptions = new ReblockingOptions(dropLowQuals, allowMissingHomRefData, rgqThreshold);
+        return new ReblockingGVCFWriter(writer, new ArrayList<>(GVCFGQBands), floorBlocks, reader, reblockingOptions);
+    }
+
     private HaplotypeCallerGenotypingEngine createGenotypingEngine(final SampleList samples) {
         final HaplotypeCallerArgumentCollection hcArgs = new HaplotypeCallerArgumentCollection();
         // create the genotyping engine
@@ -340,10 +386,90 @@ public final class ReblockGVCF extends MultiVariantWalker {
         if (!variant.hasAllele(Allele.NON_REF_ALLELE)) {
             throw new UserException("Variant Context at " + variant.getContig() + ":" + variant.getStart() + " does not contain a <NON-REF> allele. This tool is only intended for use with GVCFs.");
         }
+        if (threadPool != null) {
+            // genotypes are decoded here, as the shared codec of the input must not be used by the pool's threads
+            GATKVariantContextUtils.decodeGenotypes(variant);
+            if (currentBatch.size() >= recordsPerBatch && canStartBatch(variant)) {
+                submitCurrentBatch();
+            }
+            final boolean sameContig = !currentBatch.isEmpty() && currentBatch.get(currentBatch.size() - 1).contigsMatch(variant);
+            currentBatchEnd = sameContig ? Math.max(currentBatchEnd, variant.getEnd()) : variant.getEnd();
+            currentBatch.add(variant);
+            return;
+        }
         VariantContext newVC = formatAnnotationsToRemove.size() > 0 ? removeVCFFormatAnnotations(variant) : variant;
         regenotypeVC(newVC);
     }
 
+    /**
+     * Whether a batch may start at a record, i.e. whether reblocking the current batch and the records from this one on
+     * separately gives the same output as reblocking them together: no record of the current batch may reach this one
+     * (as a reference block or deletion would), and its reference block may not be combined with that of the previous
+     * record, which is the case on another contig, after a gap, or between reference blocks of different GQ bands.
+     */
+    private boolean canStartBatch(final VariantContext variant) {
+        final VariantContext previous = currentBatch.get(currentBatch.size() - 1);
+        if (!previous.contigsMatch(variant)) {
+            return true;
+        }
+        if (variant.getStart() <= currentBatchEnd) {
+            return false;
+        }
+        if (variant.getStart() > currentBatchEnd + 1) {
+            return true;
+        }
+        final Genotype previousGenotype = previous.getGenotype(0);
+        final Genotype genotype = variant.getGenotype(0);
+        return previous.getEnd() == currentBatchEnd && isHomRefBlock(previous) && isHomRefBlock(variant)
+                && previousGenotype.hasGQ() && genotype.hasGQ() && getGQBand(previousGenotype.getGQ()) != getGQBand(genotype.getGQ());
+    }
+
+    // the index of the GQ band of a reference block, as partitioned by the block combiner
+    private int getGQBand(final int gq) {
+        final int cappedGQ = Math.min(gq, VCFConstants.MAX_GENOTYPE_QUAL);
+        int band = 0;
+        while (band < GVCFGQBands.size() && GVCFGQBands.get(band) <= cappedGQ) {
+            band++;
+        }
+        return band;
+    }
+
+    private void submitCurrentBatch() {
+        final List<VariantContext> batch = currentBatch;
+        currentBatch = new ArrayList<>(recordsPerBatch);
+        threadPool.submit(batch.size(), () -> reblockBatchOnThread(batch));
+    }
+
+    // reblock the records of a batch with a writer of its own, using the resources of the current thread
+    private List<VariantContext> reblockBatchOnThread(final List<VariantContext> batch) {
+        final List<VariantContext> result = new ArrayList<>();
+        final ReblockingGVCFWriter batchWriter = createReblockingWriter(new BatchOutputWriter(result), threadReferenceReader.get());
+        threadVcfWriter.set(batchWriter);
+        try {
+            for (final VariantContext variant : batch) {
+                regenotypeVC(formatAnnotationsToRemove.size() > 0 ? removeVCFFormatAnnotations(variant) : variant);
+            }
+            batchWriter.close();
+        } finally {
+            threadVcfWriter.remove();
+        }
+        return result;
+    }
+
+    // the writer, genotyping engine and reference reader of the batch being reblocked, which are those of the
+    // current thread when reblocking concurrently
+    private ReblockingGVCFWriter getVcfWriter() {
+        return threadPool == null ? vcfWriter : threadVcfWriter.get();
+    }
+
+    private HaplotypeCallerGenotypingEngine getGenotypingEngine() {
+        return threadPool == null ? genotypingEngine : threadGenotypingEngine.get();
+    }
+
+    private CachingIndexedFastaSequenceFile getReferenceReader() {
+        return threadPool == null ? referenceReader : threadReferenceReader.get();
+    }
+
     /**
      * Remove format level annotations from genotype in variant context.
      *
@@ -376,7 +502,7 @@ public final class ReblockGVCF extends MultiVariantWalker {
         //Pass back ref-conf homRef sites/blocks to be combined by the GVCFWriter
         if (isHomRefBlock(originalVC)) {
             //if this hom ref block is entirely overlapped by previous VCF output, then drop it
-            if (originalVC.contigsMatch(vcfWriter.getVcfOutputEnd()) && originalVC.getEnd() <= vcfWriter.getVcfOutputEnd().getStart()) {
+            if (originalVC.contigsMatch(getVcfWriter().getVcfOutputEnd()) && originalVC.getEnd() <= getVcfWriter().getVcfOutputEnd().getStart()) {
                 return;
             }
             final Genotype genotype = originalVC.getGenotype(0);
@@ -387,7 +513,7 @@ public final class ReblockGVCF extends MultiVariantWalker {
                 if (genotype.hasGQ()) {
                     logger.warn("PL is missing for hom ref genotype at at least one position for sample " + genotype.getSampleName() + ": " + originalVC.getContig() + ":" + originalVC.getStart() +
                             ".  Using GQ to determine quality.");
-                    vcfWriter.add(originalVC);
+                    getVcfWriter().add(originalVC);
                 } else {
                     final String message = "Homozygous reference genotypes must contain GQ or PL. Both are missing for hom ref genotype at "
                             + originalVC.getContig() + ":" + originalVC.getStart();
@@ -396,13 +522,13 @@ public final class ReblockGVCF extends MultiVariantWalker {
                         final VariantContextBuilder vcBuilder = new VariantContextBuilder(originalVC);
                         final GenotypeBuilder gBuilder = new GenotypeBuilder(genotype);
                         vcBuilder.genotypes(gBuilder.GQ(0).PL(new int[]{0,0,0}).make());
-                        vcfWriter.add(vcBuilder.make());
+                        getVcfWriter().add(vcBuilder.make());
                     } else {
                         throw new UserException.BadInput(message);
                     }
                 }
             }
-            vcfWriter.add(originalVC);
+            getVcfWriter().add(originalVC);
             return;
         }
 
@@ -413,7 +539,7 @@ public final class ReblockGVCF extends MultiVariantWalker {
         //but if STAND_CALL_CONF > 0 we need to drop low quality alleles and regenotype
         //Note that spanning deletion star alleles will be considered low quality
         if (dropLowQuals && originalVC.getAttributeAsInt(VCFConstants.DEPTH_KEY, 0) > 0 && !isMonomorphicCallWithAlts(originalVC)) {
-            final VariantContext regenotyped = genotypingEngine.calculateGenotypes(originalVC);
+            final VariantContext regenotyped = getGenotypingEngine().calculateGenotypes(originalVC);
             if (regenotyped == null) {
                 return;
             }
@@ -425,19 +551,19 @@ public final class ReblockGVCF extends MultiVariantWalker {
         //variants with PL[0] less than threshold get turned to homRef with PL=[0,0,0], shouldn't get INFO attributes
         //make sure we can call het variants with GQ >= rgqThreshold in joint calling downstream
         if(shouldBeReblocked(result)) {
-            if (vcfWriter.getVcfOutputEnd() != null && result.contigsMatch(vcfWriter.getVcfOutputEnd()) && result.getEnd() <= vcfWriter.getVcfOutputEnd().getEnd()) {
+            if (getVcfWriter().getVcfOutputEnd() != null && result.contigsMatch(getVcfWriter().getVcfOutputEnd()) && result.getEnd() <= getVcfWriter().getVcfOutputEnd().getEnd()) {
                 //variant is entirely overlapped by variants already output to the VCF, so drop it
                 return;
             }
             final VariantContextBuilder newHomRefBuilder = lowQualVariantToGQ0HomRef(result);
             if (newHomRefBuilder != null) {  //can be null if we're dropping low quals
-                vcfWriter.add(newHomRefBuilder.make());
+                getVcfWriter().add(newHomRefBuilder.make());
             }
         }
         //high quality variant
         else {
             final VariantContext trimmedVariant = cleanUpHighQualityVariant(result);
-            vcfWriter.add(trimmedVariant);
+            getVcfWriter().add(trimmedVariant);
         }
     }
 
@@ -553,12 +679,12 @@ public final class ReblockGVCF extends MultiVariantWalker {
 
         final Genotype newG = gb.make();
         builder.alleles(Arrays.asList(newG.getAlleles().get(0), Allele.NON_REF_ALLELE)).genotypes(newG);
-        if (vcfWriter.getVcfOutputEnd() != null && lowQualityVariant.contigsMatch(vcfWriter.getVcfOutputEnd()) && lowQualityVariant.getStart() <= vcfWriter.getVcfOutputEnd().getStart()) {
-            final int newStart = vcfWriter.getVcfOutputEnd().getEnd() + 1;
+        if (getVcfWriter().getVcfOutputEnd() != null && lowQualityVariant.contigsMatch(getVcfWriter().getVcfOutputEnd()) && lowQualityVariant.getStart() <= getVcfWriter().getVcfOutputEnd().getStart()) {
+            final int newStart = getVcfWriter().getVcfOutputEnd().getEnd() + 1;
             if (newStart > lowQualityVariant.getEnd()) {
                 return null;
             }
-            ReblockingGVCFBlockCombiner.moveBuilderStart(builder, newStart, referenceReader);
+            ReblockingGVCFBlockCombiner.moveBuilderStart(builder, newStart, getReferenceReader());
         }
         return builder.unfiltered()  //genotyping engine will add lowQual filter, so strip it off
                 .log10PError(VariantContext.NO_LOG10_PERROR).attributes(attrMap);
@@ -655,7 +781,7 @@ public final class ReblockGVCF extends MultiVariantWalker {
                 }
                 final VariantContextBuilder newHomRefBuilder = lowQualVariantToGQ0HomRef(variant);
                 if (newHomRefBuilder != null) {  //there's a chance the low quality variant may be entirely overlapped by a variant already output
-                    vcfWriter.add(newHomRefBuilder.make());
+                    getVcfWriter().add(newHomRefBuilder.make());
                 }
                 return null;
             }
@@ -705,7 +831,7 @@ public final class ReblockGVCF extends MultiVariantWalker {
         final int oldLongestAlleleLength = originalVC.getReference().length();
         final int newLongestAlleleLength = newTrimmedAllelesVC.getReference().length();
         final Genotype genotype = originalVC.getGenotype(0);
-        final int vcfOutputEnd = vcfWriter.getVcfOutputEnd() == null ? -1 : vcfWriter.getVcfOutputEnd().getEnd();
+        final int vcfOutputEnd = getVcfWriter().getVcfOutputEnd() == null ? -1 : getVcfWriter().getVcfOutputEnd().getEnd();
         if (newLongestAlleleLength < oldLongestAlleleLength) {
             //need to add a ref block to make up for the allele trimming or there will be a hole in the GVCF
             final int[] originalLikelihoods = getGenotypePosteriorsOtherwiseLikelihoods(genotype, posteriorsKey);
@@ -732,7 +858,7 @@ public final class ReblockGVCF extends MultiVariantWalker {
                 //build the new reference block with updated likelihoods
                 final GenotypeBuilder refBlockGenotypeBuilder = new GenotypeBuilder();
                 final int refStart = Math.max(originalVC.getEnd() - (oldLongestAlleleLength - newLongestAlleleLength), vcfOutputEnd) + 1;
-                final Allele newRef = Allele.create(ReferenceUtils.getRefBaseAtPosition(referenceReader, originalVC.getContig(), refStart), true);
+                final Allele newRef = Allele.create(ReferenceUtils.getRefBaseAtPosition(getReferenceReader(), originalVC.getContig(), refStart), true);
                 refBlockGenotypeBuilder.PL(newRefBlockLikelihoods)
                         .GQ(MathUtils.secondSmallestMinusSmallest(newRefBlockLikelihoods, 0))
                         .alleles(Arrays.asList(newRef, newRef)).DP(refBlockDepth);
@@ -743,7 +869,7 @@ public final class ReblockGVCF extends MultiVariantWalker {
                     trimBlockBuilder.chr(originalVC.getContig()).start(Math.max(refStart, vcfOutputEnd + 1)).stop(originalVC.getEnd()).
                             alleles(Arrays.asList(newRef, Allele.NON_REF_ALLELE)).attribute(VCFConstants.END_KEY, originalVC.getEnd())
                             .genotypes(refBlockGenotypeBuilder.make());
-                    vcfWriter.add(trimBlockBuilder.make());
+                    getVcfWriter().add(trimBlockBuilder.make());
                 }
             }
         }
@@ -834,9 +960,9 @@ public final class ReblockGVCF extends MultiVariantWalker {
 
         //if the position of variant overlaps the ref block buffer, then it means that its deletion has been converted to a ref block
         //(if there was a subsequent high quality deletion, it would have trimmed the buffer)
-        if (calledGenotype.getAlleles().contains(Allele.SPAN_DEL) && (vcfWriter.siteOverlapsBuffer(variant)
-                || vcfWriter.getVcfOutputEnd() == null
-                || vcfWriter.getVcfOutputEnd().getEnd() < variant.getStart())) {
+        if (calledGenotype.getAlleles().contains(Allele.SPAN_DEL) && (getVcfWriter().siteOverlapsBuffer(variant)
+                || getVcfWriter().getVcfOutputEnd() == null
+                || getVcfWriter().getVcfOutputEnd().getEnd() < variant.getStart())) {
             allelesToDrop.add(Allele.SPAN_DEL);
         }
         return allelesToDrop;
@@ -1065,10 +1191,54 @@ public final class ReblockGVCF extends MultiVariantWalker {
         }
     }
 
+    @Override
+    public Object onTraversalSuccess() {
+        if (threadPool != null) {
+            if (!currentBatch.isEmpty()) {
+                submitCurrentBatch();
+            }
+            threadPool.finish();
+        }
+        return null;
+    }
+
     @Override
     public void closeTool() {
+        if (threadPool != null) {
+            threadPool.close();
+        }
         if ( vcfWriter != null ) {
             vcfWriter.close();
         }
     }
+
+    /**
+     * Collects the records output for a batch reblocked on a thread of the pool
+     */
+    private static final class BatchOutputWriter implements VariantContextWriter {
+        private final List<VariantContext> output;
+
+        BatchOutputWriter(final List<VariantContext> output) {
+            this.output = output;
+        }
+
+        @Override
+        public void writeHeader(final VCFHeader header) { }
+
+        @Override
+        public void setHeader(final VCFHeader header) { }
+
+        @Override
+        public void close() { }
+
+        @Override
+        public boolean checkError() {
+            return false;
+        }
+
+        @Override
+        public void add(final VariantContext vc) {
+            output.add(vc);
+        }
+    }
 }
@@ -0,0 +1,177 @@
+package org.broadinstitute.hellbender.utils;
+
+import htsjdk.samtools.util.Locatable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A pool of threads running tasks whose results are consumed on the submitting thread, in the order in which the tasks
+ * were submitted, e.g. by a tool writing the output of regions or batches of records processed concurrently.
+ *
+ * Each task has a weight (for instance its number of input records), and the total weight of pending tasks (running, or
+ * done but not consumed yet) is bounded to {@link #PENDING_TASKS_PER_THREAD} tasks of typical weight per thread: beyond
+ * that, submitting waits for the oldest pending tasks to complete. Results are otherwise consumed as soon as the tasks
+ * preceding them are.
+ *
+ * Resources owned by the threads of the pool (see {@link #threadLocal}) are closed along with the pool, once its
+ * threads are done.
+ *
+ * Tasks over a genomic location can seed their random generator from it (see {@link #locationSeed}), so that their
+ * results depend neither on the number of threads nor on the order in which tasks are run.
+ */
+public final class OrderedTaskPool<T> implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(OrderedTaskPool.class);
+
+    /**
+     * Number of tasks of typical weight, per thread, that may be pending
+     */
+    public static final int PENDING_TASKS_PER_THREAD = 4;
+
+    private final ForkJoinPool threadPool;
+    private final long typicalTaskWeight;
+    private final long maxPendingWeight;
+    private final Consumer<T> resultConsumer;
+    private final String description;
+
+    // pending tasks in submission order, with their weight
+    private final Deque<PendingTask<T>> pendingTasks = new ArrayDeque<>();
+    private long pendingWeight = 0;
+
+    private final Queue<AutoCloseable> threadResources = new ConcurrentLinkedQueue<>();
+
+    private static final class PendingTask<T> {
+        private final long weight;
+        private final Future<T> future;
+
+        PendingTask(final long weight, final Future<T> future) {
+            this.weight = weight;
+            this.future = future;
+        }
+    }
+
+    /**
+     * @param threads number of threads of the pool
+     * @param typicalTaskWeight weight of a typical task, which determines the total weight of tasks that may be pending
+     * @param resultConsumer consumer of the results of tasks, called on the submitting thread in submission order
+     * @param description what the tasks do, for error messages (e.g. "call assembly regions")
+     */
+    public OrderedTaskPool(final int threads, final long typicalTaskWeight, final Consumer<T> resultConsumer, final String description) {
+        Utils.validateArg(threads > 0, "the number of threads must be positive");
+        Utils.validateArg(typicalTaskWeight > 0, "the typical task weight must be positive");
+        this.threadPool = new ForkJoinPool(threads);
+        this.typicalTaskWeight = typicalTaskWeight;
+        this.maxPendingWeight = threads * PENDING_TASKS_PER_THREAD * typicalTaskWeight;
+        this.resultConsumer = Utils.nonNull(resultConsumer);
+        this.description = Utils.nonNull(description);
+    }
+
+    /**
+     * Make a per thread value, to be used by tasks. Values that are {@link AutoCloseable} are closed along with the pool.
+     *
+     * @param supplier supplier of the value of each thread, which may be {@code null}
+     */
+    public <R> ThreadLocal<R> threadLocal(final Supplier<R> supplier) {
+        Utils.nonNull(supplier);
+        return ThreadLocal.withInitial(() -> {
+            final R value = supplier.get();
+            if (value instanceof AutoCloseable) {
+                threadResources.add((AutoCloseable) value);
+            }
+            return value;
+        });
+    }
+
+    /**
+     * Submit a task, then consume the results of the tasks done so far, in order. Waits for pending tasks to complete
+     * while their total weight exceeds the bound of the pool.
+     *
+     * @param weight weight of the task
+     * @param task task to run on a thread of the pool
+     */
+    public void submit(final long weight, final Supplier<T> task) {
+        Utils.nonNull(task);
+        pendingTasks.add(new PendingTask<>(weight, threadPool.submit(task::get)));
+        pendingWeight += weight;
+        consumeResults(maxPendingWeight);
+    }
+
+    /**
+     * Submit a task of typical weight, see {@link #submit(long, Supplier)}
+     */
+    public void submit(final Supplier<T> task) {
+        submit(typicalTaskWeight, task);
+    }
+
+    /**
+     * Wait for all the submitted tasks to complete and consume their results, in order.
+     */
+    public void finish() {
+        consumeResults(0);
+    }
+
+    // consume the results of pending tasks, in order, until at most maxWeight remains pending and the next task is not done
+    private void consumeResults(final long maxWeight) {
+        while (!pendingTasks.isEmpty() && (pendingWeight > maxWeight || pendingTasks.peek().future.isDone())) {
+            final PendingTask<T> task = pendingTasks.poll();
+            pendingWeight -= task.weight;
+            final T result;
+            try {
+                result = task.future.get();
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new GATKException("failed to " + description, e.getCause());
+            } catch (final InterruptedException e) {
+                throw new GATKException("interrupted while waiting to " + description, e);
+            }
+            resultConsumer.accept(result);
+        }
+    }
+
+    /**
+     * Cancel the pending tasks, wait for those already running to complete and close the resources of the threads.
+     */
+    @Override
+    public void close() {
+        pendingTasks.forEach(task -> task.future.cancel(true));
+        pendingTasks.clear();
+        threadPool.shutdownNow();
+        try {
+            // resources may still be in use by running tasks, which have to complete before they can be closed
+            threadPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("interrupted while waiting for threads to " + description + ", their resources are left open");
+            return;
+        }
+        for (final AutoCloseable resource : threadResources) {
+            try {
+                resource.close();
+            } catch (final Exception e) {
+                logger.warn("failed to close thread resource: " + e.getMessage());
+            }
+        }
+        threadResources.clear();
+    }
+
+    /**
+     * @return a seed for the random generator of a computation over a location (see {@link Utils#callWithRandomGenerator})
+     */
+    public static long locationSeed(final Locatable loc) {
+        Utils.nonNull(loc);
+        return 31L * (31L * loc.getContig().hashCode() + loc.getStart()) + loc.getEnd();
+    }
+}
@@ -53,7 +53,40 @@ public final class Utils {
     private static final Random randomGenerator = new Random(GATK_RANDOM_SEED);
     private static final RandomDataGenerator randomDataGenerator = new RandomDataGenerator(new Well19937c(GATK_RANDOM_SEED));
 
-    public static Random getRandomGenerator() { return randomGenerator; }
+    // per thread random generator, overriding the static one while set (see callWithRandomGenerator)
+    private static final ThreadLocal<Random> threadRandomGenerator = new ThreadLocal<>();
+
+    /**
+     * @return the random generator set for the current thread by {@link #callWithRandomGenerator}, if any, otherwise the static one
+     */
+    public static Random getRandomGenerator() {
+        final Random threadGenerator = threadRandomGenerator.get();
+        return threadGenerator != null ? threadGenerator : randomGenerator;
+    }
+
+    /**
+     * Run a computation on the current thread, with {@link #getRandomGenerator()} returning a generator seeded
+     * from the given seed. Random draws of the computation are thus independent of other threads, and of the
+     * order in which computations are run.
+     *
+     * @param seed seed of the computation, combined with the GATK seed
+     * @param computation computation to run
+     * @return the result of the computation
+     */
+    public static <T> T callWithRandomGenerator(final long seed, final Supplier<T> computation) {
+        Utils.nonNull(computation);
+        final Random previous = threadRandomGenerator.get();
+        threadRandomGenerator.set(new Random(GATK_RANDOM_SEED ^ seed));
+        try {
+            return computation.get();
+        } finally {
+            if (previous == null) {
+                threadRandomGenerator.remove();
+            } else {
+                threadRandomGenerator.set(previous);
+            }
+        }
+    }
     public static RandomDataGenerator getRandomDataGenerator() { return randomDataGenerator; }
 
     public static void resetRandomGenerator() {
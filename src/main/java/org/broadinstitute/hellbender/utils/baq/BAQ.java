@@ -17,6 +17,7 @@ import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /*
   The topology of the profile HMM:
@@ -142,29 +143,70 @@ public final class BAQ implements Serializable {
     private static final double EM = 0.33333333333;
     private static final double EI = 0.25;
 
-    private final double[][][] EPSILONS = new double[256][256][SAMUtils.MAX_PHRED_SCORE+1];
+    // epsilons are indexed by the (case insensitive) index of the ref and read bases, with any other base at EPSILON_OTHER_BASE
+    private static final int EPSILON_OTHER_BASE = 4;
+    private static final int[] EPSILON_BASE_INDEX = new int[256];
+    static {
+        Arrays.fill(EPSILON_BASE_INDEX, EPSILON_OTHER_BASE);
+        final String bases = "ACGT";
+        for ( int i = 0; i < bases.length(); i++ ) {
+            EPSILON_BASE_INDEX[bases.charAt(i)] = i;
+            EPSILON_BASE_INDEX[Character.toLowerCase(bases.charAt(i))] = i;
+        }
+    }
+
+    private final double[][][] EPSILONS = new double[EPSILON_OTHER_BASE + 1][EPSILON_OTHER_BASE + 1][SAMUtils.MAX_PHRED_SCORE+1];
 
     private void initializeCachedData() {
-        for ( int i = 0; i < 256; i++ )
-            for ( int j = 0; j < 256; j++ )
+        for ( int i = 0; i <= EPSILON_OTHER_BASE; i++ )
+            for ( int j = 0; j <= EPSILON_OTHER_BASE; j++ )
                 for ( int q = 0; q <= SAMUtils.MAX_PHRED_SCORE; q++ ) {
-                    EPSILONS[i][j][q] = 1.0;
+                    if ( i == EPSILON_OTHER_BASE || j == EPSILON_OTHER_BASE ) {
+                        EPSILONS[i][j][q] = 1.0;
+                    } else {
+                        double qual = qual2prob[q < minBaseQual ? minBaseQual : q];
+                        EPSILONS[i][j][q] = i == j ? 1 - qual : qual * EM;
+                    }
                 }
+    }
 
-        for ( char b1 : "ACGTacgt".toCharArray() ) {
-            for ( char b2 : "ACGTacgt".toCharArray() ) {
-                for ( int q = 0; q <= SAMUtils.MAX_PHRED_SCORE; q++ ) {
-                    double qual = qual2prob[q < minBaseQual ? minBaseQual : q];
-                    double e = Character.toLowerCase(b1) == Character.toLowerCase(b2) ? 1 - qual : qual * EM;
-                    EPSILONS[(byte)b1][(byte)b2][q] = e;
+    protected double calcEpsilon( byte ref, byte read, byte qualB ) {
+        return EPSILONS[EPSILON_BASE_INDEX[ref & 0xFF]][EPSILON_BASE_INDEX[read & 0xFF]][qualB];
+    }
+
+    /**
+     * The forward/backward matrices of hmm_glocal, reused across calls (on the same thread) and grown as needed,
+     * rather than allocated for every read.
+     */
+    private static final class HmmMatrices {
+        private double[][] f = new double[0][];
+        private double[][] b = new double[0][];
+        private double[] s = new double[0];
+
+        /**
+         * Prepare (zeroed) matrices of at least the given number of rows and row length, along with a scaling vector
+         */
+        void prepare(final int rows, final int rowLength) {
+            if ( f.length < rows || (rows > 0 && f[0].length < rowLength) ) {
+                final int newRows = Math.max(rows, f.length);
+                final int newRowLength = Math.max(rowLength, f.length > 0 ? f[0].length : 0);
+                f = new double[newRows][newRowLength];
+                b = new double[newRows][newRowLength];
+            } else {
+                for ( int i = 0; i < rows; i++ ) {
+                    Arrays.fill(f[i], 0, rowLength, 0.0);
+                    Arrays.fill(b[i], 0, rowLength, 0.0);
                 }
             }
+            if ( s.length < rows + 1 ) {
+                s = new double[Math.max(rows + 1, s.length)];
+            } else {
+                Arrays.fill(s, 0, rows + 1, 0.0);
+            }
         }
     }
 
-    protected double calcEpsilon( byte ref, byte read, byte qualB ) {
-        return EPSILONS[ref][read][qualB];
-    }
+    private static final ThreadLocal<HmmMatrices> hmmMatrices = ThreadLocal.withInitial(HmmMatrices::new);
 
     // ####################################################################################################
     //
@@ -205,9 +247,12 @@ public final class BAQ implements Serializable {
 		bw2 = bw * 2 + 1;
 
         // allocate the forward and backward matrices f[][] and b[][] and the scaling array s[]
-		double[][] f = new double[l_query+1][bw2*3 + 6];
-		double[][] b = new double[l_query+1][bw2*3 + 6];
-		double[] s = new double[l_query+2];
+		// matrices are reused: rows are (at least) l_query+1 long, and cleared up to bw2*3 + 6
+		final HmmMatrices matrices = hmmMatrices.get();
+		matrices.prepare(l_query+1, bw2*3 + 6);
+		final double[][] f = matrices.f;
+		final double[][] b = matrices.b;
+		final double[] s = matrices.s;
 
 		// initialize transition probabilities
 		double sM, sI, bM, bI;
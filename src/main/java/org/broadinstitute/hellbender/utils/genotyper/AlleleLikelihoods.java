@@ -114,6 +114,12 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
      */
     private final LikelihoodMatrix<EVIDENCE,A>[] sampleMatrices;
 
+    /**
+     * Best alleles of each sample with ties broken in favor of the reference, lazily memoized (the elements not the list)
+     * between {@link #startCachingBestAlleles()} and {@link #stopCachingBestAlleles()}, {@code null} otherwise.
+     */
+    private List<List<BestAllele>> bestAllelesBreakingTiesBySampleIndex = null;
+
     /**
      * Constructs a new evidence-likelihood collection.
      *
@@ -791,14 +797,17 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
             final double[][] newSampleValues = result[s] = new double[newAlleleCount][sampleEvidenceCount];
 
             // For each old allele and unit of evidence we update the new table keeping the maximum likelihood.
+            // Old allele rows are traversed one at a time, which is cache-friendly, and with no boxing of values.
+            // Math.max, as DoubleStream.max, propagates NaN values.
             for (int newAllele = 0; newAllele < newAlleleCount; newAllele++) {
                 final BitSet oldAlleleSet = newToOldAlleleIndexMap.get(newAllele);
-                for (int r = 0; r < sampleEvidenceCount; r++) {
-                    final int finalR = r;
-                    newSampleValues[newAllele][finalR] = oldAlleleSet.stream()
-                            .mapToDouble(oldA -> oldSampleValues[oldA][finalR])
-                            .max()
-                            .orElse(Double.NEGATIVE_INFINITY);
+                final double[] newAlleleValues = newSampleValues[newAllele];
+                Arrays.fill(newAlleleValues, Double.NEGATIVE_INFINITY);
+                for (int oldAllele = oldAlleleSet.nextSetBit(0); oldAllele >= 0; oldAllele = oldAlleleSet.nextSetBit(oldAllele + 1)) {
+                    final double[] oldAlleleValues = oldSampleValues[oldAllele];
+                    for (int r = 0; r < sampleEvidenceCount; r++) {
+                        newAlleleValues[r] = Math.max(newAlleleValues[r], oldAlleleValues[r]);
+                    }
                 }
             }
         }
@@ -917,7 +926,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
 
     // Append the new evidence reference into the structure per-sample, returning the count of evidence actually added (duplicates are not added)
     // NOTE: the evidence-to-index cache is updated in place and not invalidated via {@link #invalidateEvidenceToIndexCache(int)} because adding new evidence
-    // to the cache, as opposed to removing evidence, is just a matter of appending entries
+    // to the cache, as opposed to removing evidence, is just a matter of appending entries; cached best alleles are dropped though
     private void appendEvidence(final List<EVIDENCE> newSampleEvidence, final int sampleIndex) {
 
         final List<EVIDENCE> sampleEvidence = evidenceBySampleIndex.get(sampleIndex);
@@ -933,6 +942,9 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         }
 
         numberOfEvidences[sampleIndex] = sampleEvidence.size();
+        if (bestAllelesBreakingTiesBySampleIndex != null) {
+            bestAllelesBreakingTiesBySampleIndex.set(sampleIndex, null);
+        }
     }
 
     /**
@@ -1059,7 +1071,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
      *
      * @return never {@code null}, one element per unit of evidence in the evidence-likelihoods collection.
      */
-    private Collection<BestAllele> bestAllelesBreakingTies(final int sampleIndex, final Function<A, Double> tieBreakingPriority) {
+    private List<BestAllele> bestAllelesBreakingTies(final int sampleIndex, final Function<A, Double> tieBreakingPriority) {
         Utils.validIndex(sampleIndex, numberOfSamples());
 
         //TODO: this currently just does ref vs alt.  Really we want CIGAR complexity.
@@ -1079,7 +1091,42 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
      * Default version where ties are broken in favor of the reference allele
      */
     private Collection<BestAllele> bestAllelesBreakingTies(final int sampleIndex) {
-        return bestAllelesBreakingTies(sampleIndex, a -> a.isReference() ? 1.0 : 0);
+        if (bestAllelesBreakingTiesBySampleIndex == null) {
+            return bestAllelesBreakingTies(sampleIndex, a -> a.isReference() ? 1.0 : 0);
+        }
+        Utils.validIndex(sampleIndex, numberOfSamples());
+        List<BestAllele> result = bestAllelesBreakingTiesBySampleIndex.get(sampleIndex);
+        if (result == null) {
+            // the list is shared by all callers until caching stops, so it must not be modifiable
+            result = Collections.unmodifiableList(bestAllelesBreakingTies(sampleIndex, a -> a.isReference() ? 1.0 : 0));
+            bestAllelesBreakingTiesBySampleIndex.set(sampleIndex, result);
+        }
+        return result;
+    }
+
+    /**
+     * Memoize the best alleles of each sample, with ties broken in favor of the reference, until {@link #stopCachingBestAlleles()}
+     * is invoked.  This lets several consumers of the same likelihoods, such as the annotations of a site, search the
+     * best allele of each unit of evidence only once.
+     *
+     * <p>The likelihoods must not be modified while caching, other than by adding or removing evidence.</p>
+     *
+     * @return {@code true} if caching was started, {@code false} if best alleles were already being cached, in which
+     * case the caller should leave it to whoever started it to stop caching.
+     */
+    public boolean startCachingBestAlleles() {
+        if (bestAllelesBreakingTiesBySampleIndex != null) {
+            return false;
+        }
+        bestAllelesBreakingTiesBySampleIndex = new ArrayList<>(Collections.nCopies(numberOfSamples(), null));
+        return true;
+    }
+
+    /**
+     * Stop memoizing best alleles and release those memoized since {@link #startCachingBestAlleles()}.
+     */
+    public void stopCachingBestAlleles() {
+        bestAllelesBreakingTiesBySampleIndex = null;
     }
 
     /**
@@ -1207,6 +1254,24 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         return result;
     }
 
+    // the maximum likelihood of each unit of evidence of a sample, computed traversing one allele row at a time
+    private double[] maximumLikelihoodsOverAllAlleles(final int sampleIndex) {
+        final int evidenceCount = numberOfEvidences[sampleIndex];
+        final double[] result = new double[evidenceCount];
+        Arrays.fill(result, Double.NEGATIVE_INFINITY);
+        final int alleleCount = alleles.numberOfAlleles();
+        final double[][] sampleValues = valuesBySampleIndex[sampleIndex];
+        for (int a = 0; a < alleleCount; a++) {
+            final double[] alleleValues = sampleValues[a];
+            for (int r = 0; r < evidenceCount; r++) {
+                if (alleleValues[r] > result[r]) {
+                    result[r] = alleleValues[r];
+                }
+            }
+        }
+        return result;
+    }
+
     public void setVariantCallingSubsetUsed(final SimpleInterval loc) {
         this.subsettedGenomicLoc = loc;
     }
@@ -1313,15 +1378,19 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
                 numRemoved++;
             } else {
                 newEvidence.add(oldEvidence.get(n));
-
-                // update the likelihoods arrays in place
-                for (final double[] alleleValues : valuesBySampleIndex[sampleIndex]) {
-                    alleleValues[n - numRemoved] = alleleValues[n];
-                }
             }
         }
-        // set to NaN lks of the deleted positions in lk value arrays.
+
+        // update the likelihoods arrays in place, one allele row at a time, shifting the runs of retained evidence
+        // between removed evidence; then set to NaN lks of the deleted positions.
         for (final double[] alleleValues : valuesBySampleIndex[sampleIndex]) {
+            int to = evidencesToRemove[0];
+            for (int k = 0; k < numToRemove; k++) {
+                final int from = evidencesToRemove[k] + 1;
+                final int runEnd = k + 1 < numToRemove ? evidencesToRemove[k + 1] : oldEvidenceCount;
+                System.arraycopy(alleleValues, from, alleleValues, to, runEnd - from);
+                to += runEnd - from;
+            }
             Arrays.fill(alleleValues, newEvidenceCount, alleleValues.length, Double.NaN);
         }
         evidenceBySampleIndex.set(sampleIndex, newEvidence);
@@ -1333,6 +1402,9 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
     // When adding evidence it is simple enough to add new entries to the map, but we must be careful to do so.
     private void invalidateEvidenceToIndexCache(final int sampleIndex) {
         evidenceIndexBySampleIndex.set(sampleIndex, null);
+        if (bestAllelesBreakingTiesBySampleIndex != null) {
+            bestAllelesBreakingTiesBySampleIndex.set(sampleIndex, null);
+        }
     }
 
     /**
@@ -1357,15 +1429,16 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
             final List<EVIDENCE> sampleEvidence = evidenceBySampleIndex.get(s);
 
             final int numberOfEvidence = sampleEvidence.size();
+            final double[] maximumLikelihoods = maximumLikelihoodsOverAllAlleles(sampleIndex);
             final int[] indexesToRemove = IntStream.range(0, numberOfEvidence)
-                    .filter(i -> maximumLikelihoodOverAllAlleles(sampleIndex, i) < log10MinTrueLikelihood.applyAsDouble(sampleEvidence.get(i)))
+                    .filter(i -> maximumLikelihoods[i] < log10MinTrueLikelihood.applyAsDouble(sampleEvidence.get(i)))
                     .toArray();
 
             // Retain the filtered evidence for later genotyping purposes
             final List<EVIDENCE> filtered = filteredEvidenceBySampleIndex.get(sampleIndex);
             Arrays.stream(indexesToRemove).forEach(idx -> {
                 if (HaplotypeCallerGenotypingDebugger.isEnabled()) {
-                    HaplotypeCallerGenotypingDebugger.println("disqualified read: " + idx + " "+((GATKRead)sampleEvidence.get(idx)).getName()+ " with max likelihood " +maximumLikelihoodOverAllAlleles(sampleIndex, idx) +" and threshold "+log10MinTrueLikelihood.applyAsDouble(sampleEvidence.get(idx)));
+                    HaplotypeCallerGenotypingDebugger.println("disqualified read: " + idx + " "+((GATKRead)sampleEvidence.get(idx)).getName()+ " with max likelihood " +maximumLikelihoods[idx] +" and threshold "+log10MinTrueLikelihood.applyAsDouble(sampleEvidence.get(idx)));
                 }
                 filtered.add(sampleEvidence.get(idx));
             });
@@ -274,10 +274,11 @@ public class FlowBasedRead extends SAMRecordToGATKReadAdapter implements GATKRea
     // This is the code for parsing the current/production BAM format (with TP tag)
     private void readFlowMatrix(final String _flowOrder) {
 
-        // generate key (base to flow space)
+        // generate key (base to flow space). flow attributes are shared with flow read filters which may have already parsed them
         setDirection(Direction.REFERENCE);  // base is always in reference/alignment direction
 
-        key = FlowBasedKeyCodec.baseArrayToKey(samRecord.getReadBases(), _flowOrder);
+        final FlowBasedReadAttributes attributes = FlowBasedReadAttributes.of(samRecord);
+        key = attributes.getKey(_flowOrder).clone();
         flow2base = FlowBasedKeyCodec.getKeyToBase(key);
         flowOrder = FlowBasedKeyCodec.getFlowToBase(_flowOrder, key.length);
 
@@ -298,10 +299,10 @@ public class FlowBasedRead extends SAMRecordToGATKReadAdapter implements GATKRea
 
         // access qual, convert to flow representation
         final byte[]      quals = samRecord.getBaseQualities();
-        final byte[]      tp = samRecord.getSignedByteArrayAttribute(FLOW_MATRIX_TAG_NAME);
+        final byte[]      tp = attributes.getTp();
 
         boolean specialTreatmentForZeroCalls = false;
-        final byte[]      t0 = SAMUtils.fastqToPhred(samRecord.getStringAttribute(FLOW_MATRIX_T0_TAG_NAME));
+        final byte[]      t0 = attributes.getT0();
         final double[]     t0probs = new double[quals.length];
         if ((t0!=null) && fbargs.useT0Tag){
             specialTreatmentForZeroCalls = true;
@@ -0,0 +1,170 @@
+package org.broadinstitute.hellbender.utils.read;
+
+import htsjdk.samtools.Cigar;
+import htsjdk.samtools.CigarOperator;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMUtils;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A parsed view of the flow specific attributes of a read (tp/t0 tags, hmer structure and key).
+ *
+ * Flow based reads are typically examined by several flow read filters (see engine.filters.flow) and then
+ * converted into a {@link FlowBasedRead}, all of which require the same decoded attributes. This class decodes
+ * them (lazily) once per read: the most recently viewed read is cached per thread, so that filters and
+ * {@link FlowBasedRead} construction applied to the same read share a single view.
+ *
+ * The cached view is invalidated when the read's bases, cigar or tp attribute are replaced. Arrays returned by
+ * this class are shared and should be treated as read only.
+ */
+public final class FlowBasedReadAttributes {
+
+    private static final ThreadLocal<FlowBasedReadAttributes> lastView = new ThreadLocal<>();
+
+    // the record viewed, along with the identity of its viewed state
+    private final SAMRecord   samRecord;
+    private final byte[]      bases;
+    private final Cigar       cigar;
+    private final Object      tpAttribute;
+
+    // lazily decoded attributes
+    private byte[]            tp;
+    private boolean           t0Decoded;
+    private byte[]            t0;
+    private int[]             hmerLengths;
+    private String            keyFlowOrder;
+    private int[]             key;
+
+    private FlowBasedReadAttributes(final SAMRecord samRecord) {
+        this.samRecord = samRecord;
+        this.bases = samRecord.getReadBases();
+        this.cigar = samRecord.getCigar();
+        this.tpAttribute = samRecord.getAttribute(FlowBasedRead.FLOW_MATRIX_TAG_NAME);
+    }
+
+    /**
+     * Get the flow attributes view of a read. The view is shared with previous calls made (on the current thread) on
+     * the same read, as long as the read was not modified.
+     *
+     * @param read - read to view
+     * @return - view of the read's flow attributes
+     */
+    public static FlowBasedReadAttributes of(final GATKRead read) {
+        Utils.nonNull(read);
+
+        // reads not backed by a SAMRecord are converted, but can not be cached
+        if ( read instanceof SAMRecordToGATKReadAdapter ) {
+            return of(((SAMRecordToGATKReadAdapter)read).getEncapsulatedSamRecord());
+        } else {
+            return new FlowBasedReadAttributes(read.convertToSAMRecord(null));
+        }
+    }
+
+    /**
+     * Get the flow attributes view of a SAMRecord. See {@link #of(GATKRead)}
+     */
+    public static FlowBasedReadAttributes of(final SAMRecord samRecord) {
+        Utils.nonNull(samRecord);
+
+        FlowBasedReadAttributes view = lastView.get();
+        if ( view == null || !view.isViewOf(samRecord) ) {
+            view = new FlowBasedReadAttributes(samRecord);
+            lastView.set(view);
+        }
+        return view;
+    }
+
+    // is this a (valid) view of the given record?
+    private boolean isViewOf(final SAMRecord samRecord) {
+        return this.samRecord == samRecord
+                && bases == samRecord.getReadBases()
+                && cigar == samRecord.getCigar()
+                && tpAttribute == samRecord.getAttribute(FlowBasedRead.FLOW_MATRIX_TAG_NAME);
+    }
+
+    /**
+     * @return - the tp attribute values (one per base), or null if the read does not have a tp attribute
+     */
+    public byte[] getTp() {
+        if ( tp == null && tpAttribute != null ) {
+            if ( tpAttribute instanceof byte[] ) {
+                tp = (byte[])tpAttribute;
+            } else if ( tpAttribute instanceof String ) {
+                tp = ((String)tpAttribute).getBytes(StandardCharsets.UTF_8);
+            } else {
+                throw new GATKException.ReadAttributeTypeMismatch(FlowBasedRead.FLOW_MATRIX_TAG_NAME, "byte array");
+            }
+        }
+        return tp;
+    }
+
+    /**
+     * @return - the t0 attribute converted to phred values (one per base), or null if the read does not have a t0 attribute
+     */
+    public byte[] getT0() {
+        if ( !t0Decoded ) {
+            t0 = SAMUtils.fastqToPhred(samRecord.getStringAttribute(FlowBasedRead.FLOW_MATRIX_T0_TAG_NAME));
+            t0Decoded = true;
+        }
+        return t0;
+    }
+
+    /**
+     * @return - the lengths of the consecutive hmers (homopolymers) composing the read bases
+     */
+    public int[] getHmerLengths() {
+        if ( hmerLengths == null ) {
+            final byte[]    readBases = (bases != null) ? bases : SAMRecord.NULL_SEQUENCE;
+            int             count = 0;
+            for ( int i = 0 ; i < readBases.length ; i++ ) {
+                if ( i == 0 || readBases[i] != readBases[i - 1] ) {
+                    count++;
+                }
+            }
+            hmerLengths = new int[count];
+            int             hmer = -1;
+            for ( int i = 0 ; i < readBases.length ; i++ ) {
+                if ( i == 0 || readBases[i] != readBases[i - 1] ) {
+                    hmer++;
+                }
+                hmerLengths[hmer]++;
+            }
+        }
+        return hmerLengths;
+    }
+
+    /**
+     * @param flowOrder - flow order (single cycle)
+     * @return - the key (flow space representation) of the read bases in the given flow order
+     */
+    public int[] getKey(final String flowOrder) {
+        if ( key == null || !flowOrder.equals(keyFlowOrder) ) {
+            key = FlowBasedKeyCodec.baseArrayToKey(bases, flowOrder);
+            keyFlowOrder = flowOrder;
+        }
+        return key;
+    }
+
+    /**
+     * @return - is the start of the read hard clipped?
+     */
+    public boolean isStartHardClipped() {
+        return cigar.getFirstCigarElement().getOperator() == CigarOperator.HARD_CLIP;
+    }
+
+    /**
+     * @return - is the end of the read hard clipped?
+     */
+    public boolean isEndHardClipped() {
+        return cigar.getLastCigarElement().getOperator() == CigarOperator.HARD_CLIP;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowBasedReadAttributes{" + samRecord.getReadName() + ", hmers: " + Arrays.toString(getHmerLengths()) + "}";
+    }
+}
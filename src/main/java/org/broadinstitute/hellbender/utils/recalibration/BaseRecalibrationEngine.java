@@ -64,6 +64,13 @@ public final class BaseRecalibrationEngine implements Serializable {
 
     private RecalibrationTables recalTables;
 
+    /**
+     * Primitive accumulators for the tables of recalTables (indexed as the tables, the derived read group table has none).
+     * Data is accumulated here while processing reads, and moved into recalTables when the tables are requested.
+     */
+    private final PrimitiveRecalibrationTable[] accumulators;
+    private PrimitiveRecalibrationTable qualityScoreAccumulator;
+
     private SAMFileHeader readsHeader;
 
     /**
@@ -98,6 +105,15 @@ public final class BaseRecalibrationEngine implements Serializable {
             throw new UserException("Number of read groups must be >= 1, but is " + numReadGroups);
         }
         recalTables = new RecalibrationTables(covariates, numReadGroups);
+        accumulators = new PrimitiveRecalibrationTable[recalTables.numTables()];
+        for ( int i = 0; i < accumulators.length; i++ ) {
+            if ( !recalTables.isReadGroupTable(recalTables.getTable(i)) ) {
+                accumulators[i] = PrimitiveRecalibrationTable.forTable(recalTables.getTable(i));
+            }
+            if ( recalTables.isQualityScoreTable(recalTables.getTable(i)) ) {
+                qualityScoreAccumulator = accumulators[i];
+            }
+        }
         keyCache = new CovariateKeyCache();
         cachedEventTypes = recalArgs.computeIndelBQSRTables ? EventType.values() : new EventType[]{EventType.BASE_SUBSTITUTION};
     }
@@ -149,6 +165,21 @@ public final class BaseRecalibrationEngine implements Serializable {
         numReadsProcessed++;
     }
 
+    /**
+     * Combine the (not yet finalized) data collected by another engine into this one.
+     *
+     * Used to merge the tables of engines that processed disjoint subsets of the reads (for example, on different
+     * threads). Both engines must have been created with the same arguments and header.
+     */
+    public void combine( final BaseRecalibrationEngine other ) {
+        Utils.nonNull(other);
+        Utils.validate(!finalized && !other.finalized, "Cannot combine engines once finalizeData() has been called");
+        flushAccumulators();
+        other.flushAccumulators();
+        recalTables.combine(other.recalTables);
+        numReadsProcessed += other.numReadsProcessed;
+    }
+
     /**
      * Finalize, if appropriate, all derived data in recalibrationTables.
      *
@@ -159,6 +190,7 @@ public final class BaseRecalibrationEngine implements Serializable {
      */
     public void finalizeData() {
         Utils.validate(!finalized, "FinalizeData() has already been called");
+        flushAccumulators();
         finalizeRecalibrationTables(recalTables);
         finalized = true;
     }
@@ -212,9 +244,19 @@ public final class BaseRecalibrationEngine implements Serializable {
      * Get a possibly not-final recalibration table, to deal with distributed execution.
      */
     public RecalibrationTables getRecalibrationTables() {
+        flushAccumulators();
         return recalTables;
     }
 
+    // move the data accumulated so far into recalTables
+    private void flushAccumulators() {
+        for ( int i = 0; i < accumulators.length; i++ ) {
+            if ( accumulators[i] != null ) {
+                accumulators[i].flushInto(recalTables.getTable(i));
+            }
+        }
+    }
+
     /**
      * Get the final recalibration tables, after finalizeData() has been called
      *
@@ -246,7 +288,7 @@ public final class BaseRecalibrationEngine implements Serializable {
 
         final GATKRead read = recalInfo.getRead();
         final ReadCovariates readCovariates = recalInfo.getCovariatesValues();
-        final NestedIntegerArray<RecalDatum> qualityScoreTable = recalTables.getQualityScoreTable();
+        final PrimitiveRecalibrationTable qualityScoreTable = qualityScoreAccumulator;
 
         final int nCovariates = covariates.size();
         final int nSpecialCovariates = covariates.numberOfSpecialCovariates();
@@ -257,18 +299,18 @@ public final class BaseRecalibrationEngine implements Serializable {
                     final EventType eventType = cachedEventTypes[idx];
                     final int[] keys = readCovariates.getKeySet(offset, eventType);
                     final int eventIndex = eventType.ordinal();
-                    final byte qual = recalInfo.getQual(eventType, offset);
                     final double isError = recalInfo.getErrorFraction(eventType, offset);
 
                     final int key0 = keys[0];
                     final int key1 = keys[1];
 
-                    RecalUtils.incrementDatumOrPutIfNecessary3keys(qualityScoreTable, qual, isError, key0, key1, eventIndex);
+                    // note: the reported quality of a datum is its quality key (key1), which is the qual of the event
+                    qualityScoreTable.increment(key0, key1, 0, eventIndex, isError);
 
                     for (int i = nSpecialCovariates; i < nCovariates; i++) {
                         final int keyi = keys[i];
                         if (keyi >= 0) {
-                            RecalUtils.incrementDatumOrPutIfNecessary4keys(recalTables.getTable(i), qual, isError, key0, key1, keyi, eventIndex);
+                            accumulators[i].increment(key0, key1, keyi, eventIndex, isError);
                         }
                     }
                 }
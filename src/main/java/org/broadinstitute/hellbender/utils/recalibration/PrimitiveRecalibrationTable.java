@@ -0,0 +1,233 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.collections.NestedIntegerArray;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A primitive backend for accumulating recalibration data, used by {@link BaseRecalibrationEngine} in place of
+ * one {@link RecalDatum} object per populated cell of a {@link NestedIntegerArray}.
+ *
+ * Cells are addressed by (read group, quality, covariate, event) keys, and hold a number of observations and a
+ * (scaled) number of mismatches in parallel long/double arrays, indexed by a key computed from the covariate and event.
+ * The reported quality of a cell is its quality key, so it is not stored. Cell storage is allocated lazily in pages, per
+ * read group and quality, so that large (context) covariates only pay for the keys actually observed.
+ *
+ * Cells can be incremented either by a single thread ({@link #increment}) or concurrently, without locks
+ * ({@link #incrementAtomic}). Once accumulation is done, the data is moved into a {@link NestedIntegerArray} of
+ * {@link RecalDatum} for reporting and recalibration ({@link #flushInto}).
+ */
+public final class PrimitiveRecalibrationTable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int PAGE_BITS = 10;
+    private static final int MAX_PAGE_SIZE = 1 << PAGE_BITS;
+
+    private static final VarHandle BLOCKS = MethodHandles.arrayElementVarHandle(Page[][].class);
+    private static final VarHandle PAGES = MethodHandles.arrayElementVarHandle(Page[].class);
+    private static final VarHandle OBSERVATIONS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle MISMATCHES = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private static final class Page implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final long[] observations;
+        final double[] mismatches;
+
+        Page(final int size) {
+            observations = new long[size];
+            mismatches = new double[size];
+        }
+    }
+
+    private final int numReadGroups;
+    private final int qualDimension;
+    private final int covariateDimension;
+    private final int eventDimension;
+    private final int pageSize;
+    private final int pagesPerBlock;
+
+    // one block of pages per (read group, quality), both allocated on first access
+    private final Page[][] blocks;
+
+    /**
+     * @param numReadGroups - number of read group keys
+     * @param qualDimension - number of quality keys
+     * @param covariateDimension - number of covariate keys, 1 for a table without an additional covariate
+     * @param eventDimension - number of event keys
+     */
+    public PrimitiveRecalibrationTable(final int numReadGroups, final int qualDimension, final int covariateDimension, final int eventDimension) {
+        Utils.validateArg(numReadGroups > 0 && qualDimension > 0 && covariateDimension > 0 && eventDimension > 0, "dimensions must be positive");
+        this.numReadGroups = numReadGroups;
+        this.qualDimension = qualDimension;
+        this.covariateDimension = covariateDimension;
+        this.eventDimension = eventDimension;
+
+        final long cellsPerBlock = (long)covariateDimension * eventDimension;
+        Utils.validateArg(cellsPerBlock <= Integer.MAX_VALUE, "covariate dimension too large: " + covariateDimension);
+        this.pageSize = (int)Math.min(cellsPerBlock, MAX_PAGE_SIZE);
+        this.pagesPerBlock = (int)((cellsPerBlock + pageSize - 1) / pageSize);
+        this.blocks = new Page[numReadGroups * qualDimension][];
+    }
+
+    /**
+     * Create a backend matching the dimensions of a recalibration table, which is either a quality score
+     * table (read group, quality, event) or an additional covariate table (read group, quality, covariate, event)
+     */
+    public static PrimitiveRecalibrationTable forTable(final NestedIntegerArray<RecalDatum> table) {
+        final int[] dimensions = table.getDimensions();
+        Utils.validateArg(dimensions.length == 3 || dimensions.length == 4, "unexpected number of table dimensions: " + dimensions.length);
+        return dimensions.length == 3
+                ? new PrimitiveRecalibrationTable(dimensions[0], dimensions[1], 1, dimensions[2])
+                : new PrimitiveRecalibrationTable(dimensions[0], dimensions[1], dimensions[2], dimensions[3]);
+    }
+
+    /**
+     * Add an observation to a cell. Not thread safe.
+     *
+     * @param isError - error value (fraction) of the observation
+     */
+    public void increment(final int readGroup, final int qual, final int covariate, final int event, final double isError) {
+        final int index = covariate * eventDimension + event;
+        final Page page = getOrCreatePage(readGroup, qual, index >>> PAGE_BITS);
+        final int offset = index & (MAX_PAGE_SIZE - 1);
+        page.observations[offset]++;
+        page.mismatches[offset] += isError * RecalDatum.MULTIPLIER;
+    }
+
+    /**
+     * Add an observation to a cell. Safe to call concurrently (with other calls to this method).
+     *
+     * @param isError - error value (fraction) of the observation
+     */
+    public void incrementAtomic(final int readGroup, final int qual, final int covariate, final int event, final double isError) {
+        final int index = covariate * eventDimension + event;
+        final Page page = getOrCreatePageAtomic(readGroup, qual, index >>> PAGE_BITS);
+        final int offset = index & (MAX_PAGE_SIZE - 1);
+        OBSERVATIONS.getAndAdd(page.observations, offset, 1L);
+        final double by = isError * RecalDatum.MULTIPLIER;
+        double current;
+        do {
+            current = (double)MISMATCHES.getVolatile(page.mismatches, offset);
+        } while ( !MISMATCHES.compareAndSet(page.mismatches, offset, current, current + by) );
+    }
+
+    /**
+     * @return - the number of observations of a cell
+     */
+    public long getNumObservations(final int readGroup, final int qual, final int covariate, final int event) {
+        final Page page = getPage(readGroup, qual, covariate * eventDimension + event);
+        return page == null ? 0 : page.observations[(covariate * eventDimension + event) & (MAX_PAGE_SIZE - 1)];
+    }
+
+    /**
+     * @return - the number of mismatches of a cell
+     */
+    public double getNumMismatches(final int readGroup, final int qual, final int covariate, final int event) {
+        final Page page = getPage(readGroup, qual, covariate * eventDimension + event);
+        return page == null ? 0.0 : page.mismatches[(covariate * eventDimension + event) & (MAX_PAGE_SIZE - 1)] / RecalDatum.MULTIPLIER;
+    }
+
+    /**
+     * Move the content of this table into a table of {@link RecalDatum}, creating a datum for each cell observed
+     * (or incrementing an existing one), then clear this table.
+     *
+     * @param table - a table with the same dimensions as this one (without the covariate dimension, if its size is 1)
+     */
+    public void flushInto(final NestedIntegerArray<RecalDatum> table) {
+        Utils.nonNull(table);
+        final boolean hasCovariateKey = table.getDimensions().length == 4;
+        Utils.validateArg(hasCovariateKey || covariateDimension == 1, "table is missing the covariate dimension");
+
+        for ( int block = 0; block < blocks.length; block++ ) {
+            final Page[] pages = blocks[block];
+            if ( pages == null ) {
+                continue;
+            }
+            final int readGroup = block / qualDimension;
+            final int qual = block % qualDimension;
+            for ( int pageIndex = 0; pageIndex < pages.length; pageIndex++ ) {
+                final Page page = pages[pageIndex];
+                if ( page == null ) {
+                    continue;
+                }
+                for ( int offset = 0; offset < pageSize; offset++ ) {
+                    final long observations = page.observations[offset];
+                    if ( observations == 0 ) {
+                        continue;
+                    }
+                    final int index = (pageIndex << PAGE_BITS) + offset;
+                    final int covariate = index / eventDimension;
+                    final int event = index % eventDimension;
+                    final RecalDatum datum = hasCovariateKey ? table.get4Keys(readGroup, qual, covariate, event) : table.get3Keys(readGroup, qual, event);
+                    if ( datum == null ) {
+                        final RecalDatum newDatum = RecalDatum.fromScaledMismatches(observations, page.mismatches[offset], (byte)qual);
+                        if ( hasCovariateKey ) {
+                            table.put(newDatum, readGroup, qual, covariate, event);
+                        } else {
+                            table.put(newDatum, readGroup, qual, event);
+                        }
+                    } else {
+                        datum.incrementScaled(observations, page.mismatches[offset]);
+                    }
+                }
+            }
+            blocks[block] = null;
+        }
+    }
+
+    /**
+     * @return true if no observation was accumulated (since the last flush)
+     */
+    public boolean isEmpty() {
+        for ( final Page[] pages : blocks ) {
+            if ( pages != null ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Page getPage(final int readGroup, final int qual, final int index) {
+        final Page[] pages = blocks[readGroup * qualDimension + qual];
+        return pages == null ? null : pages[index >>> PAGE_BITS];
+    }
+
+    private Page getOrCreatePage(final int readGroup, final int qual, final int pageIndex) {
+        final int block = readGroup * qualDimension + qual;
+        Page[] pages = blocks[block];
+        if ( pages == null ) {
+            pages = blocks[block] = new Page[pagesPerBlock];
+        }
+        Page page = pages[pageIndex];
+        if ( page == null ) {
+            page = pages[pageIndex] = new Page(pageSize);
+        }
+        return page;
+    }
+
+    private Page getOrCreatePageAtomic(final int readGroup, final int qual, final int pageIndex) {
+        final int block = readGroup * qualDimension + qual;
+        Page[] pages = (Page[])BLOCKS.getAcquire(blocks, block);
+        if ( pages == null ) {
+            final Page[] newPages = new Page[pagesPerBlock];
+            final Page[] witness = (Page[])BLOCKS.compareAndExchange(blocks, block, null, newPages);
+            pages = (witness == null) ? newPages : witness;
+        }
+        Page page = (Page)PAGES.getAcquire(pages, pageIndex);
+        if ( page == null ) {
+            final Page newPage = new Page(pageSize);
+            final Page witness = (Page)PAGES.compareAndExchange(pages, pageIndex, null, newPage);
+            page = (witness == null) ? newPage : witness;
+        }
+        return page;
+    }
+
+    @Override
+    public String toString() {
+        return "PrimitiveRecalibrationTable{" + numReadGroups + "x" + qualDimension + "x" + covariateDimension + "x" + eventDimension + "}";
+    }
+}
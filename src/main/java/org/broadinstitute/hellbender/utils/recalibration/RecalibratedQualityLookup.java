@@ -0,0 +1,187 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.collections.NestedIntegerArray;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.broadinstitute.hellbender.utils.MathUtils.fastRound;
+import static org.broadinstitute.hellbender.utils.QualityUtils.boundQual;
+import static org.broadinstitute.hellbender.utils.recalibration.RecalDatum.MAX_RECALIBRATED_Q_SCORE;
+
+/**
+ * Recalibration tables compiled into a lookup structure for applying BQSR to base substitution qualities.
+ *
+ * The hierarchical estimate of a recalibrated quality (see BQSRReadTransformer.hierarchicalBayesianQualityEstimate) is
+ * the conditional prior of its (read group, reported quality), plus a delta for each additional covariate, which
+ * depends only on (read group, reported quality, covariate key). Both are computed once, upon construction, for every
+ * entry of the tables, so that recalibrating a base amounts to a few array lookups and additions. The resulting value
+ * is rounded, bounded and mapped (quantized) through a single lookup as well.
+ *
+ * Values are computed with the same operations, in the same order, as the per base estimate, so results are
+ * identical. Covariate deltas are allocated per (read group, reported quality) observed in the tables: as an array
+ * indexed by covariate key when the covariate dimension is small, or else (e.g. for long contexts, whose dimension
+ * grows exponentially with their size) as the sorted keys observed in the tables along with their deltas.
+ */
+public final class RecalibratedQualityLookup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int BASE_SUBSTITUTION_INDEX = EventType.BASE_SUBSTITUTION.ordinal();
+
+    // largest covariate dimension for which the deltas of a (read group, reported quality) are stored densely
+    static final int MAX_DENSE_COVARIATE_DIMENSION = 4096;
+
+    private final int numReadGroups;
+    private final int qualDimension;
+    private final int specialCovariateCount;
+
+    // per read group (null if the read group is not in the tables): conditional prior per reported quality, the last
+    // entry being the prior of qualities outside of the quality dimension
+    private final double[][] conditionalPriors;
+
+    // per additional covariate: dimension and deltas per (read group, reported quality) block
+    private final int[] covariateDimensions;
+    private final CovariateDeltas[][] covariateDeltas;
+
+    // maps a rounded and bounded recalibrated quality to the output quality
+    private final byte[] qualMapping;
+
+    /**
+     * @param tables - (final) recalibration tables
+     * @param globalQScorePrior - global quality prior, values <= 0 use the reported quality of each read group
+     * @param quantizedQuals - map of recalibrated qualities to quantized qualities
+     * @param staticQuantizedMapping - optional (may be null) mapping of quantized qualities to static quantized qualities
+     */
+    public RecalibratedQualityLookup(final RecalibrationTables tables, final double globalQScorePrior,
+                                     final List<Byte> quantizedQuals, final byte[] staticQuantizedMapping) {
+        Utils.nonNull(tables);
+        Utils.nonNull(quantizedQuals);
+
+        final NestedIntegerArray<RecalDatum> readGroupTable = tables.getReadGroupTable();
+        final NestedIntegerArray<RecalDatum> qualityScoreTable = tables.getQualityScoreTable();
+        numReadGroups = readGroupTable.getDimensions()[0];
+        qualDimension = qualityScoreTable.getDimensions()[1];
+
+        // conditional priors of each (read group, reported quality)
+        conditionalPriors = new double[numReadGroups][];
+        for ( int rg = 0; rg < numReadGroups; rg++ ) {
+            final RecalDatum empiricalQualRG = readGroupTable.get2Keys(rg, BASE_SUBSTITUTION_INDEX);
+            if ( empiricalQualRG == null ) {
+                continue;
+            }
+            final double epsilon = globalQScorePrior > 0.0 ? globalQScorePrior : empiricalQualRG.getEstimatedQReported();
+            final double globalDeltaQ = empiricalQualRG.getEmpiricalQuality(epsilon) - epsilon;
+            final double[] priors = conditionalPriors[rg] = new double[qualDimension + 1];
+            for ( int qual = 0; qual <= qualDimension; qual++ ) {
+                final RecalDatum empiricalQualQS = qual < qualDimension ? qualityScoreTable.get3Keys(rg, qual, BASE_SUBSTITUTION_INDEX) : null;
+                final double deltaQReported = empiricalQualQS == null ? 0.0 : empiricalQualQS.getEmpiricalQuality(globalDeltaQ + epsilon) - (globalDeltaQ + epsilon);
+                priors[qual] = deltaQReported + globalDeltaQ + epsilon;
+            }
+        }
+
+        // deltas of the additional covariates
+        final List<NestedIntegerArray<RecalDatum>> additionalTables = tables.getAdditionalTables();
+        specialCovariateCount = tables.numTables() - additionalTables.size();
+        covariateDimensions = new int[additionalTables.size()];
+        covariateDeltas = new CovariateDeltas[additionalTables.size()][];
+        for ( int i = 0; i < additionalTables.size(); i++ ) {
+            final NestedIntegerArray<RecalDatum> table = additionalTables.get(i);
+            covariateDimensions[i] = table.getDimensions()[2];
+            final Map<Integer, SortedMap<Integer, Double>> deltasByBlock = new HashMap<>();
+            for ( final NestedIntegerArray.Leaf<RecalDatum> leaf : table.getAllLeaves() ) {
+                final int rg = leaf.keys[0];
+                final int qual = leaf.keys[1];
+                if ( leaf.keys[3] != BASE_SUBSTITUTION_INDEX || conditionalPriors[rg] == null ) {
+                    continue;
+                }
+                final double conditionalPrior2 = conditionalPriors[rg][qual];
+                deltasByBlock.computeIfAbsent(rg * qualDimension + qual, block -> new TreeMap<>())
+                        .put(leaf.keys[2], leaf.value.getEmpiricalQuality(conditionalPrior2) - conditionalPrior2);
+            }
+            covariateDeltas[i] = new CovariateDeltas[numReadGroups * qualDimension];
+            for ( final Map.Entry<Integer, SortedMap<Integer, Double>> entry : deltasByBlock.entrySet() ) {
+                covariateDeltas[i][entry.getKey()] = new CovariateDeltas(entry.getValue(), covariateDimensions[i]);
+            }
+        }
+
+        // rounded recalibrated qualities are bound between 1 and MAX_RECALIBRATED_Q_SCORE
+        qualMapping = new byte[MAX_RECALIBRATED_Q_SCORE + 1];
+        for ( int qual = 1; qual < qualMapping.length; qual++ ) {
+            final byte quantizedQual = quantizedQuals.get(qual);
+            qualMapping[qual] = staticQuantizedMapping == null ? quantizedQual : staticQuantizedMapping[quantizedQual];
+        }
+    }
+
+    /**
+     * @return true if the tables hold data for the given read group key (and thus its reads can be recalibrated)
+     */
+    public boolean hasReadGroup(final int readGroupKey) {
+        return readGroupKey < numReadGroups && conditionalPriors[readGroupKey] != null;
+    }
+
+    /**
+     * Get the recalibrated (and quantized) base substitution quality of a base.
+     *
+     * @param keySet - covariate keys of the base. The read group (first key) must be one for which {@link #hasReadGroup} is true
+     * @return - recalibrated quality
+     */
+    public byte getRecalibratedQual(final int[] keySet) {
+        final int rgKey = keySet[0];
+        final int qualKey = keySet[1];
+
+        double deltaQCovariates = 0.0;
+        final double conditionalPrior2;
+        if ( qualKey < qualDimension ) {
+            conditionalPrior2 = conditionalPriors[rgKey][qualKey];
+            final int block = rgKey * qualDimension + qualKey;
+            for ( int i = 0; i < covariateDeltas.length; i++ ) {
+                final int key = keySet[specialCovariateCount + i];
+                final CovariateDeltas deltas = covariateDeltas[i][block];
+                if ( key >= 0 && key < covariateDimensions[i] && deltas != null ) {
+                    deltaQCovariates += deltas.get(key);
+                }
+            }
+        } else {
+            conditionalPrior2 = conditionalPriors[rgKey][qualDimension];
+        }
+
+        return qualMapping[boundQual(fastRound(conditionalPrior2 + deltaQCovariates), MAX_RECALIBRATED_Q_SCORE)];
+    }
+
+    /**
+     * Deltas of an additional covariate for a single (read group, reported quality), by covariate key. Keys not observed
+     * in the tables have a delta of 0.
+     */
+    private static final class CovariateDeltas implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        // sorted keys of the deltas, or null if the deltas are indexed by key
+        private final int[] keys;
+        private final double[] deltas;
+
+        CovariateDeltas(final SortedMap<Integer, Double> deltasByKey, final int dimension) {
+            if ( dimension <= MAX_DENSE_COVARIATE_DIMENSION ) {
+                keys = null;
+                deltas = new double[dimension];
+                deltasByKey.forEach((key, delta) -> deltas[key] = delta);
+            } else {
+                keys = deltasByKey.keySet().stream().mapToInt(Integer::intValue).toArray();
+                deltas = deltasByKey.values().stream().mapToDouble(Double::doubleValue).toArray();
+            }
+        }
+
+        double get(final int key) {
+            if ( keys == null ) {
+                return deltas[key];
+            }
+            final int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? deltas[index] : 0.0;
+        }
+    }
+}
@@ -2,8 +2,6 @@ package org.broadinstitute.hellbender.utils.recalibration.covariates;
 
 import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.SAMFileHeader;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.barclay.argparser.CommandLineException;
@@ -58,42 +56,62 @@ public final class ContextCovariate implements Covariate {
     @Override
     public void recordValues(final GATKRead read, final SAMFileHeader header, final ReadCovariates values, final boolean recordIndelValues) {
 
-        final int originalReadLength = read.getLength();
+        final int readLength = read.getLength();
 
-        // store the original bases and then write Ns over low quality ones
-        final byte[] strandedClippedBases = getStrandedClippedBytes(read, lowQualTail);  //Note: this makes a copy of the read
-
-        //Note: we're using a non-standard library here because boxing came up on profiling as taking 20% of time in applyBQSR.
-        //IntList avoids boxing
-        final IntList mismatchKeys = contextWith(strandedClippedBases, mismatchesContextSize, mismatchesKeyMask);
-
-        final int readLengthAfterClipping = strandedClippedBases.length;
+        // the low quality tails of the read are considered as Ns (see getStrandedClippedBytes). Find them
+        int leftClipIndex = 0;
+        int rightClipIndex = readLength - 1;
+        while (rightClipIndex >= 0 && read.getBaseQuality(rightClipIndex) <= lowQualTail) {
+            rightClipIndex--;
+        }
+        while (leftClipIndex < readLength && read.getBaseQuality(leftClipIndex) <= lowQualTail) {
+            leftClipIndex++;
+        }
 
-        // this is necessary to ensure that we don't keep historical data in the ReadCovariates values
-        // since the context covariate may not span the entire set of values in read covariates
-        // due to the clipping of the low quality bases
-        if ( readLengthAfterClipping != originalReadLength) {
-            // don't bother zeroing out if we are going to overwrite the whole array
-            for ( int i = 0; i < originalReadLength; i++ ){
-                // this base has been clipped off, so zero out the covariate values here
+        // if the entire read is clipped there is no context: zero out the covariate values, so that we
+        // don't keep historical data in the ReadCovariates values
+        if (leftClipIndex > rightClipIndex) {
+            for ( int i = 0; i < readLength; i++ ){
                 values.addCovariate(0, 0, 0, i);
             }
+            return;
         }
 
+        // stream over the (stranded) bases, rolling the context keys of both the mismatch and indel models.
+        // Note: this does not allocate per read: no clipped copy of the read, no reverse complemented bases, no key lists
+        final byte[] bases = read.getBasesNoCopy();
         final boolean negativeStrand = read.isReverseStrand();
+        final int mismatchesNewBaseOffset = 2 * (mismatchesContextSize - 1) + LENGTH_BITS;
+        final int indelsNewBaseOffset = 2 * (indelsContextSize - 1) + LENGTH_BITS;
+        int mismatchKey = 0;
+        int indelKey = 0;
+        int lastNonACGTIndex = -1;
+        for (int i = 0; i < readLength; i++) {
+            final int readOffset = getStrandedOffset(negativeStrand, i, readLength);
+            final int baseIndex;
+            if (readOffset < leftClipIndex || readOffset > rightClipIndex) {
+                baseIndex = -1;
+            } else {
+                baseIndex = BaseUtils.simpleBaseToBaseIndex(negativeStrand ? BaseUtils.simpleComplement(bases[readOffset]) : bases[readOffset]);
+            }
 
-        //Note: duplicated the loop to avoid checking recordIndelValues on each iteration
-        if (recordIndelValues) {
-            final IntList indelKeys = contextWith(strandedClippedBases, indelsContextSize, indelsKeyMask);
-            for (int i = 0; i < readLengthAfterClipping; i++) {
-                final int readOffset = getStrandedOffset(negativeStrand, i, readLengthAfterClipping);
-                final int indelKey = indelKeys.getInt(i);
-                values.addCovariate(mismatchKeys.getInt(i), indelKey, indelKey, readOffset);
+            if (baseIndex == -1) { // ignore non-ACGT bases
+                lastNonACGTIndex = i;
+                mismatchKey = 0;
+                indelKey = 0;
+            } else {
+                // push this base's contribution onto the keys: shift everything 2 bits, mask out the non-context bits, and add the new base and the length in
+                mismatchKey = ((mismatchKey >> 2) & mismatchesKeyMask) | (baseIndex << mismatchesNewBaseOffset) | mismatchesContextSize;
+                indelKey = ((indelKey >> 2) & indelsKeyMask) | (baseIndex << indelsNewBaseOffset) | indelsContextSize;
             }
-        } else {
-            for (int i = 0; i < readLengthAfterClipping; i++) {
-                final int readOffset = getStrandedOffset(negativeStrand, i, readLengthAfterClipping);
-                values.addCovariate(mismatchKeys.getInt(i), 0, 0, readOffset);
+
+            // a context is defined only if all of its bases (the last contextSize) are ACGT
+            final int mismatchContext = (lastNonACGTIndex <= i - mismatchesContextSize) ? mismatchKey : -1;
+            if (recordIndelValues) {
+                final int indelContext = (lastNonACGTIndex <= i - indelsContextSize) ? indelKey : -1;
+                values.addCovariate(mismatchContext, indelContext, indelContext, readOffset);
+            } else {
+                values.addCovariate(mismatchContext, 0, 0, readOffset);
             }
         }
     }
@@ -111,7 +129,8 @@ public final class ContextCovariate implements Covariate {
 
     /**
      * Given a read, clips low quality ends (by overwriting with N) and returns the underlying bases, after
-     * reverse-complementing for negative-strand reads.
+     * reverse-complementing for negative-strand reads. These are the bases the contexts of {@link #recordValues} are
+     * computed from (which does so without materializing them).
      * @param read the read
      * @param lowQTail every base quality lower than or equal to this in the tail of the read will be replaced with N.
      * @return bases of the read (Could be an empty array if all bases are below lowQTail).
@@ -153,72 +172,6 @@ public final class ContextCovariate implements Covariate {
         return mask << LENGTH_BITS;
     }
 
-    /**
-     * calculates the context of a base independent of the covariate mode (mismatch, insertion or deletion)
-     *
-     * @param bases       the bases in the read to build the context from
-     * @param contextSize context size to use building the context
-     * @param mask        mask for pulling out just the context bits
-     */
-    private static IntList contextWith(final byte[] bases, final int contextSize, final int mask) {
-
-        final int readLength = bases.length;
-
-        //Note: we use a specialized collection to avoid the cost of boxing and unboxing that otherwise comes up on the profiler.
-        final IntList keys = new IntArrayList(readLength);
-
-        // the first contextSize-1 bases will not have enough previous context
-        for (int i = 1; i < contextSize && i <= readLength; i++) {
-            keys.add(-1);
-        }
-
-        if (readLength < contextSize) {
-            return keys;
-        }
-
-        final int newBaseOffset = 2 * (contextSize - 1) + LENGTH_BITS;
-
-        // get (and add) the key for the context starting at the first base
-        int currentKey = keyFromContext(bases, 0, contextSize);
-        keys.add(currentKey);
-
-        // if the first key was -1 then there was an non-ACGT in the context; figure out how many more consecutive contexts it affects
-        int currentNPenalty = 0;
-        if (currentKey == -1) {
-            currentKey = 0;
-            currentNPenalty = contextSize - 1;
-            int offset = newBaseOffset;
-            int baseIndex;
-            while ((baseIndex = BaseUtils.simpleBaseToBaseIndex(bases[currentNPenalty])) != -1) {
-                currentKey |= (baseIndex << offset);
-                offset -= 2;
-                currentNPenalty--;
-            }
-        }
-
-        for (int currentIndex = contextSize; currentIndex < readLength; currentIndex++) {
-            final int baseIndex = BaseUtils.simpleBaseToBaseIndex(bases[currentIndex]);
-            if (baseIndex == -1) { // ignore non-ACGT bases
-                currentNPenalty = contextSize;
-                currentKey = 0; // reset the key
-            } else {
-                // push this base's contribution onto the key: shift everything 2 bits, mask out the non-context bits, and add the new base and the length in
-                currentKey = (currentKey >> 2) & mask;
-                currentKey |= (baseIndex << newBaseOffset);
-                currentKey |= contextSize;
-            }
-
-            if (currentNPenalty == 0) {
-                keys.add(currentKey);
-            } else {
-                currentNPenalty--;
-                keys.add(-1);
-            }
-        }
-
-        return keys;
-    }
-
     public static int keyFromContext(final String dna) {
         return keyFromContext(dna.getBytes(), 0, dna.length());
     }
@@ -1,41 +1,36 @@
 package org.broadinstitute.hellbender.utils.recalibration.covariates;
 
-import org.broadinstitute.hellbender.utils.LRUCache;
 import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.recalibration.EventType;
 
 /*
- * Use an LRU cache to keep cache of keys (int[][][]) arrays for each read length we've seen.
- * The cache allows us to avoid the expense of recreating these arrays for every read.  The LRU
- * keeps the total number of cached arrays to less than LRU_CACHE_SIZE.
+ * A reusable buffer of keys (int[][][], indexed by event type x read offset x covariate) for computing the covariates of reads.
+ * The buffer is sized to the longest read seen so far and shared by all reads, so that computing the covariates of a read
+ * does not allocate key arrays (regardless of the distribution of read lengths).
+ *
+ * The buffer is overwritten by each read, so a cache must be confined to a single thread, and the keys of a read are valid
+ * only until the covariates of the next read are computed.
  */
 public final class CovariateKeyCache {
 
-    /**
-     * How big should we let the LRU cache grow
-     */
-    private static final int LRU_CACHE_SIZE = 500;
-
-    private final LRUCache<Integer, int[][][]> keysCache = new LRUCache<>(LRU_CACHE_SIZE);
-
-    /**
-     * Get the cached value for the given readlength or null is no value is cached.
-     */
-    public int[][][] get(final int readLength) {
-        return keysCache.get(readLength);
-    }
+    private int[][][] keys;
 
     /**
-     * Store the given array in the cache.
+     * Get a keys buffer able to hold the covariates of a read of the given length. The buffer may be longer than the read.
      */
-    public void put(final int readLength, final int[][][] keys) {
-        Utils.nonNull(keys);
-        keysCache.put(readLength, keys);
+    public int[][][] get(final int readLength, final int numberOfCovariates) {
+        Utils.validateArg(readLength >= 0, "readLength must be non-negative");
+        if ( keys == null || keys[0].length < readLength || (keys[0].length > 0 && keys[0][0].length != numberOfCovariates) ) {
+            final int capacity = (keys == null) ? readLength : Math.max(readLength, keys[0].length);
+            keys = new int[EventType.values().length][capacity][numberOfCovariates];
+        }
+        return keys;
     }
 
     /**
-     * Returns the size of this cache.
+     * Returns the number of read offsets the buffer can currently hold.
      */
-    public int size() {
-        return keysCache.size();
+    public int capacity() {
+        return keys == null ? 0 : keys[0].length;
     }
 }
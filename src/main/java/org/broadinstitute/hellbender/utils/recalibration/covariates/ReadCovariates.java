@@ -1,41 +1,42 @@
 package org.broadinstitute.hellbender.utils.recalibration.covariates;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.recalibration.EventType;
 
+import java.util.Arrays;
+
 /**
  * The object temporarily held by a read that describes all of its covariates.
  */
 public final class ReadCovariates {
-    private static final Logger logger = LogManager.getLogger(ReadCovariates.class);
-
     /**
-     * Our keys, indexed by event type x read length x covariate
+     * Our keys, indexed by event type x read offset x covariate. Shared (through the keys cache) with other reads,
+     * so that it may be longer than this read.
      */
     private final int[][][] keys;
 
+    private final int readLength;
+
     /**
      * The index of the current covariate, used by addCovariate
      */
     private int currentCovariateIndex = 0;
 
     /**
-     * Use an LRU cache to keep cache of keys (int[][][]) arrays for each read length we've seen.
-     * The cache allows us to avoid the expense of recreating these arrays for every read.  The LRU
-     * keeps the total number of cached arrays to less than LRU_CACHE_SIZE.
+     * The keys are held by a buffer of the keys cache, reused by subsequent reads, which allows us to avoid the
+     * expense of allocating key arrays for every read.
      */
     public ReadCovariates(final int readLength, final int numberOfCovariates, final CovariateKeyCache keysCache) {
         Utils.nonNull(keysCache);
-        final int[][][] cachedKeys = keysCache.get(readLength);
-        if ( cachedKeys == null ) {
-            if ( logger.isDebugEnabled() ) logger.debug("Keys cache miss for length " + readLength + " cache size " + keysCache.size());
-            keys = new int[EventType.values().length][readLength][numberOfCovariates];
-            keysCache.put(readLength, keys);
-        } else {
-            keys = cachedKeys;
-        }
+        keys = keysCache.get(readLength, numberOfCovariates);
+        this.readLength = readLength;
+    }
+
+    /**
+     * @return the length of the read described by this object
+     */
+    public int getLength() {
+        return readLength;
     }
 
     public void setCovariateIndex(final int index) {
@@ -71,6 +72,11 @@ public final class ReadCovariates {
         return keys[errorModel.ordinal()][readPosition];
     }
 
+    /**
+     * Get the keys for all covariates at all read positions for error model.
+     *
+     * Note: the returned array may be longer than the read, only its first {@link #getLength()} entries are valid
+     */
     public int[][] getKeySet(final EventType errorModel) {
         return keys[errorModel.ordinal()];
     }
@@ -81,9 +87,9 @@ public final class ReadCovariates {
     //
     // ----------------------------------------------------------------------
 
-    protected int[][] getMismatchesKeySet() { return getKeySet(EventType.BASE_SUBSTITUTION); }
-    protected int[][] getInsertionsKeySet() { return getKeySet(EventType.BASE_INSERTION); }
-    protected int[][] getDeletionsKeySet() { return getKeySet(EventType.BASE_DELETION); }
+    protected int[][] getMismatchesKeySet() { return Arrays.copyOf(getKeySet(EventType.BASE_SUBSTITUTION), readLength); }
+    protected int[][] getInsertionsKeySet() { return Arrays.copyOf(getKeySet(EventType.BASE_INSERTION), readLength); }
+    protected int[][] getDeletionsKeySet() { return Arrays.copyOf(getKeySet(EventType.BASE_DELETION), readLength); }
 
     protected int[] getMismatchesKeySet(final int readPosition) {
         return getKeySet(readPosition, EventType.BASE_SUBSTITUTION);
@@ -2082,6 +2082,21 @@ public final class GATKVariantContextUtils {
         return ((refComparable.length() == altComperable.length()) && (!refComparable.equals(altComperable)));
     }
 
+    /**
+     * Decode the genotypes of a variant context read from a VCF, which are otherwise decoded on first access.  Decoding
+     * uses the codec of the source the variant context was read from, which is not thread-safe, so variant contexts
+     * handed over to other threads must be decoded first.
+     *
+     * @param vc a variant context, possibly with lazily decoded genotypes
+     * @return {@code vc}, with its genotypes decoded
+     */
+    public static VariantContext decodeGenotypes(final VariantContext vc) {
+        if (vc.getGenotypes() instanceof LazyGenotypesContext) {
+            ((LazyGenotypesContext) vc.getGenotypes()).decode();
+        }
+        return vc;
+    }
+
     /**
      * @param vc {@link VariantContext to test}
      * @return true if the only alternate allele for this VariantContext is a spanning deletion, otherwise false.
@@ -6,22 +6,25 @@ import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.vcf.VCFConstants;
-import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.List;
 
 public abstract class GVCFBlock implements Locatable {
+    private static final int INITIAL_DP_CAPACITY = 16;
+
     protected final VariantContext startingVC;
     protected final int minGQ;
     protected final int maxGQ;
     protected final Allele ref;
-    protected final List<Integer> DPs = new ArrayList<>();
     protected int end;
 
+    // DPs observed within this band, in no particular order, kept in primitive form since a block may span many sites
+    private int[] DPs = new int[INITIAL_DP_CAPACITY];
+    private int numDPs = 0;
+    private int minDP = Integer.MAX_VALUE;
+
     public GVCFBlock(final VariantContext startingVC, final int lowerGQBound, final int upperGQBound) {
         Utils.nonNull(startingVC, "startingVC cannot be null");
         this.startingVC = startingVC;
@@ -32,10 +35,28 @@ public abstract class GVCFBlock implements Locatable {
 
         final Genotype g = startingVC.getGenotype(0);
         if (g.hasDP()) {
-            DPs.add(Math.max(g.getDP(), 0)); // DP must be >= 0
+            addDP(g.getDP());
         }
     }
 
+    /**
+     * Record the DP of a site within this band
+     * @param dp the DP, negative values being treated as 0
+     */
+    protected void addDP(final int dp) {
+        if (numDPs == DPs.length) {
+            DPs = Arrays.copyOf(DPs, DPs.length * 2);
+        }
+        final int boundedDP = Math.max(dp, 0); // DP must be >= 0
+        DPs[numDPs++] = boundedDP;
+        minDP = Math.min(minDP, boundedDP);
+    }
+
+    /** @return true if a DP has been observed within this band */
+    public boolean hasDPs() {
+        return numDPs > 0;
+    }
+
     public void add(int pos, Genotype genotype) {add(pos, pos, genotype);}
 
     /**
@@ -71,13 +92,19 @@ public abstract class GVCFBlock implements Locatable {
 
     /** Get the min DP observed within this band */
     public int getMinDP() {
-        return Collections.min(DPs);
+        Utils.validate(hasDPs(), "cannot take the min DP of a band with no DP");
+        return minDP;
     }
 
     /** Get the median DP observed within this band
      * If there are an even number of DPs recorded in this band the median is the mean of the two middle values */
     public int getMedianDP() {
-        return (int) Math.round(MathUtils.median(DPs));
+        Utils.validate(hasDPs(), "cannot take the median DP of a band with no DP");
+        // the order of the DPs is irrelevant, so they are sorted in place
+        Arrays.sort(DPs, 0, numDPs);
+        final int middle = numDPs / 2;
+        final double median = numDPs % 2 == 1 ? DPs[middle] : (DPs[middle - 1] + (double) DPs[middle]) / 2;
+        return (int) Math.round(median);
     }
 
     int getGQUpperBound() {
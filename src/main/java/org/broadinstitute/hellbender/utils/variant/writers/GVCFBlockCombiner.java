@@ -33,6 +33,9 @@ public class GVCFBlockCombiner implements PushPullTransformer<VariantContext> {
     final boolean floorBlocks;
     final Queue<VariantContext> toOutput = new ArrayDeque<>();
 
+    // the partition of each GQ from 0 to MAX_GENOTYPE_QUAL (null if none), so a new block doesn't require a range lookup
+    private final List<Range<Integer>> partitionsByGQ;
+
     /**
      * fields updated on the fly during GVCFWriter operation
      */
@@ -45,6 +48,10 @@ public class GVCFBlockCombiner implements PushPullTransformer<VariantContext> {
     public GVCFBlockCombiner(List<? extends Number> gqPartitions, boolean floorBlocks) {
         this.gqPartitions = parsePartitions(gqPartitions);
         this.floorBlocks = floorBlocks;
+        this.partitionsByGQ = new ArrayList<>(MAX_GENOTYPE_QUAL + 1);
+        for (int gq = 0; gq <= MAX_GENOTYPE_QUAL; gq++) {
+            partitionsByGQ.add(this.gqPartitions.get(gq));
+        }
     }
 
     /**
@@ -155,7 +162,7 @@ public class GVCFBlockCombiner implements PushPullTransformer<VariantContext> {
     GVCFBlock createNewBlock(final VariantContext vc, final Genotype g) {
         // figure out the GQ limits to use based on the GQ of g
         final int gq = g.hasGQ() ? Math.min(g.getGQ(), MAX_GENOTYPE_QUAL) : 0;
-        final Range<Integer> partition = gqPartitions.get(gq);
+        final Range<Integer> partition = gq >= 0 ? partitionsByGQ.get(gq) : null;
 
         if( partition == null) {
             throw new GATKException("GQ " + g + " from " + vc + " didn't fit into any partition");
@@ -82,14 +82,14 @@ final class HomRefBlock extends GVCFBlock {
                 gb.PL(minPLs);
             }
             gb.GQ(getMinGQ());
-            if (!DPs.isEmpty()) {
+            if (hasDPs()) {
                 gb.attribute(GATKVCFConstants.MIN_DP_FORMAT_KEY, getMinDP());
             }
         }
         else {
             gb.GQ(getGQLowerBound());
         }
-        if (!DPs.isEmpty()) {
+        if (hasDPs()) {
             gb.DP(getMedianDP());
         }
         if (minPPs != null) {
@@ -157,7 +157,7 @@ final class HomRefBlock extends GVCFBlock {
 
         end = newEnd;
         if (genotype.hasDP()) {
-            DPs.add(Math.max(genotype.getDP(), 0)); // DP must be >= 0
+            addDP(genotype.getDP());
         }
     }
 
@@ -55,7 +55,6 @@ public class ReblockingGVCFBlockCombiner extends GVCFBlockCombiner implements Pu
      */
     protected VariantContext addHomRefSite(final VariantContext vc, final Genotype g) {
         final Genotype genotype = vc.getGenotype(0);
-        final VariantContextBuilder vcBuilder = new VariantContextBuilder(vc);
 
         if (dropLowQuals && (!genotype.hasGQ() || genotype.getGQ() < rgqThreshold || genotype.getGQ() == 0)) {
             return null;
@@ -64,27 +63,24 @@ public class ReblockingGVCFBlockCombiner extends GVCFBlockCombiner implements Pu
                 if (genotype.hasGQ()) {
                     logger.warn("PL is missing for hom ref genotype at at least one position for sample " + genotype.getSampleName() + ": " + vc.getContig() + ":" + vc.getStart() +
                             ".  Using GQ to determine quality.");
-                    final int gq = genotype.getGQ();
-                    final GenotypeBuilder gBuilder = new GenotypeBuilder(genotype);
-                    vcBuilder.genotypes(gBuilder.GQ(gq).make());
-                    return super.addHomRefSite(vcBuilder.make(), gBuilder.make());
+                    return super.addHomRefSite(vc, genotype);
                 } else {
                     final String message = "Homozygous reference genotypes must contain GQ or PL. Both are missing for hom ref genotype at "
                             + vc.getContig() + ":" + vc.getStart() + " for sample " + genotype.getSampleName() + ".";
                     if (allowMissingHomRefData) {
                         logger.warn(message);
-                        final GenotypeBuilder gBuilder = new GenotypeBuilder(genotype);
-                        vcBuilder.genotypes(gBuilder.GQ(0).PL(new int[]{0,0,0}).make());
-                        return super.addHomRefSite(vcBuilder.make(), gBuilder.make());
+                        final Genotype filledGenotype = new GenotypeBuilder(genotype).GQ(0).PL(new int[]{0,0,0}).make();
+                        return super.addHomRefSite(new VariantContextBuilder(vc).genotypes(filledGenotype).make(), filledGenotype);
                     } else {
                         throw new UserException.BadInput(message);
                     }
                 }
             }
-            return super.addHomRefSite(vcBuilder.make(), genotype);
+            // blocks only take the position, END and genotype of a reference site, so vc is used as is
+            return super.addHomRefSite(vc, genotype);
             //some external data has no-called genotypes with good likelihoods
         } else if (!genotype.isCalled() && genotype.hasPL() && genotype.getPL()[0] == 0) {
-            return super.addHomRefSite(vcBuilder.make(), genotype);
+            return super.addHomRefSite(vc, genotype);
         }
         else {
             return null;
@@ -112,9 +108,9 @@ public class ReblockingGVCFBlockCombiner extends GVCFBlockCombiner implements Pu
             currentContig = variantContextToOutput.getContig();
             vcfOutputEnd = 0;
         }
-        final VariantContextBuilder newHomRefBlock = new VariantContextBuilder(variantContextToOutput);
-
         final Genotype g = variantContextToOutput.getGenotype(0);
+        // only reference blocks are buffered (and possibly trimmed), through a builder
+        final VariantContextBuilder newHomRefBlock = isHomRef(g) ? new VariantContextBuilder(variantContextToOutput) : null;
         if (isHomRef(g)) {
             if (variantContextToOutput.getStart() <= vcfOutputEnd) {
                 if (variantContextToOutput.getEnd() <= vcfOutputEnd) {
@@ -74,7 +74,7 @@ final class TLODBlock extends GVCFBlock {
         gb.noAD().noPL().noAttributes(); // clear all attributes
 
         gb.attribute(GATKVCFConstants.TUMOR_LOG_10_ODDS_KEY, minBlockLOD);
-        if (!DPs.isEmpty()) {
+        if (hasDPs()) {
             gb.DP(getMedianDP());
             gb.attribute(GATKVCFConstants.MIN_DP_FORMAT_KEY, getMinDP());
         }
@@ -96,7 +96,7 @@ final class TLODBlock extends GVCFBlock {
 
         end = newEnd;
         if (genotype.hasDP()) {
-            DPs.add(Math.max(genotype.getDP(), 0)); // DP must be >= 0
+            addDP(genotype.getDP());
         }
     }
 
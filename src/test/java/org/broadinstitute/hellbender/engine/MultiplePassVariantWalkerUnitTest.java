@@ -50,4 +50,19 @@ public class MultiplePassVariantWalkerUnitTest extends GATKBaseTest {
         Assert.assertTrue(walker.visitedAfterFirstPass);
     }
 
+    @Test
+    public void testTwoPassTraversalWithCachedVariants() {
+        final DummyMultiplePassVariantWalker walker = new DummyMultiplePassVariantWalker();
+        final String testVcf = "src/test/resources/org/broadinstitute/hellbender/tools/walkers/variantutils/VariantsToTable/multiallelic.vcf";
+
+        final String[] args = { "-V", testVcf, "--" + MultiplePassVariantWalker.CACHE_VARIANTS_BETWEEN_PASSES_LONG_NAME };
+
+        walker.instanceMain(args);
+
+        final int expectedNumberOfVariantContexts = 52;
+        Assert.assertEquals(walker.firstPass, expectedNumberOfVariantContexts);
+        Assert.assertEquals(walker.secondPass, expectedNumberOfVariantContexts);
+        Assert.assertTrue(walker.visitedAfterFirstPass);
+    }
+
 }
\ No newline at end of file
@@ -231,6 +231,21 @@ public final class GenomicsDBImportIntegrationTest extends CommandLineProgramTes
         testGenomicsDBImporter(LOCAL_GVCFS, MULTIPLE_INTERVALS, COMBINED_MULTI_INTERVAL, b38_reference_20_21, true, 1);
     }
 
+    @Test
+    public void testGenomicsDBImportFileInputsWithMultipleIntervalsAndReaderPool() throws IOException {
+        final String workspace = createTempDir("genomicsdb-tests-").getAbsolutePath() + "/workspace";
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.add(GenomicsDBImport.WORKSPACE_ARG_LONG_NAME, workspace);
+        MULTIPLE_INTERVALS.forEach(args::addInterval);
+        LOCAL_GVCFS.forEach(vcf -> args.add("V", vcf));
+        args.add("batch-size", "1");
+        args.add(GenomicsDBImport.MAX_NUM_INTERVALS_TO_IMPORT_IN_PARALLEL, "2");
+        args.add(GenomicsDBImport.READER_POOL_SIZE_LONG_NAME, "2");
+        runCommandLine(args);
+
+        checkGenomicsDBAgainstExpected(workspace, MULTIPLE_INTERVALS, COMBINED_MULTI_INTERVAL, b38_reference_20_21, true, ATTRIBUTES_TO_IGNORE);
+    }
+
     @Test
     public void testGenomicsDBImportFileInputsIncludeNonImportedIntervals() throws IOException {
       final String workspace = createTempDir("genomicsdb-tests-").getAbsolutePath() + "/workspace";
@@ -1308,6 +1323,17 @@ public final class GenomicsDBImportIntegrationTest extends CommandLineProgramTes
         runCommandLine(args);
     }
 
+    @Test(expectedExceptions = CommandLineException.class)
+    public void testCantUseReaderPoolWithReaderThreads(){
+        final ArgumentsBuilder args = new ArgumentsBuilder()
+                .add(GenomicsDBImport.SAMPLE_NAME_MAP_LONG_NAME, createInOrderSampleMap().getAbsolutePath())
+                .add(GenomicsDBImport.WORKSPACE_ARG_LONG_NAME, createTempDir("workspace").getAbsolutePath())
+                .add(GenomicsDBImport.READER_POOL_SIZE_LONG_NAME, "2")
+                .add(GenomicsDBImport.VCF_INITIALIZER_THREADS_LONG_NAME, "2")
+                .addInterval(INTERVAL.get(0));
+        runCommandLine(args);
+    }
+
     @Test(expectedExceptions = CommandLineException.MissingArgument.class)
     public void testRequireOneOfVCFOrSampleNameFile(){
         final ArgumentsBuilder args = new ArgumentsBuilder()
@@ -0,0 +1,136 @@
+package org.broadinstitute.hellbender.tools.genomicsdb;
+
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+public final class GenomicsDBImportUnitTest extends GATKBaseTest {
+
+    // a reader that only records whether it was closed
+    private static final class TestReader implements FeatureReader<VariantContext> {
+        private boolean closed = false;
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> query(final String chr, final int start, final int end) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> iterator() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            Assert.assertFalse(closed, "reader closed twice");
+            closed = true;
+        }
+
+        @Override
+        public List<String> getSequenceNames() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Object getHeader() {
+            return null;
+        }
+
+        @Override
+        public boolean isQueryable() {
+            return true;
+        }
+    }
+
+    // supplies new test readers, keeping track of those created
+    private static final class TestReaderSupplier implements Supplier<FeatureReader<VariantContext>> {
+        private final List<TestReader> created = new ArrayList<>();
+
+        @Override
+        public FeatureReader<VariantContext> get() {
+            final TestReader reader = new TestReader();
+            created.add(reader);
+            return reader;
+        }
+    }
+
+    @Test
+    public void testReaderPoolReusesReturnedReaders() throws IOException {
+        final GenomicsDBImport.ReaderPool pool = new GenomicsDBImport.ReaderPool(2);
+        final TestReaderSupplier supplier = new TestReaderSupplier();
+
+        final FeatureReader<VariantContext> first = pool.getReader("sample1", supplier);
+        Assert.assertEquals(supplier.created.size(), 1);
+
+        // a reader in use is not handed out again
+        final FeatureReader<VariantContext> second = pool.getReader("sample1", supplier);
+        Assert.assertEquals(supplier.created.size(), 2);
+
+        // closing a pooled reader returns it to the pool rather than closing it
+        first.close();
+        first.close();
+        Assert.assertFalse(supplier.created.get(0).closed);
+
+        final FeatureReader<VariantContext> reused = pool.getReader("sample1", supplier);
+        Assert.assertEquals(supplier.created.size(), 2);
+        reused.close();
+        second.close();
+
+        // readers are only reused for their own sample
+        final FeatureReader<VariantContext> other = pool.getReader("sample2", supplier);
+        Assert.assertEquals(supplier.created.size(), 3);
+        other.close();
+
+        // the pool keeps at most two idle readers, so the least recently returned one was closed
+        Assert.assertTrue(supplier.created.get(0).closed);
+        Assert.assertFalse(supplier.created.get(1).closed);
+        Assert.assertFalse(supplier.created.get(2).closed);
+
+        pool.close();
+        supplier.created.forEach(r -> Assert.assertTrue(r.closed));
+    }
+
+    @Test
+    public void testReaderPoolClosesLeastRecentlyReturnedReaders() throws IOException {
+        final GenomicsDBImport.ReaderPool pool = new GenomicsDBImport.ReaderPool(1);
+        final TestReaderSupplier supplier = new TestReaderSupplier();
+
+        final FeatureReader<VariantContext> reader1 = pool.getReader("sample1", supplier);
+        final FeatureReader<VariantContext> reader2 = pool.getReader("sample2", supplier);
+        reader1.close();
+        Assert.assertFalse(supplier.created.get(0).closed);
+
+        // the pool is full, so the reader of sample1 is closed
+        reader2.close();
+        Assert.assertTrue(supplier.created.get(0).closed);
+        Assert.assertFalse(supplier.created.get(1).closed);
+
+        pool.getReader("sample1", supplier).close();
+        Assert.assertEquals(supplier.created.size(), 3);
+        Assert.assertTrue(supplier.created.get(1).closed);
+
+        pool.close();
+        Assert.assertTrue(supplier.created.get(2).closed);
+    }
+
+    @Test
+    public void testReaderReturnedAfterPoolClosedIsClosed() throws IOException {
+        final GenomicsDBImport.ReaderPool pool = new GenomicsDBImport.ReaderPool(2);
+        final TestReaderSupplier supplier = new TestReaderSupplier();
+
+        final FeatureReader<VariantContext> reader = pool.getReader("sample1", supplier);
+        pool.close();
+        Assert.assertFalse(supplier.created.get(0).closed);
+        reader.close();
+        Assert.assertTrue(supplier.created.get(0).closed);
+    }
+}
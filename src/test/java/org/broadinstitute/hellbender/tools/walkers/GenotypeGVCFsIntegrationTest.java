@@ -15,6 +15,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
 import org.broadinstitute.hellbender.testutils.GenomicsDBTestUtils;
@@ -45,6 +46,7 @@ import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class GenotypeGVCFsIntegrationTest extends CommandLineProgramTest {
@@ -464,6 +466,48 @@ public class GenotypeGVCFsIntegrationTest extends CommandLineProgramTest {
         assertVariantContextsMatch(input, expected, extraArgs, reference);
     }
 
+    @Test(dataProvider = "gvcfsToGenotype")
+    public void testEntireVariantContextWithGenotypingThreads(File input, File expected, List<String> extraArgs, String reference) throws IOException {
+        final List<String> extra = new ArrayList<>(extraArgs);
+        extra.add("--" + GenotypeGVCFs.GENOTYPING_THREADS_LONG_NAME);
+        extra.add("4");
+        assertVariantContextsMatch(input, expected, extra, reference);
+    }
+
+    @DataProvider(name = "genotypingBatchSizes")
+    public Object[][] genotypingBatchSizes() {
+        return IntStream.rangeClosed(1, 10).mapToObj(n -> new Object[]{n}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "genotypingBatchSizes")
+    public void testGenotypingBatchSizeMatchesSingleThread(final int batchSize) {
+        //small batches end next to (but never within) spanning deletions, and are written in site order
+        final File input = getTestFile("spanningDel.combined.g.vcf");
+        final File output = createTempFile("genotyping-batches", ".vcf");
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addReference(new File(b37_reference_20_21))
+                .add("V", input.getAbsolutePath())
+                .add(GenotypeGVCFs.ALL_SITES_LONG_NAME, true)
+                .add(GenotypeGVCFs.GENOTYPING_THREADS_LONG_NAME, 2)
+                .add(GenotypeGVCFs.GENOTYPING_BATCH_SIZE_LONG_NAME, batchSize)
+                .addOutput(output);
+        runCommandLine(args);
+
+        final File singleThreadOutput = createTempFile("single-thread", ".vcf");
+        final ArgumentsBuilder singleThreadArgs = new ArgumentsBuilder();
+        singleThreadArgs.addReference(new File(b37_reference_20_21))
+                .add("V", input.getAbsolutePath())
+                .add(GenotypeGVCFs.ALL_SITES_LONG_NAME, true)
+                .addOutput(singleThreadOutput);
+        runCommandLine(singleThreadArgs);
+
+        try (final FeatureDataSource<VariantContext> actualVcs = new FeatureDataSource<>(output);
+             final FeatureDataSource<VariantContext> expectedVcs = new FeatureDataSource<>(singleThreadOutput)) {
+            assertCondition(actualVcs, expectedVcs,
+                    (a, e) -> VariantContextTestUtils.assertVariantContextsAreEqual(a, e, Collections.emptyList(), ATTRIBUTES_WITH_JITTER));
+        }
+    }
+
     private void assertVariantContextsMatch(File input, File expected, List<String> extraArgs, String reference) throws IOException {
         try {
             final VCFHeader header = VCFHeaderReader.readHeaderFrom(new SeekablePathStream(IOUtils.getPath(expected.getAbsolutePath())));
@@ -6,6 +6,7 @@ import htsjdk.variant.vcf.VCFHeader;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.annotator.VariantAnnotatorEngine;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.AlleleSubsettingUtils;
+import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeIndexCalculator;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.GATKBaseTest;
@@ -87,6 +88,38 @@ public class ReferenceConfidenceVariantContextMergerUnitTest extends GATKBaseTes
         Assert.assertEquals(newAD, new int[]{1,2,0,0});
     }
 
+    // the genotype index maps shared by the samples of a multi-sample vc must match the per sample maps, at all ploidies
+    @Test
+    public void testMergeMultiSampleWithMixedPloidy() {
+        final int start = 10;
+        final SimpleInterval loc = new SimpleInterval("20", start, start);
+        final List<Allele> vcAlleles = Arrays.asList(Aref, C, Allele.NON_REF_ALLELE);
+        final List<Genotype> genotypes = Arrays.asList(
+                new GenotypeBuilder("diploid1").alleles(Arrays.asList(Aref, C)).PL(new int[]{30, 0, 50, 40, 60, 90}).AD(new int[]{5, 6, 0}).make(),
+                new GenotypeBuilder("haploid").alleles(Collections.singletonList(C)).PL(new int[]{20, 0, 70}).AD(new int[]{1, 7, 0}).make(),
+                new GenotypeBuilder("diploid2").alleles(Arrays.asList(Aref, Aref)).PL(new int[]{0, 25, 55, 35, 65, 95}).make(),
+                new GenotypeBuilder("triploid").alleles(Arrays.asList(Aref, Aref, C)).PL(new int[]{10, 0, 20, 30, 40, 50, 60, 70, 80, 90}).make());
+        final VariantContext multiSampleVC = new VariantContextBuilder("test", "20", start, start, vcAlleles).genotypes(genotypes).make();
+        final VariantContext otherVC = new VariantContextBuilder("test2", "20", start, start, Arrays.asList(Aref, G, Allele.NON_REF_ALLELE))
+                .genotypes(new GenotypeBuilder("other").alleles(Arrays.asList(Aref, G)).PL(new int[]{40, 0, 60, 45, 65, 99}).make()).make();
+
+        final ReferenceConfidenceVariantContextMerger merger = new ReferenceConfidenceVariantContextMerger(getAnnotationEngine(), new VCFHeader());
+        final VariantContext result = merger.merge(Arrays.asList(multiSampleVC, otherVC), loc, (byte) 'A', false, false);
+        final List<Allele> targetAlleles = result.getAlleles();
+        Assert.assertEquals(targetAlleles, Arrays.asList(Aref, C, G, Allele.NON_REF_ALLELE));
+
+        final int[] indexesOfRelevantAlleles = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(vcAlleles, targetAlleles, start, genotypes.get(0), false);
+        for (final Genotype g : genotypes) {
+            final int[] genotypeIndexMap = GenotypeIndexCalculator.newToOldGenotypeMap(g.getPloidy(), indexesOfRelevantAlleles);
+            final int[] expectedPL = Arrays.stream(genotypeIndexMap).map(n -> g.getPL()[n]).toArray();
+            final Genotype merged = result.getGenotype(g.getSampleName());
+            Assert.assertEquals(merged.getPL(), expectedPL, g.getSampleName());
+            if (g.hasAD()) {
+                Assert.assertEquals(merged.getAD(), AlleleSubsettingUtils.generateAD(g.getAD(), indexesOfRelevantAlleles), g.getSampleName());
+            }
+        }
+    }
+
     @DataProvider(name = "referenceConfidenceMergeData")
     public Object[][] makeReferenceConfidenceMergeData() {
         final List<Object[]> tests = new ArrayList<>();
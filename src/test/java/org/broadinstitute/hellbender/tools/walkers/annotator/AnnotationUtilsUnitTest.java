@@ -11,6 +11,7 @@ import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -53,4 +54,24 @@ public class AnnotationUtilsUnitTest extends GATKBaseTest {
         Assert.assertTrue(bothBadWarning.contains("not called"));
         Assert.assertTrue(bothBadWarning.contains("alleleLikelihoodMap is null"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCopyAnnotations() {
+        final PossibleDeNovo deNovo = new PossibleDeNovo();
+        deNovo.parentGQThreshold = 5;
+        deNovo.depthThreshold = 7;
+        final List<Annotation> annotations = Arrays.asList(new Coverage(), deNovo);
+
+        final List<Annotation> copies = AnnotationUtils.copyAnnotations(annotations);
+        Assert.assertEquals(copies.size(), annotations.size());
+        for (int i = 0; i < annotations.size(); i++) {
+            Assert.assertNotSame(copies.get(i), annotations.get(i));
+            Assert.assertEquals(copies.get(i).getClass(), annotations.get(i).getClass());
+        }
+
+        // arguments set after construction are carried over to the copy
+        final PossibleDeNovo deNovoCopy = (PossibleDeNovo) copies.get(1);
+        Assert.assertEquals(deNovoCopy.parentGQThreshold, 5);
+        Assert.assertEquals(deNovoCopy.depthThreshold, 7);
+    }
+}
@@ -78,4 +78,28 @@ public class FlowPairHMMAlignReadsToHaplotypesIntegrationTest extends CommandLin
             IntegrationTestSpec.assertEqualTextFiles(outputFile, expectedFile, "#");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAlignmentThreads() throws IOException {
+
+        final File outputDir = createTempDir("testFlowAlignReadsThreads");
+        final File singleThreadedFile = new File(outputDir + "/read_to_hap_single.txt");
+        final File multiThreadedFile = new File(outputDir + "/read_to_hap_multi.txt");
+
+        // FlowBasedHMM aligner, single and multi threaded, should produce identical outputs
+        for ( final File outputFile : new File[] {singleThreadedFile, multiThreadedFile} ) {
+            final String[] args = new String[]{
+                    "-O", outputFile.getAbsolutePath(),
+                    "-I", testDir + "/alignReadsToHaplotypesTest.bam",
+                    "-H", testDir + "/alignReadsToHaplotypesTest.fa",
+                    "--flow-use-t0-tag",
+                    "-E", "FlowBasedHMM",
+                    "--alignment-threads", (outputFile == singleThreadedFile) ? "1" : "4"
+            };
+            runCommandLine(args);
+            Assert.assertTrue(outputFile.exists());
+        }
+
+        IntegrationTestSpec.assertEqualTextFiles(multiThreadedFile, singleThreadedFile, "#");
+    }
+}
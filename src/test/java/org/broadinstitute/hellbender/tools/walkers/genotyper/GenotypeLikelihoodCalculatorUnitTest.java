@@ -48,6 +48,104 @@ public final class GenotypeLikelihoodCalculatorUnitTest {
         }
     }
 
+    // tolerance, relative to the magnitude of the likelihood (but at least absolute), of the calculator vs. the reference
+    // computation of each genotype from its allele counts below, which may only differ in the order of summation
+    private static final double MULTIALLELIC_TOLERANCE = 1e-10;
+
+    @Test(dataProvider = "multiallelicPloidyAlleleCountAndSpreadData")
+    public void testMultiallelicLikelihoodsMatchPerGenotypeCalculation(final int ploidy, final int alleleCount, final double log10Spread) {
+        final int readCount = 40;
+        final AlleleLikelihoods<GATKRead, Allele> readLikelihoods = ReadLikelihoodsUnitTester.readLikelihoods(alleleCount, new int[] { readCount });
+        final LikelihoodMatrix<GATKRead, Allele> sampleLikelihoods = readLikelihoods.sampleMatrix(0);
+        final Random random = Utils.getRandomGenerator();
+        for (int r = 0; r < readCount; r++) {
+            final int likelyAllele = random.nextInt(alleleCount);
+            for (int a = 0; a < alleleCount; a++) {
+                // half the reads support one allele and are as unlikely as the spread allows for the others
+                final double log10Lk = a == likelyAllele ? -random.nextDouble() : (r % 2 == 0 ? -log10Spread : -random.nextDouble() * log10Spread);
+                sampleLikelihoods.set(a, r, log10Lk);
+            }
+        }
+
+        final double[] expected = perGenotypeLog10Likelihoods(ploidy, sampleLikelihoods);
+        final double[] actual = GenotypeLikelihoodCalculator.computeLog10GenotypeLikelihoods(ploidy, sampleLikelihoods);
+        Assert.assertEquals(actual.length, expected.length);
+        for (int g = 0; g < expected.length; g++) {
+            if (Double.isInfinite(expected[g])) {
+                // the rescaled sums of all the alleles of the genotype underflow for some read
+                Assert.assertEquals(actual[g], expected[g]);
+            } else {
+                Assert.assertEquals(actual[g], expected[g], MULTIALLELIC_TOLERANCE * Math.max(1, Math.abs(expected[g])));
+            }
+        }
+        if (log10Spread <= 300) {
+            Assert.assertTrue(Arrays.stream(actual).allMatch(Double::isFinite));
+        }
+    }
+
+    // the likelihood of each genotype computed from its allele counts, the multiallelic ones from rescaled, non-log likelihoods
+    private static double[] perGenotypeLog10Likelihoods(final int ploidy, final LikelihoodMatrix<GATKRead, Allele> sampleLikelihoods) {
+        final int alleleCount = sampleLikelihoods.numberOfAlleles();
+        final int readCount = sampleLikelihoods.evidenceCount();
+        final double[][] log10Lks = sampleLikelihoods.asRealMatrix().getData();
+        final double[] perReadMaxima = new double[readCount];
+        Arrays.fill(perReadMaxima, Double.NEGATIVE_INFINITY);
+        for (int a = 0; a < alleleCount; a++) {
+            for (int r = 0; r < readCount; r++) {
+                perReadMaxima[r] = Math.max(perReadMaxima[r], log10Lks[a][r]);
+            }
+        }
+        final double[][] rescaledLks = new double[alleleCount][readCount];
+        for (int a = 0; a < alleleCount; a++) {
+            for (int r = 0; r < readCount; r++) {
+                rescaledLks[a][r] = Math.pow(10.0, log10Lks[a][r] - perReadMaxima[r]);
+            }
+        }
+        final double log10Rescaling = MathUtils.sum(perReadMaxima);
+
+        final double[] result = new double[GenotypeIndexCalculator.genotypeCount(ploidy, alleleCount)];
+        for (final GenotypeAlleleCounts gac : GenotypeAlleleCounts.iterable(ploidy, alleleCount)) {
+            if (gac.distinctAlleleCount() == 1) {
+                result[gac.index()] = MathUtils.sum(log10Lks[gac.alleleIndexAt(0)]);
+            } else if (gac.distinctAlleleCount() == 2) {
+                final double[] log10Lks1 = log10Lks[gac.alleleIndexAt(0)];
+                final double[] log10Lks2 = log10Lks[gac.alleleIndexAt(1)];
+                final double log10Count1 = Math.log10(gac.alleleCountAt(0));
+                final double log10Count2 = Math.log10(gac.alleleCountAt(1));
+                double sum = 0;
+                for (int r = 0; r < readCount; r++) {
+                    sum += MathUtils.approximateLog10SumLog10(log10Lks1[r] + log10Count1, log10Lks2[r] + log10Count2);
+                }
+                result[gac.index()] = sum - readCount * Math.log10(ploidy);
+            } else {
+                final double[] perReadSums = new double[readCount];
+                gac.forEachAlleleIndexAndCount((a, f) -> {
+                    for (int r = 0; r < readCount; r++) {
+                        perReadSums[r] += f * rescaledLks[a][r];
+                    }
+                });
+                double sum = 0;
+                for (int r = 0; r < readCount; r++) {
+                    sum += Math.log10(perReadSums[r]);
+                }
+                result[gac.index()] = sum - readCount * Math.log10(ploidy) + log10Rescaling;
+            }
+        }
+        return result;
+    }
+
+    @DataProvider(name = "multiallelicPloidyAlleleCountAndSpreadData")
+    public Object[][] multiallelicPloidyAlleleCountAndSpreadData() {
+        final List<Object[]> result = new ArrayList<>();
+        for (int ploidy = 3; ploidy <= 6; ploidy++) {
+            for (int alleleCount = 3; alleleCount <= 6; alleleCount++) {
+                for (final double log10Spread : new double[] { 1, 30, 300, 400 }) {
+                    result.add(new Object[] { ploidy, alleleCount, log10Spread });
+                }
+            }
+        }
+        return result.toArray(new Object[0][]);
+    }
 
     private static final int[] MAXIMUM_ALLELE = { 1, 2, 5, 6};
 
@@ -6,6 +6,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 public final class GenotypesCacheUnitTest extends GATKBaseTest {
 
@@ -52,4 +53,44 @@ public final class GenotypesCacheUnitTest extends GATKBaseTest {
         Assert.assertTrue(nextNext.equals(GenotypesCache.get(ploidy, genotypeIndex+2)));
     }
 
+    @Test
+    public void testGenotypesBeyondCache() {
+        for (final int ploidy : new int[] {1, 2, 3, 10}) {
+            GenotypeAlleleCounts expected = GenotypeAlleleCounts.first(ploidy);
+            for (int index = 0; index < GenotypesCache.MAX_CACHE_SIZE + 1000; index++) {
+                final GenotypeAlleleCounts gac = GenotypesCache.get(ploidy, index);
+                Assert.assertEquals(gac, expected);
+                Assert.assertEquals(gac.index(), index);
+                expected = expected.next();
+            }
+        }
+    }
+
+    @Test
+    public void testCachedGenotypesAreShared() {
+        final int ploidy = 5;
+        final GenotypeAlleleCounts first = GenotypesCache.get(ploidy, 3);
+        Assert.assertSame(GenotypesCache.get(ploidy, 3), first);
+
+        // extending the cache keeps the genotypes already cached
+        GenotypesCache.get(ploidy, GenotypesCache.MAX_CACHE_SIZE - 1);
+        Assert.assertSame(GenotypesCache.get(ploidy, 3), first);
+        Assert.assertSame(GenotypesCache.get(ploidy, GenotypesCache.MAX_CACHE_SIZE - 1), GenotypesCache.get(ploidy, GenotypesCache.MAX_CACHE_SIZE - 1));
+    }
+
+    @Test
+    public void testConcurrentAccess() {
+        final int ploidy = 7;
+        final int numGenotypes = 2 * GenotypesCache.MAX_CACHE_SIZE;
+        final GenotypeAlleleCounts[] expected = new GenotypeAlleleCounts[numGenotypes];
+        expected[0] = GenotypeAlleleCounts.first(ploidy);
+        for (int n = 1; n < numGenotypes; n++) {
+            expected[n] = expected[n - 1].next();
+        }
+
+        IntStream.range(0, 4 * numGenotypes).parallel().forEach(n -> {
+            final int index = (int) ((n * 7919L) % numGenotypes);
+            Assert.assertEquals(GenotypesCache.get(ploidy, index), expected[index]);
+        });
+    }
 }
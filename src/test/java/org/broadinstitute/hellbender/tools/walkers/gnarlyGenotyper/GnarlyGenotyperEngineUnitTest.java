@@ -58,6 +58,34 @@ public class GnarlyGenotyperEngineUnitTest {
         Assert.assertFalse(genotypesNoPl.get(1).hasPL());
     }
 
+    @Test
+    public void testAlleleCountsWithoutEmittingGenotypes() {
+        final GnarlyGenotyperEngine emittingEngine = new GnarlyGenotyperEngine(false, 4, true, true);
+        final GnarlyGenotyperEngine sitesOnlyEngine = new GnarlyGenotyperEngine(false, 4, true, true, false);
+
+        final Genotype g1 = VariantContextTestUtils.makeG("g1", oneInserted, twoInserted, sample1pls);
+        final Genotype g2 = VariantContextTestUtils.makeG("g2", Aref, oneInserted, sample2pls);
+        final VariantContext vc = VariantContextTestUtils.makeVC("test", Arrays.asList(Aref, oneInserted, twoInserted, threeInserted, fourRepeats, fiveRepeats), g1, g2);
+        final List<Allele> targetAlleles = Arrays.asList(Aref, oneInserted, twoInserted, threeInserted, fourRepeats);
+
+        final Map<Allele, Integer> expectedAlleleCounts = new HashMap<>();
+        final int[] expectedSbSum = new int[4];
+        final int[] expectedRawGenotypeCounts = new int[3];
+        final GenotypesContext genotypes = emittingEngine.iterateOnGenotypes(vc, targetAlleles,
+                expectedAlleleCounts, expectedSbSum, false, true, expectedRawGenotypeCounts);
+        Assert.assertEquals(genotypes.size(), 2);
+
+        final Map<Allele, Integer> alleleCounts = new HashMap<>();
+        final int[] sbSum = new int[4];
+        final int[] rawGenotypeCounts = new int[3];
+        final GenotypesContext noGenotypes = sitesOnlyEngine.iterateOnGenotypes(vc, targetAlleles,
+                alleleCounts, sbSum, false, true, rawGenotypeCounts);
+        Assert.assertTrue(noGenotypes.isEmpty());
+        Assert.assertEquals(alleleCounts, expectedAlleleCounts);
+        Assert.assertEquals(sbSum, expectedSbSum);
+        Assert.assertEquals(rawGenotypeCounts, expectedRawGenotypeCounts);
+    }
+
     //use more alts than the maxAltAllelesToOutput for the engine, forcing on-the-fly generation of GLCalculator not in the cache
     @Test
     public void testGenotypeCallForLotsOfAlts() {
@@ -2,6 +2,7 @@ package org.broadinstitute.hellbender.tools.walkers.groundtruth;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.testutils.IntegrationTestSpec;
 import org.broadinstitute.hellbender.tools.walkers.variantrecalling.FlowTestConstants;
 import org.testng.Assert;
@@ -9,6 +10,7 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
 public class GroundTruthScorerIntegrationTest extends CommandLineProgramTest {
 
@@ -169,6 +171,73 @@ public class GroundTruthScorerIntegrationTest extends CommandLineProgramTest {
         }
     }
 
+    @Test
+    public void testScoringThreads() throws IOException {
+
+        final File outputDir = createTempDir("testGroundTruthTest");
+        final File expectedFile = new File(testDir + "/" + OUTPUT_FILENAME);
+        final File reportExpectedFile = new File(testDir + "/" + OUTPUT_FILENAME_REPORT);
+        final File outputFile = new File(outputDir + "/" + OUTPUT_FILENAME);
+        final File reportFile = new File(outputDir + "/" + OUTPUT_FILENAME_REPORT);
+
+        final String[] args = ArrayUtils.addAll(buildCommonArgs(outputFile, GT_SCORER_INPUT_BAM, true),
+                new String[] {
+                        "--report-file", reportFile.getAbsolutePath(),
+                        "--omit-zeros-from-report",
+                        "--quality-percentiles", "0,20,50,90,99,100",
+                        "--scoring-threads", "4"
+                });
+
+        runCommandLine(args);  // no assert, just make sure we don't throw
+
+        // multi-threaded output should be identical to single threaded output
+        IntegrationTestSpec.assertEqualTextFiles(outputFile, expectedFile);
+        IntegrationTestSpec.assertEqualTextFiles(reportFile, reportExpectedFile);
+    }
+
+    @Test
+    public void testGatherReportState() throws IOException {
+
+        final File outputDir = createTempDir("testGroundTruthTest");
+        final File reportExpectedFile = new File(testDir + "/" + OUTPUT_FILENAME_REPORT);
+        final File outputFile = new File(outputDir + "/" + OUTPUT_FILENAME);
+        final File stateFile = new File(outputDir + "/" + "ground_truth_scorer_output_report.state");
+        final File reportFile = new File(outputDir + "/" + OUTPUT_FILENAME_REPORT);
+
+        final String[] args = ArrayUtils.addAll(buildCommonArgs(outputFile, GT_SCORER_INPUT_BAM, true),
+                new String[] {
+                        "--report-state-file", stateFile.getAbsolutePath()
+                });
+
+        runCommandLine(args);  // no assert, just make sure we don't throw
+        Assert.assertTrue(stateFile.exists());
+
+        // gathering a single state should generate the report the scorer would have
+        final String[] gatherArgs = new String[] {
+                "-I", stateFile.getAbsolutePath(),
+                "-O", reportFile.getAbsolutePath(),
+                "--omit-zeros-from-report",
+                "--quality-percentiles", "0,20,50,90,99,100"
+        };
+        runCommandLine(Arrays.asList(gatherArgs), GatherGroundTruthScorerReports.class.getSimpleName());
+
+        IntegrationTestSpec.assertEqualTextFiles(reportFile, reportExpectedFile);
+    }
+
+    @Test(expectedExceptions = UserException.CouldNotReadInputFile.class)
+    public void testGatherInvalidReportState() throws IOException {
+
+        final File outputDir = createTempDir("testGroundTruthTest");
+        final File reportFile = new File(outputDir + "/" + OUTPUT_FILENAME_REPORT);
+
+        // a final report is not a report state
+        final String[] gatherArgs = new String[] {
+                "-I", testDir + "/" + OUTPUT_FILENAME_REPORT,
+                "-O", reportFile.getAbsolutePath()
+        };
+        runCommandLine(Arrays.asList(gatherArgs), GatherGroundTruthScorerReports.class.getSimpleName());
+    }
+
     private String[] buildCommonArgs(final File outputFile, final String inputFile, boolean smallInterval) {
 
         return new String[] {
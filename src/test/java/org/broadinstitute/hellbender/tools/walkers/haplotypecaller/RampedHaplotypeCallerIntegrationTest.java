@@ -103,6 +103,29 @@ public class RampedHaplotypeCallerIntegrationTest extends CommandLineProgramTest
         }
     }
 
+    @Test
+    public void testIndexedRampRoundTrip() throws Exception {
+        final File input = new File(largeFileTestDir, "input_jukebox_for_test.bam");
+        final File offramp = createTempFile("offramp", ".ramp");
+        final File output = createTempFile("output", ".vcf");
+        final File expected = new File(TEST_FILES_DIR, "ramps/test_post_assembler_output.expected.vcf");
+
+        // write an indexed off ramp
+        final ArgumentsBuilder offArgs = buildCommonArguments(input, createTempFile("offramp_output", ".vcf").getAbsolutePath());
+        offArgs.add("off-ramp-type", "POST_ASSEMBLER_OFF");
+        offArgs.add("off-ramp-file", offramp.getAbsolutePath());
+        offArgs.add("off-ramp-format", "INDEXED");
+        runCommandLine(offArgs);
+
+        // on ramp from it, should produce the same output as when on ramping from a zip ramp
+        final ArgumentsBuilder onArgs = buildCommonArguments(input, output.getAbsolutePath());
+        onArgs.add("on-ramp-type", "POST_ASSEMBLER_ON");
+        onArgs.add("on-ramp-file", offramp.getAbsolutePath());
+        runCommandLine(onArgs);
+
+        IntegrationTestSpec.assertEqualTextFiles(output, expected);
+    }
+
     private ArgumentsBuilder buildCommonArguments(File input, String outputPath) {
 
         final ArgumentsBuilder args = new ArgumentsBuilder()
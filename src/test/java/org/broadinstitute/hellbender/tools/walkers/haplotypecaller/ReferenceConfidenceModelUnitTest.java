@@ -16,6 +16,8 @@ import org.broadinstitute.hellbender.tools.walkers.genotyper.IndependentSampleGe
 import org.broadinstitute.hellbender.tools.walkers.genotyper.PloidyModel;
 import org.broadinstitute.hellbender.utils.GenomeLoc;
 import org.broadinstitute.hellbender.utils.GenomeLocParser;
+import org.broadinstitute.hellbender.utils.MathUtils;
+import org.broadinstitute.hellbender.utils.QualityUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.clipping.ReadClipper;
@@ -882,4 +884,47 @@ public final class ReferenceConfidenceModelUnitTest extends GATKBaseTest {
         checkReferenceModelResult(data, contexts, expectedDPs, calls);
     }
 
+    @Test
+    public void testCalcGenotypeLikelihoodsOfRefVsAnyMatchesPerElementCalculation() {
+        final byte refBase = 'A';
+        // mixed ref and alt elements; qualities of 128 and above are negative bytes, and are not in the per-quality table
+        final byte[] bases = {'A', 'C', 'A', 'G', 'A', 'T', 'A', 'C', 'A', 'A', 'T', 'A'};
+        final byte[] quals = {30, 30, 0, 12, 45, 60, 2, (byte) 200, (byte) 255, 20, (byte) 140, 127};
+        final List<GATKRead> reads = new ArrayList<>();
+        for (int i = 0; i < bases.length; i++) {
+            reads.add(ArtificialReadUtils.createArtificialRead(header, "read" + i, 0, 10, new byte[] {bases[i]}, new byte[] {quals[i]}, "1M"));
+        }
+        final ReadPileup pileup = new ReadPileup(new SimpleInterval(header.getSequence(0).getSequenceName(), 10, 10), reads, 0);
+
+        // the per-quality likelihood table grows past its initial capacity for ploidies above 20, and is then reused
+        for (final int ploidy : new int[] {1, 2, 25, 2, 60}) {
+            final RefVsAnyResult result = (RefVsAnyResult) model.calcGenotypeLikelihoodsOfRefVsAny(ploidy, pileup, refBase, Byte.MIN_VALUE, null, false);
+
+            final double log10Ploidy = Math.log10(ploidy);
+            final double[] expected = new double[ploidy + 1];
+            int expectedNonRefDepth = 0;
+            for (int e = 0; e < bases.length; e++) {
+                final boolean isAlt = bases[e] != refBase;
+                expectedNonRefDepth += isAlt ? 1 : 0;
+                final double referenceLikelihood = isAlt ? QualityUtils.qualToErrorProbLog10(quals[e]) + MathUtils.LOG10_ONE_THIRD : QualityUtils.qualToProbLog10(quals[e]);
+                final double nonRefLikelihood = isAlt ? QualityUtils.qualToProbLog10(quals[e]) : QualityUtils.qualToErrorProbLog10(quals[e]) + MathUtils.LOG10_ONE_THIRD;
+                expected[0] += referenceLikelihood + log10Ploidy;
+                expected[ploidy] += nonRefLikelihood + log10Ploidy;
+                for (int i = 1; i < ploidy; i++) {
+                    expected[i] += MathUtils.approximateLog10SumLog10(referenceLikelihood + Math.log10(ploidy - i), nonRefLikelihood + Math.log10(i));
+                }
+            }
+            for (int i = 0; i <= ploidy; i++) {
+                expected[i] -= bases.length * log10Ploidy;
+            }
+
+            Assert.assertEquals(result.nonRefDepth, expectedNonRefDepth);
+            Assert.assertEquals(result.refDepth, bases.length - expectedNonRefDepth);
+            Assert.assertEquals(result.genotypeLikelihoods.length, ploidy + 1);
+            for (int i = 0; i <= ploidy; i++) {
+                Assert.assertEquals(result.genotypeLikelihoods[i], expected[i], 1e-10, "ploidy " + ploidy + ", genotype " + i);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,62 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+public class RunLengthEncodedBasesUnitTest extends GATKBaseTest {
+
+    @DataProvider(name = "encodeDataProvider")
+    public Object[][] encodeDataProvider() {
+        return new Object[][] {
+                { "", 0 },
+                { "A", 1 },
+                { "AAAA", 1 },
+                { "ACGT", 4 },
+                { "CCAATTGG", 4 },
+                { "CCAAAAAAAAAAAAATTGGA", 5 },
+        };
+    }
+
+    @Test(dataProvider = "encodeDataProvider")
+    public void testEncode(final String bases, final int expectedRunCount) {
+
+        final RunLengthEncodedBases runs = RunLengthEncodedBases.encode(bases.getBytes());
+
+        Assert.assertEquals(runs.getRunCount(), expectedRunCount);
+        Assert.assertEquals(runs.getLength(), bases.length());
+        Assert.assertEquals(new String(runs.decode()), bases);
+        Assert.assertEquals(runs.hashCode(), Arrays.hashCode(bases.getBytes()));
+        Assert.assertEquals(runs, RunLengthEncodedBases.encode(bases.getBytes()));
+    }
+
+    @DataProvider(name = "collapseDataProvider")
+    public Object[][] collapseDataProvider() {
+        return new Object[][] {
+                { "CCAATTGG", 3, "CCAATTGG" },
+                { "CCAAAAATTGG", 3, "CCAAATTGG" },
+                { "CCCCCAAAAATTGGGGG", 3, "CCCCCAAATTGGG" },      // first homopolymer is not collapsed
+                { "AAAAAAAA", 3, "AAAAAAAA" },
+        };
+    }
+
+    @Test(dataProvider = "collapseDataProvider")
+    public void testCollapse(final String bases, final int threshold, final String expected) {
+
+        final RunLengthEncodedBases collapsed = RunLengthEncodedBases.encode(bases.getBytes()).collapse(threshold);
+
+        Assert.assertEquals(new String(collapsed.decode()), expected);
+        Assert.assertEquals(collapsed.getLength(), expected.length());
+        Assert.assertEquals(collapsed.hashCode(), Arrays.hashCode(expected.getBytes()));
+        Assert.assertEquals(collapsed, RunLengthEncodedBases.encode(expected.getBytes()));
+    }
+
+    @Test
+    public void testNotEqual() {
+        Assert.assertNotEquals(RunLengthEncodedBases.encode("AACC".getBytes()), RunLengthEncodedBases.encode("AACCC".getBytes()));
+        Assert.assertNotEquals(RunLengthEncodedBases.encode("AACC".getBytes()), RunLengthEncodedBases.encode("AAGG".getBytes()));
+    }
+}
@@ -0,0 +1,84 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.ramps;
+
+import htsjdk.samtools.seekablestream.SeekableStream;
+import org.apache.commons.io.IOUtils;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class IndexedRampArchiveUnitTest extends GATKBaseTest {
+
+    @Test
+    public void testWriteRead() throws IOException {
+
+        final File archiveFile = createTempFile("ramp", ".idx");
+        final Path payloadPath = createTempFile("payload", ".bin").toPath();
+        Files.write(payloadPath, "0123456789".getBytes(StandardCharsets.US_ASCII));
+
+        try ( final IndexedRampArchive.Writer writer = new IndexedRampArchive.Writer(archiveFile) ) {
+            writer.addEntry("info.json", "{}".getBytes(StandardCharsets.US_ASCII));
+            writer.addEntry("chr1-100-200/haplotypes", "h1,h2".getBytes(StandardCharsets.US_ASCII));
+            writer.addEntry("empty", new byte[0]);
+            writer.addEntry("payload", payloadPath);
+        }
+        Assert.assertTrue(IndexedRampArchive.isIndexedRampArchive(archiveFile));
+
+        try ( final IndexedRampArchive.Reader reader = new IndexedRampArchive.Reader(archiveFile) ) {
+
+            // entries are accessible in any order
+            Assert.assertEquals(readEntry(reader, "payload"), "0123456789");
+            Assert.assertEquals(readEntry(reader, "chr1-100-200/haplotypes"), "h1,h2");
+            Assert.assertEquals(readEntry(reader, "info.json"), "{}");
+            Assert.assertEquals(readEntry(reader, "empty"), "");
+            Assert.assertTrue(reader.hasEntry("info.json"));
+            Assert.assertFalse(reader.hasEntry("chr1-100-201/haplotypes"));
+            Assert.assertThrows(IOException.class, () -> reader.getEntry("no-such-entry"));
+
+            // seekable access
+            final SeekableStream stream = reader.getSeekableEntry("payload");
+            Assert.assertEquals(stream.length(), 10);
+            stream.seek(7);
+            Assert.assertEquals(stream.read(), '7');
+            Assert.assertEquals(stream.position(), 8);
+            final byte[] buffer = new byte[4];
+            Assert.assertEquals(stream.read(buffer, 0, buffer.length), 2);
+            Assert.assertTrue(stream.eof());
+            Assert.assertEquals(stream.read(), -1);
+        }
+    }
+
+    @Test
+    public void testDuplicateEntry() throws IOException {
+        final File archiveFile = createTempFile("ramp", ".idx");
+        try ( final IndexedRampArchive.Writer writer = new IndexedRampArchive.Writer(archiveFile) ) {
+            writer.addEntry("info.json", new byte[1]);
+            Assert.assertThrows(IOException.class, () -> writer.addEntry("info.json", new byte[1]));
+        }
+    }
+
+    @Test
+    public void testZipIsNotIndexed() throws IOException {
+        final File zipFile = createTempFile("ramp", ".zip");
+        try ( final ZipOutputStream os = new ZipOutputStream(Files.newOutputStream(zipFile.toPath())) ) {
+            os.putNextEntry(new ZipEntry("info.json"));
+            os.write("{\"regions\":[]}".getBytes(StandardCharsets.US_ASCII));
+            os.closeEntry();
+        }
+        Assert.assertFalse(IndexedRampArchive.isIndexedRampArchive(zipFile));
+    }
+
+    private static String readEntry(final IndexedRampArchive.Reader reader, final String name) throws IOException {
+        try ( final InputStream is = reader.getEntry(name) ) {
+            return new String(IOUtils.toByteArray(is), StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -469,6 +469,28 @@ public class Mutect2IntegrationTest extends CommandLineProgramTest {
 
     }
 
+    // calls made with region threads must not depend on the number of threads
+    @Test
+    public void testRegionThreadsAreDeterministic() {
+        final String interval = "20:10000000-10100000";
+
+        final File singleThreadCalls = createTempFile("unfiltered", ".vcf");
+        runMutect2(DREAM_3_TUMOR, DREAM_3_NORMAL, singleThreadCalls, interval, b37Reference, Optional.of(GNOMAD),
+                args -> args.add(Mutect2.REGION_THREADS_LONG_NAME, 1));
+
+        final File multiThreadCalls = createTempFile("unfiltered", ".vcf");
+        runMutect2(DREAM_3_TUMOR, DREAM_3_NORMAL, multiThreadCalls, interval, b37Reference, Optional.of(GNOMAD),
+                args -> args.add(Mutect2.REGION_THREADS_LONG_NAME, 4));
+
+        final List<VariantContext> expected = VariantContextTestUtils.streamVcf(singleThreadCalls).collect(Collectors.toList());
+        final List<VariantContext> actual = VariantContextTestUtils.streamVcf(multiThreadCalls).collect(Collectors.toList());
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int n = 0; n < expected.size(); n++) {
+            VariantContextTestUtils.assertVariantContextsAreEqual(actual.get(n), expected.get(n), Collections.emptyList(), Collections.emptyList());
+        }
+    }
+
 
     // make sure that force calling with given alleles that normally wouldn't be called due to complete lack of coverage
     // doesn't run into any edge case bug involving empty likelihoods matrices
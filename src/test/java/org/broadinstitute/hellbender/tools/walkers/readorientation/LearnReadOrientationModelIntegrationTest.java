@@ -160,6 +160,41 @@ public class LearnReadOrientationModelIntegrationTest extends CommandLineProgram
         Assert.assertTrue(new File(extractedPriorsDir, sample2 + LearnReadOrientationModel.ARTIFACT_PRIOR_EXTENSION).exists());
     }
 
+    // the priors learned with multiple threads must be identical to those learned with a single thread
+    @Test
+    public void testMultipleThreads() throws Exception {
+        final File countsTarGz = createTempFile("counts", ".tar.gz");
+        final String sample1 = "SAMPLE1";
+        final String sample2 = "SAMPLE2";
+        final File sam1 = CollectF1R2CountsIntegrationTest.createSyntheticSam(10, 1, sample1);
+        final File sam2 = CollectF1R2CountsIntegrationTest.createSyntheticSam(20, 2, sample2);
+
+        new Main().instanceMain(makeCommandLineArgs(Arrays.asList(
+                "-R", hg19_chr1_1M_Reference, "-I", sam1.getAbsolutePath(), "-I", sam2.getAbsolutePath(), "-O", countsTarGz.getAbsolutePath()),
+                CollectF1R2Counts.class.getSimpleName()));
+
+        final List<File> extractedPriorsDirs = new ArrayList<>();
+        for (final int threads : new int[] {1, 4}) {
+            final File priorsTarGz = createTempFile("priors", ".tar.gz");
+            final ArgumentsBuilder args = new ArgumentsBuilder()
+                    .add(StandardArgumentDefinitions.INPUT_LONG_NAME, countsTarGz.getAbsolutePath())
+                    .add(StandardArgumentDefinitions.OUTPUT_LONG_NAME, priorsTarGz.getAbsolutePath())
+                    .add(LearnReadOrientationModel.LEARNING_THREADS_LONG_NAME, threads);
+
+            runCommandLine(args, LearnReadOrientationModel.class.getSimpleName());
+
+            final File extractedPriorsDir = createTempDir("extracted");
+            IOUtils.extractTarGz(priorsTarGz.toPath(), extractedPriorsDir.toPath());
+            extractedPriorsDirs.add(extractedPriorsDir);
+        }
+
+        for (final String sample : Arrays.asList(sample1, sample2)) {
+            final String priorsFile = sample + LearnReadOrientationModel.ARTIFACT_PRIOR_EXTENSION;
+            Assert.assertEquals(Files.readAllLines(new File(extractedPriorsDirs.get(1), priorsFile).toPath()),
+                    Files.readAllLines(new File(extractedPriorsDirs.get(0), priorsFile).toPath()));
+        }
+    }
+
     // make sure that nothing goes wrong if the target territory is so small that no data exists for some contexts
     @Test
     public void testFewSites() throws IOException {
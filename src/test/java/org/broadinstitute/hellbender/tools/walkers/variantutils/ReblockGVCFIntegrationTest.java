@@ -25,6 +25,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class ReblockGVCFIntegrationTest extends CommandLineProgramTest {
 
@@ -341,6 +342,48 @@ public class ReblockGVCFIntegrationTest extends CommandLineProgramTest {
         }
     }
 
+    @DataProvider(name = "reblockingBatchSizes")
+    public Object[][] reblockingBatchSizes() {
+        return IntStream.rangeClosed(1, 10).mapToObj(n -> new Object[]{n}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "reblockingBatchSizes")
+    public void testReblockingThreads(final int batchSize) {
+        //small batches end within contigs, next to reference blocks and deletions, and are reblocked on different threads
+        assertReblockingThreadsMatchSingleThread(getToolTestDataDir() + "noCallGTs.g.vcf", 2, batchSize);
+    }
+
+    @Test
+    public void testReblockingThreadsWithLazilyDecodedVcf() {
+        //many batches of records from a VCF, whose genotypes are decoded lazily, are reblocked concurrently
+        assertReblockingThreadsMatchSingleThread(getToolTestDataDir() + "prod.chr20snippet.withRawMQ.g.vcf", 4, 20);
+    }
+
+    private void assertReblockingThreadsMatchSingleThread(final String input, final int threads, final int batchSize) {
+        final File output = createTempFile("reblocking-threads", ".vcf");
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.add("V", input)
+                .add(ReblockGVCF.REBLOCKING_THREADS_LONG_NAME, threads)
+                .add(ReblockGVCF.REBLOCKING_BATCH_SIZE_LONG_NAME, batchSize)
+                .addReference(hg38Reference)
+                .addOutput(output);
+        runCommandLine(args);
+
+        final File output2 = createTempFile("single-thread", ".vcf");
+        final ArgumentsBuilder args2 = new ArgumentsBuilder();
+        args2.add("V", input)
+                .addReference(hg38Reference)
+                .addOutput(output2);
+        runCommandLine(args2);
+
+        try (final FeatureDataSource<VariantContext> actualVcs = new FeatureDataSource<>(output);
+             final FeatureDataSource<VariantContext> expectedVcs = new FeatureDataSource<>(output2)) {
+            GATKBaseTest.assertCondition(actualVcs, expectedVcs,
+                    (a, e) -> VariantContextTestUtils.assertVariantContextsAreEqual(a, e,
+                            Collections.emptyList(), Collections.emptyList()));
+        }
+    }
+
     @Test(expectedExceptions = UserException.class)
     //ReblockGVCF can take multiple inputs, but only if they're non-overlapping shards from the same sample
     public void testMixedSamples() {
@@ -0,0 +1,181 @@
+package org.broadinstitute.hellbender.utils;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public final class OrderedTaskPoolUnitTest extends GATKBaseTest {
+
+    // a thread resource recording whether it was closed, and whether that was while a task was using it
+    private static final class TestResource implements AutoCloseable {
+        private final AtomicInteger inUse = new AtomicInteger();
+        private volatile boolean closed = false;
+        private volatile boolean closedInUse = false;
+
+        @Override
+        public void close() {
+            closedInUse = inUse.get() > 0;
+            closed = true;
+        }
+    }
+
+    @DataProvider(name = "threads")
+    public Object[][] threads() {
+        return new Object[][] { {1}, {2}, {4} };
+    }
+
+    @Test(dataProvider = "threads")
+    public void testResultsAreConsumedInSubmissionOrder(final int threads) {
+        final List<Integer> consumed = new ArrayList<>();
+        try (final OrderedTaskPool<Integer> pool = new OrderedTaskPool<>(threads, 1, consumed::add, "test")) {
+            for (int i = 0; i < 50; i++) {
+                final int task = i;
+                // earlier tasks take longer, so that later ones tend to complete first
+                pool.submit(() -> {
+                    sleep((50 - task) % 7);
+                    return task;
+                });
+                // at most the bound of pending tasks is not consumed yet
+                Assert.assertTrue(task + 1 - consumed.size() <= threads * OrderedTaskPool.PENDING_TASKS_PER_THREAD);
+            }
+            pool.finish();
+        }
+        Assert.assertEquals(consumed, IntStream.range(0, 50).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testHeavyTasksBoundPendingTasks() {
+        final List<Integer> consumed = new ArrayList<>();
+        try (final OrderedTaskPool<Integer> pool = new OrderedTaskPool<>(2, 10, consumed::add, "test")) {
+            // the pool holds up to 80 pending weight, so a task of weight 100 has to be consumed as soon as it is submitted
+            pool.submit(100, () -> 0);
+            Assert.assertEquals(consumed, List.of(0));
+            pool.submit(10, () -> 1);
+            pool.finish();
+        }
+        Assert.assertEquals(consumed, List.of(0, 1));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testRuntimeExceptionOfTaskIsRethrown() {
+        try (final OrderedTaskPool<Integer> pool = new OrderedTaskPool<>(2, 1, result -> {}, "test")) {
+            pool.submit(() -> 0);
+            pool.submit(() -> { throw new IllegalStateException("task failed"); });
+            pool.submit(() -> 2);
+            pool.finish();
+        }
+    }
+
+    @Test(expectedExceptions = GATKException.class)
+    public void testErrorOfTaskIsWrapped() {
+        try (final OrderedTaskPool<Integer> pool = new OrderedTaskPool<>(2, 1, result -> {}, "test")) {
+            pool.submit(() -> { throw new AssertionError("task failed"); });
+            pool.finish();
+        }
+    }
+
+    @Test(dataProvider = "threads")
+    public void testThreadResourcesAreClosed(final int threads) {
+        final List<TestResource> resources = new ArrayList<>();
+        try (final OrderedTaskPool<Integer> pool = new OrderedTaskPool<>(threads, 1, result -> {}, "test")) {
+            final ThreadLocal<TestResource> threadResource = pool.threadLocal(() -> {
+                final TestResource resource = new TestResource();
+                synchronized (resources) {
+                    resources.add(resource);
+                }
+                return resource;
+            });
+            for (int i = 0; i < 20; i++) {
+                pool.submit(() -> {
+                    Assert.assertFalse(threadResource.get().closed);
+                    return 0;
+                });
+            }
+            pool.finish();
+            Assert.assertTrue(resources.size() >= 1 && resources.size() <= threads);
+            resources.forEach(r -> Assert.assertFalse(r.closed));
+        }
+        resources.forEach(r -> Assert.assertTrue(r.closed));
+    }
+
+    @Test
+    public void testThreadResourcesAreClosedOnceRunningTasksComplete() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        final List<TestResource> resources = new ArrayList<>();
+        final OrderedTaskPool<Integer> pool = new OrderedTaskPool<>(1, 1, result -> {}, "test");
+        final ThreadLocal<TestResource> threadResource = pool.threadLocal(() -> {
+            final TestResource resource = new TestResource();
+            resources.add(resource);
+            return resource;
+        });
+        pool.submit(() -> {
+            final TestResource resource = threadResource.get();
+            resource.inUse.incrementAndGet();
+            started.countDown();
+            // keeps running, and using its resource, after the pool is closed
+            sleepUninterruptibly(200);
+            resource.inUse.decrementAndGet();
+            completed.set(true);
+            return 0;
+        });
+        started.await();
+        pool.close();
+
+        Assert.assertTrue(completed.get());
+        Assert.assertEquals(resources.size(), 1);
+        Assert.assertTrue(resources.get(0).closed);
+        Assert.assertFalse(resources.get(0).closedInUse);
+    }
+
+    @Test
+    public void testThreadLocalMayBeNull() {
+        final List<Boolean> consumed = new ArrayList<>();
+        try (final OrderedTaskPool<Boolean> pool = new OrderedTaskPool<>(2, 1, consumed::add, "test")) {
+            final ThreadLocal<TestResource> threadResource = pool.threadLocal(() -> null);
+            pool.submit(() -> threadResource.get() == null);
+            pool.finish();
+        }
+        Assert.assertEquals(consumed, List.of(true));
+    }
+
+    @Test
+    public void testLocationSeed() {
+        final SimpleInterval loc = new SimpleInterval("1", 100, 200);
+        Assert.assertEquals(OrderedTaskPool.locationSeed(loc), OrderedTaskPool.locationSeed(new SimpleInterval("1", 100, 200)));
+        Assert.assertNotEquals(OrderedTaskPool.locationSeed(loc), OrderedTaskPool.locationSeed(new SimpleInterval("2", 100, 200)));
+        Assert.assertNotEquals(OrderedTaskPool.locationSeed(loc), OrderedTaskPool.locationSeed(new SimpleInterval("1", 101, 200)));
+        Assert.assertNotEquals(OrderedTaskPool.locationSeed(loc), OrderedTaskPool.locationSeed(new SimpleInterval("1", 100, 201)));
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            throw new GATKException("interrupted", e);
+        }
+    }
+
+    // the pool interrupts running tasks when closed, so keep sleeping until the time is up
+    private static void sleepUninterruptibly(final long millis) {
+        final long end = System.currentTimeMillis() + millis;
+        long remaining;
+        while ((remaining = end - System.currentTimeMillis()) > 0) {
+            try {
+                Thread.sleep(remaining);
+            } catch (final InterruptedException e) {
+                // keep running, as a task ignoring interrupts would
+            }
+        }
+    }
+}
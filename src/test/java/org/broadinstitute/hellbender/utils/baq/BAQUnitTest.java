@@ -23,6 +23,7 @@ import org.testng.annotations.Test;
 import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public final class BAQUnitTest extends GATKBaseTest {
@@ -163,6 +164,23 @@ public final class BAQUnitTest extends GATKBaseTest {
         }
     }
 
+    @Test
+    public void testBAQWithReusedMatrices() {
+        // fill the (per thread) hmm matrices with the values of a longer read, then check the results of shorter reads
+        final BAQ baqHMM = new BAQ(1.0e-3, 0.1, 7, (byte) 4);
+        final String longRef = Strings.repeat("ACGTTGCAAC", 30);
+        final String longRead = longRef.substring(5, 150) + "GG" + longRef.substring(150, 290);
+        final byte[] longQuals = new byte[longRead.length()];
+        Arrays.fill(longQuals, (byte) 30);
+        baqHMM.calcBAQFromHMM(longRef.getBytes(), longRead.getBytes(), longQuals, 0, longRead.length() - 1);
+
+        for (final Object[] test : createData1()) {
+            if (((BAQTest) test[0]).refBases != null) {
+                testBAQ((BAQTest) test[0], false, null);
+            }
+        }
+    }
+
     @Test
     public void testBAQQualRange() {
         BAQ baq = new BAQ(1.0e-3, 0.1, 7, (byte) 4);         // matches current samtools parameters
@@ -12,6 +12,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.*;
+import java.util.function.IntFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -128,6 +129,56 @@ public final class AlleleLikelihoodsUnitTest {
         }
     }
 
+    @Test(dataProvider = "dataSets")
+    public void testCachedBestAlleles(final String[] samples, final Allele[] alleles, final Map<String,List<GATKRead>> reads) {
+        final AlleleLikelihoods<GATKRead, Allele> original = new AlleleLikelihoods<>(new IndexedSampleList(samples), new IndexedAlleleList<>(alleles), reads);
+        fillWithRandomLikelihoods(samples,alleles,original);
+
+        Assert.assertTrue(original.startCachingBestAlleles());
+        Assert.assertFalse(original.startCachingBestAlleles());
+        for (final String sample : samples) {
+            final Collection<AlleleLikelihoods<GATKRead, Allele>.BestAllele> cached = original.bestAllelesBreakingTies(sample);
+            Assert.assertSame(original.bestAllelesBreakingTies(sample), cached);
+            original.stopCachingBestAlleles();
+            assertSameBestAlleles(cached, original.bestAllelesBreakingTies(sample));
+            original.startCachingBestAlleles();
+        }
+
+        // removing evidence invalidates the cached best alleles
+        final Collection<AlleleLikelihoods<GATKRead, Allele>.BestAllele> beforeRemoval = original.bestAllelesBreakingTies();
+        original.retainEvidence(read -> read.getStart() % 2 == 0);
+        final Collection<AlleleLikelihoods<GATKRead, Allele>.BestAllele> afterRemoval = original.bestAllelesBreakingTies();
+        Assert.assertEquals(afterRemoval.size(), original.evidenceCount());
+        Assert.assertEquals(afterRemoval.size(), beforeRemoval.stream().filter(ba -> ba.evidence.getStart() % 2 == 0).count());
+
+        // so does adding evidence
+        final Map<String, List<GATKRead>> added = new LinkedHashMap<>();
+        for (final String sample : samples) {
+            added.put(sample, IntStream.range(0, 3)
+                    .mapToObj(r -> ArtificialReadUtils.createArtificialRead(SAM_HEADER, "ADDED" + sample + "00" + r, 0, EVEN_READ_START, 100))
+                    .collect(Collectors.toList()));
+        }
+        original.addEvidence(added, -1.0);
+        final Collection<AlleleLikelihoods<GATKRead, Allele>.BestAllele> afterAddition = original.bestAllelesBreakingTies();
+        Assert.assertEquals(afterAddition.size(), original.evidenceCount());
+        Assert.assertEquals(afterAddition.size(), afterRemoval.size() + 3 * samples.length);
+        original.stopCachingBestAlleles();
+        assertSameBestAlleles(afterAddition, original.bestAllelesBreakingTies());
+    }
+
+    private static void assertSameBestAlleles(final Collection<AlleleLikelihoods<GATKRead, Allele>.BestAllele> actual,
+                                              final Collection<AlleleLikelihoods<GATKRead, Allele>.BestAllele> expected) {
+        Assert.assertEquals(actual.size(), expected.size());
+        final Iterator<AlleleLikelihoods<GATKRead, Allele>.BestAllele> expectedIterator = expected.iterator();
+        for (final AlleleLikelihoods<GATKRead, Allele>.BestAllele bestAllele : actual) {
+            final AlleleLikelihoods<GATKRead, Allele>.BestAllele expectedBestAllele = expectedIterator.next();
+            Assert.assertSame(bestAllele.evidence, expectedBestAllele.evidence);
+            Assert.assertEquals(bestAllele.allele, expectedBestAllele.allele);
+            Assert.assertEquals(bestAllele.likelihood, expectedBestAllele.likelihood);
+            Assert.assertEquals(bestAllele.confidence, expectedBestAllele.confidence);
+        }
+    }
+
     @Test(dataProvider = "dataSets")
     public void testBestAlleleMap(final String[] samples, final Allele[] alleles, final Map<String,List<GATKRead>> reads) {
         final AlleleLikelihoods<GATKRead, Allele> original = new AlleleLikelihoods<>(new IndexedSampleList(samples), new IndexedAlleleList<>(alleles), reads);
@@ -785,6 +836,216 @@ public final class AlleleLikelihoodsUnitTest {
         return alleleList;
     }
 
+    // which evidence of a sample is removed, given its index and the number of evidence of the sample
+    enum RemovalPattern {
+        NONE, ALL, FIRST, LAST, FIRST_AND_LAST, RUNS_OF_THREE, SCATTERED;
+
+        boolean removes(final int evidenceIndex, final int evidenceCount) {
+            switch (this) {
+                case NONE: return false;
+                case ALL: return true;
+                case FIRST: return evidenceIndex == 0;
+                case LAST: return evidenceIndex == evidenceCount - 1;
+                case FIRST_AND_LAST: return evidenceIndex == 0 || evidenceIndex == evidenceCount - 1;
+                case RUNS_OF_THREE: return (evidenceIndex / 3) % 2 == 1;
+                case SCATTERED: return (evidenceIndex * 7919) % 5 < 2;
+                default: throw new IllegalStateException("unknown pattern " + this);
+            }
+        }
+    }
+
+    @DataProvider(name="readCountsNumberOfAllelesAndRemovalPatterns")
+    public Object[][] readCountsNumberOfAllelesAndRemovalPatterns() {
+        final List<Object[]> result = new ArrayList<>();
+        for (final int[] readCounts : READ_COUNTS)
+            for (final int numberOfAlleles : ALLELE_COUNTS)
+                for (final RemovalPattern pattern : RemovalPattern.values())
+                    result.add(new Object[]{ readCounts, numberOfAlleles, pattern });
+        return result.toArray(new Object[result.size()][]);
+    }
+
+    // likelihoods with ties and -Inf values, to exercise comparisons
+    private AlleleLikelihoods<GATKRead, Allele> makeLikelihoodsForLayout(final int[] readCounts, final int numberOfAlleles) {
+        final SampleList sampleList = sampleList(readCounts);
+        final AlleleList<Allele> alleleList = alleleList(numberOfAlleles, false);
+        final AlleleLikelihoods<GATKRead, Allele> result = new AlleleLikelihoods<>(sampleList, alleleList,
+                ReadLikelihoodsUnitTester.sampleToReads(sampleList, readCounts));
+        for (int s = 0; s < readCounts.length; s++) {
+            final LikelihoodMatrix<GATKRead, Allele> matrix = result.sampleMatrix(s);
+            for (int a = 0; a < numberOfAlleles; a++) {
+                for (int r = 0; r < readCounts[s]; r++) {
+                    matrix.set(a, r, (a + r) % 7 == 0 ? Double.NEGATIVE_INFINITY : testLikelihood(s, a % 3, r));
+                }
+            }
+        }
+        return result;
+    }
+
+    // the likelihoods of a sample as an allele by evidence array
+    private static double[][] sampleLikelihoods(final AlleleLikelihoods<GATKRead, Allele> likelihoods, final int sampleIndex) {
+        final LikelihoodMatrix<GATKRead, Allele> matrix = likelihoods.sampleMatrix(sampleIndex);
+        final double[][] result = new double[matrix.numberOfAlleles()][matrix.evidenceCount()];
+        for (int a = 0; a < result.length; a++) {
+            for (int r = 0; r < result[a].length; r++) {
+                result[a][r] = matrix.get(a, r);
+            }
+        }
+        return result;
+    }
+
+    // assert that the likelihoods of a sample are those of the retained evidence of the original, in order
+    private static void assertRetainedEvidence(final AlleleLikelihoods<GATKRead, Allele> result, final int sampleIndex,
+                                               final List<GATKRead> originalEvidence, final double[][] originalLikelihoods,
+                                               final List<Integer> retained) {
+        Assert.assertEquals(result.sampleEvidence(sampleIndex), retained.stream().map(originalEvidence::get).collect(Collectors.toList()));
+        final double[][] actual = sampleLikelihoods(result, sampleIndex);
+        for (int a = 0; a < originalLikelihoods.length; a++) {
+            for (int r = 0; r < retained.size(); r++) {
+                Assert.assertEquals(actual[a][r], originalLikelihoods[a][retained.get(r)]);
+            }
+        }
+    }
+
+    @Test(dataProvider="readCountsNumberOfAllelesAndRemovalPatterns")
+    public void testRetainEvidenceMatchesElementWiseRemoval(final int[] readCounts, final int numberOfAlleles, final RemovalPattern pattern) {
+        final AlleleLikelihoods<GATKRead, Allele> subject = makeLikelihoodsForLayout(readCounts, numberOfAlleles);
+        final List<List<GATKRead>> originalEvidence = new ArrayList<>();
+        final List<double[][]> originalLikelihoods = new ArrayList<>();
+        final Set<GATKRead> toRemove = new HashSet<>();
+        for (int s = 0; s < readCounts.length; s++) {
+            originalEvidence.add(new ArrayList<>(subject.sampleEvidence(s)));
+            originalLikelihoods.add(sampleLikelihoods(subject, s));
+            for (int r = 0; r < readCounts[s]; r++) {
+                if (pattern.removes(r, readCounts[s])) {
+                    toRemove.add(originalEvidence.get(s).get(r));
+                }
+            }
+        }
+
+        subject.retainEvidence(read -> !toRemove.contains(read));
+        checkEvidenceToIndexMapIsCorrect(subject);
+
+        for (int s = 0; s < readCounts.length; s++) {
+            final int sampleReadCount = readCounts[s];
+            final List<Integer> retained = IntStream.range(0, sampleReadCount)
+                    .filter(r -> !pattern.removes(r, sampleReadCount)).boxed().collect(Collectors.toList());
+            assertRetainedEvidence(subject, s, originalEvidence.get(s), originalLikelihoods.get(s), retained);
+        }
+
+        // evidence added after the removal does not see the likelihoods of removed evidence
+        final Map<String, List<GATKRead>> added = new LinkedHashMap<>();
+        for (int s = 0; s < readCounts.length; s++) {
+            final int sampleIndex = s;
+            added.put(subject.getSample(s), IntStream.range(0, readCounts[s])
+                    .mapToObj(r -> ArtificialReadUtils.createArtificialRead(SAM_HEADER, "ADDED_" + sampleIndex + "_" + r, 0, 1, 100))
+                    .collect(Collectors.toList()));
+        }
+        subject.addEvidence(added, -0.5);
+        checkEvidenceToIndexMapIsCorrect(subject);
+        for (int s = 0; s < readCounts.length; s++) {
+            final int retainedCount = subject.sampleEvidenceCount(s) - added.get(subject.getSample(s)).size();
+            final double[][] actual = sampleLikelihoods(subject, s);
+            for (int a = 0; a < numberOfAlleles; a++) {
+                for (int r = retainedCount; r < actual[a].length; r++) {
+                    Assert.assertEquals(actual[a][r], -0.5);
+                }
+            }
+        }
+    }
+
+    @Test(dataProvider="readCountsNumberOfAllelesAndRemovalPatterns")
+    public void testFilterPoorlyModeledEvidenceMatchesPerEvidenceMaximum(final int[] readCounts, final int numberOfAlleles, final RemovalPattern pattern) {
+        final AlleleLikelihoods<GATKRead, Allele> subject = makeLikelihoodsForLayout(readCounts, numberOfAlleles);
+        final List<List<GATKRead>> originalEvidence = new ArrayList<>();
+        final List<double[][]> originalLikelihoods = new ArrayList<>();
+        final List<List<Integer>> expectedRetained = new ArrayList<>();
+        final Map<GATKRead, Double> thresholds = new HashMap<>();
+        for (int s = 0; s < readCounts.length; s++) {
+            final double[][] likelihoods = sampleLikelihoods(subject, s);
+            originalEvidence.add(new ArrayList<>(subject.sampleEvidence(s)));
+            originalLikelihoods.add(likelihoods);
+            final List<Integer> retained = new ArrayList<>();
+            for (int r = 0; r < readCounts[s]; r++) {
+                double maximum = Double.NEGATIVE_INFINITY;
+                for (int a = 0; a < numberOfAlleles; a++) {
+                    maximum = Math.max(maximum, likelihoods[a][r]);
+                }
+                // evidence whose maximum equals its threshold is retained
+                final double threshold = pattern.removes(r, readCounts[s]) ? maximum + 1 : maximum;
+                thresholds.put(originalEvidence.get(s).get(r), threshold);
+                if (!(maximum < threshold)) {
+                    retained.add(r);
+                }
+            }
+            expectedRetained.add(retained);
+        }
+
+        subject.filterPoorlyModeledEvidence(thresholds::get);
+        checkEvidenceToIndexMapIsCorrect(subject);
+
+        for (int s = 0; s < readCounts.length; s++) {
+            final List<Integer> retained = expectedRetained.get(s);
+            assertRetainedEvidence(subject, s, originalEvidence.get(s), originalLikelihoods.get(s), retained);
+            final List<GATKRead> sampleEvidence = originalEvidence.get(s);
+            Assert.assertEquals(subject.filteredEvidenceBySampleIndex.get(s), IntStream.range(0, sampleEvidence.size())
+                    .filter(r -> !retained.contains(r)).mapToObj(sampleEvidence::get).collect(Collectors.toList()));
+        }
+    }
+
+    @DataProvider(name="readCountsAndNumberOfAllelesSkippingNoAllele")
+    public Object[][] readCountsAndNumberOfAllelesSkippingNoAllele() {
+        final List<Object[]> result = new ArrayList<>();
+        for (final int[] readCounts : READ_COUNTS)
+            for (final int numberOfAlleles : ALLELE_COUNTS)
+                if (numberOfAlleles > 0)
+                    result.add(new Object[]{ readCounts, numberOfAlleles });
+        return result.toArray(new Object[result.size()][]);
+    }
+
+    @Test(dataProvider="readCountsAndNumberOfAllelesSkippingNoAllele")
+    public void testMarginalizationLayoutsMatchPerEvidenceMaximum(final int[] readCounts, final int numberOfAlleles) {
+        final AlleleLikelihoods<GATKRead, Allele> original = makeLikelihoodsForLayout(readCounts, numberOfAlleles);
+        final List<Allele> oldAlleles = original.alleles();
+
+        // one to one; all to one; interleaved groups; and overlapping pairs
+        final List<Map<Allele, List<Allele>>> layouts = new ArrayList<>();
+        layouts.add(marginalizationLayout(numberOfAlleles, j -> Collections.singletonList(oldAlleles.get(j))));
+        layouts.add(marginalizationLayout(1, j -> oldAlleles));
+        layouts.add(marginalizationLayout(Math.min(2, numberOfAlleles), j -> IntStream.range(0, numberOfAlleles)
+                .filter(a -> a % 2 == j).mapToObj(oldAlleles::get).collect(Collectors.toList())));
+        layouts.add(marginalizationLayout(numberOfAlleles, j -> IntStream.of(j, (j + 1) % numberOfAlleles).distinct()
+                .mapToObj(oldAlleles::get).collect(Collectors.toList())));
+
+        for (final Map<Allele, List<Allele>> newToOldAlleleMapping : layouts) {
+            final AlleleLikelihoods<GATKRead, Allele> marginalized = original.marginalize(newToOldAlleleMapping);
+            Assert.assertEquals(marginalized.numberOfAlleles(), newToOldAlleleMapping.size());
+            for (int s = 0; s < readCounts.length; s++) {
+                Assert.assertEquals(marginalized.sampleEvidence(s), original.sampleEvidence(s));
+                final double[][] oldLikelihoods = sampleLikelihoods(original, s);
+                final double[][] newLikelihoods = sampleLikelihoods(marginalized, s);
+                for (int a = 0; a < marginalized.numberOfAlleles(); a++) {
+                    final List<Allele> mapped = newToOldAlleleMapping.get(marginalized.getAllele(a));
+                    for (int r = 0; r < readCounts[s]; r++) {
+                        double expected = Double.NEGATIVE_INFINITY;
+                        for (final Allele oldAllele : mapped) {
+                            expected = Math.max(expected, oldLikelihoods[original.indexOfAllele(oldAllele)][r]);
+                        }
+                        Assert.assertEquals(newLikelihoods[a][r], expected);
+                    }
+                }
+            }
+        }
+    }
+
+    // new alleles, of distinct lengths, each mapped to the old alleles given by its index
+    private static Map<Allele, List<Allele>> marginalizationLayout(final int numberOfNewAlleles, final IntFunction<List<Allele>> oldAlleles) {
+        final Map<Allele, List<Allele>> result = new LinkedHashMap<>(numberOfNewAlleles);
+        for (int j = 0; j < numberOfNewAlleles; j++) {
+            result.put(Allele.create(Utils.dupString("C", j + 1), j == 0), oldAlleles.apply(j));
+        }
+        return result;
+    }
+
     @Test
     public void testBug7153ZombieLkValues() {
         final SimpleInterval evidence1 = new SimpleInterval("seq1", 1,1);
@@ -0,0 +1,59 @@
+package org.broadinstitute.hellbender.utils.read;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class FlowBasedReadAttributesUnitTest extends GATKBaseTest {
+
+    private static final byte[] TP = {0, 0, 1, 0, 1, -1, 0, 0};
+
+    private GATKRead createRead(final String bases, final String cigar) {
+        final GATKRead read = ArtificialReadUtils.createArtificialRead(bases.getBytes(), new byte[bases.length()], cigar);
+        read.setAttribute(FlowBasedRead.FLOW_MATRIX_TAG_NAME, TP.clone());
+        return read;
+    }
+
+    @Test
+    public void testAttributes() {
+
+        final GATKRead read = createRead("ACCGGGTT", "8M");
+        final FlowBasedReadAttributes attributes = FlowBasedReadAttributes.of(read);
+
+        Assert.assertEquals(attributes.getHmerLengths(), new int[] {1, 2, 3, 2});
+        Assert.assertEquals(attributes.getTp(), TP);
+        Assert.assertNull(attributes.getT0());
+        Assert.assertEquals(attributes.getKey("TGCA"), FlowBasedKeyCodec.baseArrayToKey(read.getBasesNoCopy(), "TGCA"));
+        Assert.assertFalse(attributes.isStartHardClipped());
+        Assert.assertFalse(attributes.isEndHardClipped());
+    }
+
+    @Test
+    public void testHardClips() {
+
+        final FlowBasedReadAttributes attributes = FlowBasedReadAttributes.of(createRead("ACCGGGTT", "2H8M1H"));
+
+        Assert.assertTrue(attributes.isStartHardClipped());
+        Assert.assertTrue(attributes.isEndHardClipped());
+    }
+
+    @Test
+    public void testViewIsShared() {
+
+        final GATKRead read = createRead("ACCGGGTT", "8M");
+        final FlowBasedReadAttributes attributes = FlowBasedReadAttributes.of(read);
+
+        // same read, same view
+        Assert.assertSame(FlowBasedReadAttributes.of(read), attributes);
+
+        // another read, another view
+        final GATKRead otherRead = createRead("ACCGGGTT", "8M");
+        Assert.assertNotSame(FlowBasedReadAttributes.of(otherRead), attributes);
+
+        // modified read, fresh view
+        read.setBases("AACGGGTT".getBytes());
+        final FlowBasedReadAttributes modifiedAttributes = FlowBasedReadAttributes.of(read);
+        Assert.assertNotSame(modifiedAttributes, attributes);
+        Assert.assertEquals(modifiedAttributes.getHmerLengths(), new int[] {2, 1, 3, 2});
+    }
+}
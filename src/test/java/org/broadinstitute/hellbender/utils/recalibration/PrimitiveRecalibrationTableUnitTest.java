@@ -0,0 +1,87 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.collections.NestedIntegerArray;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public final class PrimitiveRecalibrationTableUnitTest extends GATKBaseTest {
+    private static final int NUM_READ_GROUPS = 3;
+    private static final int QUAL_DIMENSION = 50;
+    private static final int COVARIATE_DIMENSION = 2000;   // spans several pages
+    private static final int EVENT_DIMENSION = EventType.values().length;
+
+    @Test
+    public void testFlushMatchesRecalDatumAccumulation() {
+        final PrimitiveRecalibrationTable primitiveTable = new PrimitiveRecalibrationTable(NUM_READ_GROUPS, QUAL_DIMENSION, COVARIATE_DIMENSION, EVENT_DIMENSION);
+        final NestedIntegerArray<RecalDatum> expected = new NestedIntegerArray<>(NUM_READ_GROUPS, QUAL_DIMENSION, COVARIATE_DIMENSION, EVENT_DIMENSION);
+
+        final Random random = new Random(13);
+        for ( int i = 0; i < 100000; i++ ) {
+            final int rg = random.nextInt(NUM_READ_GROUPS);
+            final int qual = random.nextInt(QUAL_DIMENSION);
+            final int cov = random.nextInt(COVARIATE_DIMENSION);
+            final int event = random.nextInt(EVENT_DIMENSION);
+            final double isError = random.nextInt(4) == 0 ? random.nextDouble() : 0.0;
+            primitiveTable.increment(rg, qual, cov, event, isError);
+            RecalUtils.incrementDatumOrPutIfNecessary4keys(expected, (byte)qual, isError, rg, qual, cov, event);
+        }
+
+        final NestedIntegerArray<RecalDatum> actual = new NestedIntegerArray<>(NUM_READ_GROUPS, QUAL_DIMENSION, COVARIATE_DIMENSION, EVENT_DIMENSION);
+        primitiveTable.flushInto(actual);
+        Assert.assertTrue(primitiveTable.isEmpty());
+
+        Assert.assertEquals(actual.getAllLeaves().size(), expected.getAllLeaves().size());
+        for ( final NestedIntegerArray.Leaf<RecalDatum> leaf : expected.getAllLeaves() ) {
+            final RecalDatum datum = actual.get(leaf.keys);
+            Assert.assertNotNull(datum);
+            Assert.assertEquals(datum.getNumObservations(), leaf.value.getNumObservations());
+            Assert.assertEquals(datum.getNumMismatches(), leaf.value.getNumMismatches());
+            Assert.assertEquals(datum.getEstimatedQReported(), leaf.value.getEstimatedQReported());
+            Assert.assertEquals(datum.getEmpiricalQuality(), leaf.value.getEmpiricalQuality());
+        }
+    }
+
+    @Test
+    public void testFlushIntoTableWithoutCovariate() {
+        final PrimitiveRecalibrationTable primitiveTable = new PrimitiveRecalibrationTable(NUM_READ_GROUPS, QUAL_DIMENSION, 1, EVENT_DIMENSION);
+        primitiveTable.increment(1, 30, 0, 2, 1.0);
+        primitiveTable.increment(1, 30, 0, 2, 0.0);
+
+        // flushing into a table holding data increments the existing datum
+        final NestedIntegerArray<RecalDatum> table = new NestedIntegerArray<>(NUM_READ_GROUPS, QUAL_DIMENSION, EVENT_DIMENSION);
+        table.put(new RecalDatum(3, 1.0, (byte)30), 1, 30, 2);
+        primitiveTable.flushInto(table);
+
+        final RecalDatum datum = table.get3Keys(1, 30, 2);
+        Assert.assertEquals(datum.getNumObservations(), 5);
+        Assert.assertEquals(datum.getNumMismatches(), 2.0);
+        Assert.assertEquals(table.getAllValues().size(), 1);
+    }
+
+    @Test
+    public void testIncrementAtomic() {
+        final PrimitiveRecalibrationTable primitiveTable = new PrimitiveRecalibrationTable(NUM_READ_GROUPS, QUAL_DIMENSION, COVARIATE_DIMENSION, EVENT_DIMENSION);
+        final int increments = 10000;
+
+        IntStream.range(0, increments).parallel().forEach(i -> {
+            primitiveTable.incrementAtomic(i % NUM_READ_GROUPS, 20, i % 7, 0, 1.0);
+            primitiveTable.incrementAtomic(0, 10, 1500, 1, 0.5);
+        });
+
+        long observations = 0;
+        for ( int rg = 0; rg < NUM_READ_GROUPS; rg++ ) {
+            for ( int cov = 0; cov < 7; cov++ ) {
+                observations += primitiveTable.getNumObservations(rg, 20, cov, 0);
+                Assert.assertEquals(primitiveTable.getNumMismatches(rg, 20, cov, 0), (double)primitiveTable.getNumObservations(rg, 20, cov, 0));
+            }
+        }
+        Assert.assertEquals(observations, increments);
+        Assert.assertEquals(primitiveTable.getNumObservations(0, 10, 1500, 1), increments);
+        Assert.assertEquals(primitiveTable.getNumMismatches(0, 10, 1500, 1), increments * 0.5);
+        Assert.assertEquals(primitiveTable.getNumObservations(0, 10, 1501, 1), 0);
+    }
+}
@@ -0,0 +1,98 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.transformers.BQSRReadTransformer;
+import org.broadinstitute.hellbender.utils.QualityUtils;
+import org.broadinstitute.hellbender.utils.recalibration.covariates.StandardCovariateList;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.broadinstitute.hellbender.utils.MathUtils.fastRound;
+import static org.broadinstitute.hellbender.utils.QualityUtils.boundQual;
+import static org.broadinstitute.hellbender.utils.recalibration.RecalDatum.MAX_RECALIBRATED_Q_SCORE;
+
+public final class RecalibratedQualityLookupUnitTest extends GATKBaseTest {
+    private static final int NUM_READ_GROUPS = 3;
+    private static final int BASE_SUBSTITUTION_INDEX = EventType.BASE_SUBSTITUTION.ordinal();
+
+    private static RecalibrationTables makeTables(final int contextSize) {
+        final RecalibrationArgumentCollection args = new RecalibrationArgumentCollection();
+        args.MISMATCHES_CONTEXT_SIZE = contextSize;
+        final StandardCovariateList covariates = new StandardCovariateList(args, Arrays.asList("rg0", "rg1", "rg2"));
+        final RecalibrationTables tables = new RecalibrationTables(covariates, NUM_READ_GROUPS);
+
+        // read group 2 is left without data
+        final Random random = new Random(7);
+        for ( int i = 0; i < 20000; i++ ) {
+            final int rg = random.nextInt(NUM_READ_GROUPS - 1);
+            final byte qual = (byte)(10 + random.nextInt(30));
+            final double isError = random.nextInt(20) == 0 ? 1.0 : 0.0;
+            RecalUtils.incrementDatumOrPutIfNecessary3keys(tables.getQualityScoreTable(), qual, isError, rg, qual, BASE_SUBSTITUTION_INDEX);
+            for ( int t = 2; t < tables.numTables(); t++ ) {
+                final int cov = random.nextInt(50);
+                RecalUtils.incrementDatumOrPutIfNecessary4keys(tables.getTable(t), qual, isError, rg, qual, cov, BASE_SUBSTITUTION_INDEX);
+            }
+        }
+        BaseRecalibrationEngine.finalizeRecalibrationTables(tables);
+        return tables;
+    }
+
+    @DataProvider(name = "lookupDataProvider")
+    public Object[][] lookupDataProvider() {
+        // a context size of 6 makes the context covariate dimension large enough for its deltas to be stored sparsely
+        return new Object[][] {
+                { 0.0, null, 2 },
+                { 25.0, null, 2 },
+                { 0.0, BQSRReadTransformer.constructStaticQuantizedMapping(Arrays.asList(10, 20, 30), false), 2 },
+                { 0.0, null, 6 },
+                { 25.0, null, 6 },
+        };
+    }
+
+    @Test(dataProvider = "lookupDataProvider")
+    public void testLookupMatchesEstimate(final double globalQScorePrior, final byte[] staticQuantizedMapping, final int contextSize) {
+        final RecalibrationTables tables = makeTables(contextSize);
+        final List<Byte> quantizedQuals = new ArrayList<>();
+        for ( int qual = 0; qual <= QualityUtils.MAX_SAM_QUAL_SCORE; qual++ ) {
+            quantizedQuals.add((byte)(qual - qual % 5));
+        }
+        final RecalibratedQualityLookup lookup = new RecalibratedQualityLookup(tables, globalQScorePrior, quantizedQuals, staticQuantizedMapping);
+
+        Assert.assertTrue(lookup.hasReadGroup(0));
+        Assert.assertTrue(lookup.hasReadGroup(1));
+        Assert.assertFalse(lookup.hasReadGroup(2));
+        Assert.assertFalse(lookup.hasReadGroup(NUM_READ_GROUPS));
+
+        final int numAdditionalCovariates = tables.numTables() - 2;
+        for ( int rg = 0; rg < 2; rg++ ) {
+            final RecalDatum empiricalQualRG = tables.getReadGroupTable().get2Keys(rg, BASE_SUBSTITUTION_INDEX);
+            final double epsilon = globalQScorePrior > 0.0 ? globalQScorePrior : empiricalQualRG.getEstimatedQReported();
+            for ( int qual = 0; qual <= QualityUtils.MAX_SAM_QUAL_SCORE + 1; qual++ ) {
+                // covariate keys: observed, unobserved, out of range and missing (negative)
+                for ( final int cov : new int[] {0, 17, 49, 60, -1} ) {
+                    final int[] keySet = new int[2 + numAdditionalCovariates];
+                    keySet[0] = rg;
+                    keySet[1] = qual;
+                    Arrays.fill(keySet, 2, keySet.length, cov);
+
+                    final RecalDatum[] empiricalQualCovs = new RecalDatum[numAdditionalCovariates];
+                    for ( int i = 0; i < numAdditionalCovariates; i++ ) {
+                        empiricalQualCovs[i] = cov >= 0 ? tables.getTable(2 + i).get4Keys(rg, qual, cov, BASE_SUBSTITUTION_INDEX) : null;
+                    }
+                    final double estimate = BQSRReadTransformer.hierarchicalBayesianQualityEstimate(epsilon, empiricalQualRG,
+                            tables.getQualityScoreTable().get3Keys(rg, qual, BASE_SUBSTITUTION_INDEX), empiricalQualCovs);
+                    final byte quantized = quantizedQuals.get(boundQual(fastRound(estimate), MAX_RECALIBRATED_Q_SCORE));
+                    final byte expected = staticQuantizedMapping == null ? quantized : staticQuantizedMapping[quantized];
+
+                    Assert.assertEquals(lookup.getRecalibratedQual(keySet), expected, "rg " + rg + " qual " + qual + " cov " + cov);
+                }
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
+import org.broadinstitute.hellbender.utils.recalibration.EventType;
 import org.broadinstitute.hellbender.utils.recalibration.RecalUtils;
 import org.broadinstitute.hellbender.utils.recalibration.RecalibrationArgumentCollection;
 import org.broadinstitute.hellbender.GATKBaseTest;
@@ -84,4 +85,23 @@ public final class ReadCovariatesUnitTest extends GATKBaseTest {
 
     }
 
+    @Test
+    public void testKeysBufferIsReused() {
+        final CovariateKeyCache keyCache = new CovariateKeyCache();
+
+        final ReadCovariates longRead = new ReadCovariates(150, 4, keyCache);
+        Assert.assertEquals(longRead.getLength(), 150);
+        Assert.assertEquals(keyCache.capacity(), 150);
+
+        // shorter reads share the buffer of the longest read seen
+        final ReadCovariates shortRead = new ReadCovariates(20, 4, keyCache);
+        Assert.assertEquals(shortRead.getLength(), 20);
+        Assert.assertSame(shortRead.getKeySet(EventType.BASE_SUBSTITUTION), longRead.getKeySet(EventType.BASE_SUBSTITUTION));
+        Assert.assertEquals(shortRead.getMismatchesKeySet().length, 20);
+
+        // a longer read grows the buffer
+        final ReadCovariates longerRead = new ReadCovariates(300, 4, keyCache);
+        Assert.assertEquals(keyCache.capacity(), 300);
+        Assert.assertNotSame(longerRead.getKeySet(EventType.BASE_SUBSTITUTION), longRead.getKeySet(EventType.BASE_SUBSTITUTION));
+    }
 }
@@ -3,6 +3,7 @@ package org.broadinstitute.hellbender.utils.variant.writers;
 import htsjdk.variant.variantcontext.*;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.variant.HomoSapiensConstants;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -10,7 +11,9 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 public class HomRefBlockUnitTest extends GATKBaseTest {
     private static final String SAMPLE_NAME = "foo";
@@ -78,6 +81,22 @@ public class HomRefBlockUnitTest extends GATKBaseTest {
         Assert.assertEquals(band.getMinPLs(), new int[]{0, 10, 100});
     }
 
+    @Test
+    public void testMinMedianOfManyUnorderedDPs() {
+        final VariantContext vc = getVariantContext();
+        final HomRefBlock band = getHomRefBlock(vc);
+        final List<Integer> DPs = new ArrayList<>(Arrays.asList(10));
+        final GenotypeBuilder gb = new GenotypeBuilder(SAMPLE_NAME, vc.getAlleles()).GQ(15).PL(new int[]{0, 15, 100});
+        final Random random = new Random(13);
+        int pos = band.getEnd() + 1;
+        for (int i = 0; i < 100; i++) {
+            final int dp = random.nextInt(50);
+            band.add(pos++, gb.DP(dp).make());
+            DPs.add(dp);
+            assertValues(band, Collections.min(DPs), (int) Math.round(MathUtils.median(DPs)));
+        }
+    }
+
     @DataProvider
     public static Object[][] badAdditions() {
         final VariantContext vc = getVariantContext();